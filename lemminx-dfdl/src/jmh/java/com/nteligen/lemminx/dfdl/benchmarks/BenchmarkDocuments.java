@@ -0,0 +1,64 @@
+package com.nteligen.lemminx.dfdl.benchmarks;
+
+import java.util.List;
+
+import org.eclipse.lemminx.dom.DOMDocument;
+import org.eclipse.lemminx.dom.DOMParser;
+
+import com.nteligen.lemminx.dfdl.models.feature.Feature;
+import com.nteligen.lemminx.dfdl.services.FeatureIndex;
+import com.nteligen.lemminx.dfdl.services.FeatureService;
+import com.nteligen.lemminx.dfdl.util.DfdlConstants;
+
+/**
+ * Feature lists and synthetic server.xml documents shared by the benchmarks.
+ * Feature lists are never fetched from Maven, so that the benchmarks measure
+ * the bundled default list only.
+ */
+final class BenchmarkDocuments {
+
+    // relative to the lemminx-dfdl directory, where the benchmarks are run
+    static final String FEATURE_JSON = System.getProperty("dfdl.features.json",
+            "src/main/features/features-" + DfdlConstants.DEFAULT_SERVER_VERSION + ".json");
+
+    static final String SERVER_XML_URI = "file:///benchmark/wlp/usr/servers/defaultServer/server.xml";
+
+    private BenchmarkDocuments() {
+    }
+
+    static FeatureIndex getDefaultFeatureIndex() {
+        FeatureService.getInstance().setRemoteFetchEnabled(false);
+        return FeatureService.getInstance().getFeatureIndex(null, 0, SERVER_XML_URI);
+    }
+
+    /**
+     * Returns a server.xml whose featureManager block has the given number of
+     * features: the public features of the default list in order, then features
+     * that do not exist.
+     *
+     * @param featureCount number of <feature> elements
+     * @param offset       position of the first feature in the default list, so
+     *                     that documents with the same count differ
+     * @return server.xml text
+     */
+    static String createServerXML(int featureCount, int offset) {
+        List<Feature> features = getDefaultFeatureIndex().getFeatures();
+        StringBuilder serverXML = new StringBuilder("<server description=\"benchmark\">\n");
+        serverXML.append("    <featureManager>\n");
+        for (int i = 0; i < featureCount; i++) {
+            int position = i + offset;
+            String featureName = position < features.size()
+                    ? features.get(position).getWlpInformation().getShortName()
+                    : "missing-" + position;
+            serverXML.append("        <feature>").append(featureName).append("</feature>\n");
+        }
+        serverXML.append("    </featureManager>\n");
+        serverXML.append("    <httpEndpoint id=\"defaultHttpEndpoint\" httpPort=\"9080\" httpsPort=\"9443\"/>\n");
+        serverXML.append("</server>\n");
+        return serverXML.toString();
+    }
+
+    static DOMDocument parse(String serverXML) {
+        return DOMParser.getInstance().parse(serverXML, SERVER_XML_URI, null);
+    }
+}
@@ -0,0 +1,101 @@
+package com.nteligen.lemminx.dfdl.benchmarks;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.lemminx.dom.DOMDocument;
+import org.eclipse.lemminx.dom.DOMElement;
+import org.eclipse.lemminx.dom.DOMNode;
+import org.eclipse.lemminx.services.extensions.ICompletionRequest;
+import org.eclipse.lemminx.services.extensions.ICompletionResponse;
+import org.eclipse.lsp4j.CompletionItem;
+import org.eclipse.lsp4j.jsonrpc.CancelChecker;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.nteligen.lemminx.dfdl.DfdlCompletionParticipant;
+
+/**
+ * Feature completion inside a <feature> element of a server.xml with ten
+ * features already configured, with nothing typed yet (every feature is
+ * proposed) and with a prefix typed.
+ *
+ * The request and response are minimal proxies so that only the participant
+ * is measured, not the rest of the LemMinx completion pipeline.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CompletionBenchmark {
+
+    private static final CancelChecker NEVER_CANCELLED = () -> {
+    };
+
+    @Param({ "", "mp" })
+    public String typedText;
+
+    private DfdlCompletionParticipant participant;
+    private ICompletionRequest request;
+    private ICompletionResponse response;
+    private final List<CompletionItem> items = new ArrayList<>();
+
+    @Setup
+    public void setup() {
+        participant = new DfdlCompletionParticipant();
+        String serverXML = BenchmarkDocuments.createServerXML(10, 0);
+        String completedFeature = "<feature>" + typedText;
+        int featureManagerEnd = serverXML.indexOf("    </featureManager>");
+        serverXML = serverXML.substring(0, featureManagerEnd) + "        " + completedFeature + "</feature>\n"
+                + serverXML.substring(featureManagerEnd);
+        int offset = featureManagerEnd + 8 + completedFeature.length();
+
+        DOMDocument document = BenchmarkDocuments.parse(serverXML);
+        DOMNode node = document.findNodeAt(offset);
+        while (node != null && !node.isElement()) {
+            node = node.getParentNode();
+        }
+        DOMElement parentElement = (DOMElement) node;
+        request = (ICompletionRequest) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] { ICompletionRequest.class }, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                    case "getXMLDocument":
+                        return document;
+                    case "getParentElement":
+                        return parentElement;
+                    case "getOffset":
+                        return offset;
+                    default:
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+        response = (ICompletionResponse) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] { ICompletionResponse.class }, (proxy, method, args) -> {
+                    if (method.getName().equals("addCompletionItem")) {
+                        items.add((CompletionItem) args[0]);
+                        return null;
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    @Benchmark
+    public List<CompletionItem> complete() throws Exception {
+        items.clear();
+        participant.onXMLContent(request, response, NEVER_CANCELLED);
+        return items;
+    }
+}
@@ -0,0 +1,77 @@
+package com.nteligen.lemminx.dfdl.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.lemminx.dom.DOMDocument;
+import org.eclipse.lsp4j.Diagnostic;
+import org.eclipse.lsp4j.jsonrpc.CancelChecker;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.nteligen.lemminx.dfdl.DfdlDiagnosticParticipant;
+
+/**
+ * Feature diagnostics of server.xml documents with 10 to 1,000 features:
+ * unchanged documents (ie. typing outside of the featureManager block),
+ * edited blocks, and documents never validated before.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DiagnosticsBenchmark {
+
+    private static final CancelChecker NEVER_CANCELLED = () -> {
+    };
+
+    @Param({ "10", "100", "1000" })
+    public int featureCount;
+
+    private DfdlDiagnosticParticipant participant;
+    private DOMDocument document;
+    private DOMDocument[] editedDocuments;
+    private int edits;
+
+    @Setup
+    public void setup() {
+        participant = new DfdlDiagnosticParticipant();
+        document = BenchmarkDocuments.parse(BenchmarkDocuments.createServerXML(featureCount, 0));
+        // the same uri with another featureManager block, as after an edit
+        editedDocuments = new DOMDocument[] { document,
+                BenchmarkDocuments.parse(BenchmarkDocuments.createServerXML(featureCount, 1)) };
+    }
+
+    @Benchmark
+    public List<Diagnostic> unchangedDocument() {
+        List<Diagnostic> diagnostics = new ArrayList<>();
+        participant.doDiagnostics(document, diagnostics, null, NEVER_CANCELLED);
+        return diagnostics;
+    }
+
+    @Benchmark
+    public List<Diagnostic> editedDocument() {
+        List<Diagnostic> diagnostics = new ArrayList<>();
+        participant.doDiagnostics(editedDocuments[edits++ & 1], diagnostics, null, NEVER_CANCELLED);
+        return diagnostics;
+    }
+
+    @Benchmark
+    public List<Diagnostic> newDocument() {
+        List<Diagnostic> diagnostics = new ArrayList<>();
+        new DfdlDiagnosticParticipant().doDiagnostics(document, diagnostics, null, NEVER_CANCELLED);
+        return diagnostics;
+    }
+}
@@ -0,0 +1,77 @@
+package com.nteligen.lemminx.dfdl.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.nteligen.lemminx.dfdl.models.feature.Feature;
+import com.nteligen.lemminx.dfdl.services.FeatureDependencyGraph.Node;
+import com.nteligen.lemminx.dfdl.services.FeatureIndex;
+import com.nteligen.lemminx.dfdl.util.FeatureCatalogFile;
+import com.nteligen.lemminx.dfdl.util.FeatureJsonReader;
+
+/**
+ * Loading the bundled feature list: streaming the json published to Maven,
+ * decoding the binary catalog compiled from it, and building the index over
+ * the features.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FeatureLoadingBenchmark {
+
+    private byte[] json;
+    private byte[] catalog;
+    private List<Feature> features;
+    private List<Node> nonPublicFeatures;
+
+    @Setup
+    public void setup() throws IOException {
+        json = Files.readAllBytes(Paths.get(BenchmarkDocuments.FEATURE_JSON));
+        try (Reader reader = new InputStreamReader(new ByteArrayInputStream(json), StandardCharsets.UTF_8)) {
+            nonPublicFeatures = new ArrayList<>();
+            features = FeatureJsonReader.readFeatures(reader, nonPublicFeatures);
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        FeatureCatalogFile.write(features, nonPublicFeatures, out);
+        catalog = out.toByteArray();
+    }
+
+    @Benchmark
+    public ArrayList<Feature> readJson() {
+        return FeatureJsonReader.readFeatures(
+                new InputStreamReader(new ByteArrayInputStream(json), StandardCharsets.UTF_8), new ArrayList<>());
+    }
+
+    @Benchmark
+    public FeatureIndex readCatalog() throws IOException {
+        return FeatureIndex.of(FeatureCatalogFile.wrap(catalog));
+    }
+
+    @Benchmark
+    public FeatureIndex buildIndex() {
+        return new FeatureIndex(features, nonPublicFeatures);
+    }
+}
@@ -0,0 +1,69 @@
+package com.nteligen.lemminx.dfdl.benchmarks;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.nteligen.lemminx.dfdl.models.feature.Feature;
+import com.nteligen.lemminx.dfdl.services.FeatureDependencyGraph;
+import com.nteligen.lemminx.dfdl.services.FeatureIndex;
+
+/**
+ * Lookups in the index of the default feature list, as done by hover,
+ * completion and diagnostics.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FeatureLookupBenchmark {
+
+    private FeatureIndex featureIndex;
+    private int[] configuredFeatures;
+
+    @Setup
+    public void setup() {
+        featureIndex = BenchmarkDocuments.getDefaultFeatureIndex();
+        FeatureDependencyGraph graph = featureIndex.getDependencyGraph();
+        configuredFeatures = new int[] { graph.getOrdinal("jaxrs-2.1"), graph.getOrdinal("cdi-2.0"),
+                graph.getOrdinal("jsonb-1.0"), graph.getOrdinal("servlet-4.0"), graph.getOrdinal("mpConfig-1.4") };
+    }
+
+    @Benchmark
+    public Optional<Feature> getFeature() {
+        return featureIndex.getFeature("JAXRS-2.1");
+    }
+
+    @Benchmark
+    public boolean featureExists() {
+        return featureIndex.featureExists("mpConfig-1.4");
+    }
+
+    @Benchmark
+    public boolean featureDoesNotExist() {
+        return featureIndex.featureExists("jaxrs-9.9");
+    }
+
+    @Benchmark
+    public List<Feature> getFeaturesByPrefix() {
+        return featureIndex.getFeaturesByPrefix("config");
+    }
+
+    @Benchmark
+    public List<FeatureDependencyGraph.Conflict> findConflicts() {
+        return featureIndex.getDependencyGraph().findConflicts(configuredFeatures);
+    }
+}
@@ -0,0 +1,351 @@
+package com.nteligen.lemminx.dfdl;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonWriter;
+
+import org.eclipse.lemminx.dom.DOMDocument;
+import org.eclipse.lemminx.dom.DOMParser;
+import org.eclipse.lsp4j.Diagnostic;
+import org.eclipse.lsp4j.DiagnosticSeverity;
+import org.eclipse.lsp4j.Range;
+import org.eclipse.lsp4j.jsonrpc.CancelChecker;
+
+import com.nteligen.lemminx.dfdl.models.settings.DfdlSettings;
+import com.nteligen.lemminx.dfdl.services.FeatureService;
+import com.nteligen.lemminx.dfdl.services.SettingsService;
+import com.nteligen.lemminx.dfdl.util.DfdlConstants;
+
+/**
+ * Command line validator for the server.xml files under a directory, ie. to
+ * gate CI on configuration correctness. Every server.xml is parsed and checked
+ * by the same {@link DfdlDiagnosticParticipant} and {@link FeatureService} as
+ * in the editor, in parallel on a fork-join pool. Feature lists are never
+ * fetched from Maven: all files share the one catalog of the given version
+ * from the LemMinx cache, or the bundled default catalog, with a warning on
+ * the standard error if the given version is not cached.
+ *
+ * Diagnostics are written as JSON or SARIF to the standard output (or a file),
+ * throughput statistics to the standard error. Exits with 1 if any file has an
+ * error, 2 on a usage error.
+ *
+ * Usage: DfdlBatchValidator [--format json|sarif] [--output file]
+ * [--version Dfdl version] [--threads count] directory
+ *
+ * Needs LemMinx on the classpath, along with this jar and its dependencies.
+ */
+public final class DfdlBatchValidator {
+
+    private static final String USAGE = "Usage: DfdlBatchValidator [--format json|sarif] [--output file]"
+            + " [--version Dfdl version] [--threads count] directory";
+
+    private static final String SARIF_SCHEMA = "https://json.schemastore.org/sarif-2.1.0.json";
+
+    // the participant never waits for anything here, so nothing to cancel
+    private static final CancelChecker NEVER_CANCELLED = () -> {
+    };
+
+    /**
+     * Diagnostics of one server.xml file.
+     */
+    public static final class FileResult {
+        private final Path file;
+        private final List<Diagnostic> diagnostics;
+        private final String error;
+
+        FileResult(Path file, List<Diagnostic> diagnostics, String error) {
+            this.file = file;
+            this.diagnostics = diagnostics;
+            this.error = error;
+        }
+
+        public Path getFile() {
+            return file;
+        }
+
+        public List<Diagnostic> getDiagnostics() {
+            return diagnostics;
+        }
+
+        /**
+         * @return why the file could not be validated, or null
+         */
+        public String getError() {
+            return error;
+        }
+    }
+
+    // each file is validated once, so remembering validations per document
+    // would only contend on the cache across the validation threads
+    private final DfdlDiagnosticParticipant diagnosticParticipant = new DfdlDiagnosticParticipant(false);
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        System.exit(run(args, System.out, System.err));
+    }
+
+    /**
+     * Runs the validator, see the class comment for the arguments.
+     *
+     * @param args command line arguments
+     * @param out  stream the diagnostics are written to, unless --output is given
+     * @param err  stream the statistics and usage are written to
+     * @return exit code
+     */
+    public static int run(String[] args, PrintStream out, PrintStream err) throws IOException, InterruptedException {
+        String format = "json";
+        Path output = null;
+        String DfdlVersion = null;
+        int threads = Runtime.getRuntime().availableProcessors();
+        Path directory = null;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                case "--format":
+                    format = args[++i];
+                    break;
+                case "--output":
+                    output = Paths.get(args[++i]);
+                    break;
+                case "--version":
+                    DfdlVersion = args[++i];
+                    break;
+                case "--threads":
+                    threads = Integer.parseInt(args[++i]);
+                    break;
+                default:
+                    if (directory != null || args[i].startsWith("--")) {
+                        throw new IllegalArgumentException(args[i]);
+                    }
+                    directory = Paths.get(args[i]);
+                }
+            }
+            if (directory == null || threads < 1 || !(format.equals("json") || format.equals("sarif"))) {
+                throw new IllegalArgumentException();
+            }
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            err.println(USAGE);
+            return 2;
+        }
+
+        // the settings are shared with anything else running in this process,
+        // ie. a language server, so they are put back once validated
+        FeatureService featureService = FeatureService.getInstance();
+        SettingsService settingsService = SettingsService.getInstance();
+        boolean remoteFetchEnabled = featureService.isRemoteFetchEnabled();
+        DfdlSettings settings = settingsService.getDfdlSettings();
+        List<FileResult> results;
+        long elapsed;
+        try {
+            featureService.setRemoteFetchEnabled(false);
+            if (DfdlVersion != null) {
+                JsonObject DfdlSettings = new JsonObject();
+                DfdlSettings.addProperty("version", DfdlVersion);
+                JsonObject xmlSettings = new JsonObject();
+                xmlSettings.add("Dfdl", DfdlSettings);
+                settingsService.updateDfdlSettings(xmlSettings);
+                if (featureService.getCachedFeatureIndex(DfdlVersion) == null) {
+                    err.println("Warning: the feature list of Dfdl " + DfdlVersion
+                            + " is not in the LemMinx cache, validating against the bundled feature list of Dfdl "
+                            + DfdlConstants.DEFAULT_SERVER_VERSION);
+                }
+            }
+
+            long start = System.nanoTime();
+            results = new DfdlBatchValidator().validate(directory, threads);
+            elapsed = System.nanoTime() - start;
+        } finally {
+            settingsService.setDfdlSettings(settings);
+            featureService.setRemoteFetchEnabled(remoteFetchEnabled);
+        }
+
+        try (OutputStream outputFile = output != null ? Files.newOutputStream(output) : null) {
+            Writer writer = new OutputStreamWriter(outputFile != null ? outputFile : out, StandardCharsets.UTF_8);
+            if (format.equals("sarif")) {
+                writeSarif(results, writer);
+            } else {
+                writeJson(results, writer);
+            }
+            writer.flush();
+        }
+
+        int diagnosticCount = 0;
+        boolean failed = false;
+        for (FileResult result : results) {
+            diagnosticCount += result.diagnostics.size();
+            failed |= result.error != null;
+            for (Diagnostic diagnostic : result.diagnostics) {
+                failed |= diagnostic.getSeverity() == DiagnosticSeverity.Error;
+            }
+        }
+        double seconds = elapsed / 1e9;
+        err.println(String.format("Validated %d files in %.3f s (%.0f files/s) on %d threads, %d diagnostics",
+                results.size(), seconds, seconds > 0 ? results.size() / seconds : 0, threads, diagnosticCount));
+        return failed ? 1 : 0;
+    }
+
+    /**
+     * Validates all server.xml files under a directory.
+     *
+     * @param directory root of the tree to validate
+     * @param threads   parallelism of the fork-join pool
+     * @return results, in path order
+     * @throws IOException if the directory cannot be walked
+     */
+    public List<FileResult> validate(Path directory, int threads) throws IOException, InterruptedException {
+        List<Path> files;
+        try (Stream<Path> paths = Files.walk(directory)) {
+            files = paths.filter(path -> path.getFileName() != null
+                    && DfdlConstants.SERVER_XML.equals(path.getFileName().toString()) && Files.isRegularFile(path))
+                    .sorted().collect(Collectors.toList());
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            return pool.submit(() -> files.parallelStream().map(this::validateFile).collect(Collectors.toList()))
+                    .get();
+        } catch (ExecutionException e) {
+            throw new IOException("Validation failed", e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private FileResult validateFile(Path file) {
+        try {
+            String text = new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+            DOMDocument document = DOMParser.getInstance().parse(text, file.toUri().toString(), null);
+            if (document.getDocumentElement() == null) {
+                return new FileResult(file, Collections.emptyList(), null);
+            }
+            List<Diagnostic> diagnostics = new ArrayList<>();
+            diagnosticParticipant.doDiagnostics(document, diagnostics, null, NEVER_CANCELLED);
+            return new FileResult(file, diagnostics, null);
+        } catch (IOException | RuntimeException e) {
+            return new FileResult(file, Collections.emptyList(), e.toString());
+        }
+    }
+
+    /**
+     * Writes the files that have diagnostics or could not be read, along with a
+     * summary.
+     */
+    static void writeJson(List<FileResult> results, Writer writer) throws IOException {
+        JsonWriter json = new JsonWriter(writer);
+        json.setIndent("  ");
+        json.beginObject();
+        json.name("files").value(results.size());
+        int diagnosticCount = 0;
+        json.name("results").beginArray();
+        for (FileResult result : results) {
+            diagnosticCount += result.diagnostics.size();
+            if (result.diagnostics.isEmpty() && result.error == null) {
+                continue;
+            }
+            json.beginObject();
+            json.name("file").value(result.file.toString());
+            if (result.error != null) {
+                json.name("error").value(result.error);
+            }
+            json.name("diagnostics").beginArray();
+            for (Diagnostic diagnostic : result.diagnostics) {
+                Range range = diagnostic.getRange();
+                json.beginObject();
+                json.name("severity").value(severity(diagnostic));
+                json.name("message").value(diagnostic.getMessage());
+                json.name("startLine").value(range.getStart().getLine() + 1);
+                json.name("startColumn").value(range.getStart().getCharacter() + 1);
+                json.name("endLine").value(range.getEnd().getLine() + 1);
+                json.name("endColumn").value(range.getEnd().getCharacter() + 1);
+                json.endObject();
+            }
+            json.endArray();
+            json.endObject();
+        }
+        json.endArray();
+        json.name("diagnostics").value(diagnosticCount);
+        json.endObject();
+        json.flush();
+    }
+
+    /**
+     * Writes the diagnostics as a SARIF 2.1.0 log, which CI systems display on
+     * the affected lines.
+     */
+    static void writeSarif(List<FileResult> results, Writer writer) throws IOException {
+        JsonWriter json = new JsonWriter(writer);
+        json.setIndent("  ");
+        json.beginObject();
+        json.name("$schema").value(SARIF_SCHEMA);
+        json.name("version").value("2.1.0");
+        json.name("runs").beginArray().beginObject();
+        json.name("tool").beginObject().name("driver").beginObject();
+        json.name("name").value("lemminx-dfdl");
+        json.endObject().endObject();
+        json.name("results").beginArray();
+        for (FileResult result : results) {
+            String uri = result.file.toUri().toString();
+            if (result.error != null) {
+                json.beginObject();
+                json.name("level").value("error");
+                json.name("message").beginObject().name("text").value(result.error).endObject();
+                json.name("locations").beginArray().beginObject();
+                json.name("physicalLocation").beginObject();
+                json.name("artifactLocation").beginObject().name("uri").value(uri).endObject();
+                json.endObject();
+                json.endObject().endArray();
+                json.endObject();
+            }
+            for (Diagnostic diagnostic : result.diagnostics) {
+                Range range = diagnostic.getRange();
+                json.beginObject();
+                json.name("ruleId").value(diagnostic.getSource());
+                json.name("level").value(sarifLevel(diagnostic));
+                json.name("message").beginObject().name("text").value(diagnostic.getMessage()).endObject();
+                json.name("locations").beginArray().beginObject();
+                json.name("physicalLocation").beginObject();
+                json.name("artifactLocation").beginObject().name("uri").value(uri).endObject();
+                json.name("region").beginObject();
+                json.name("startLine").value(range.getStart().getLine() + 1);
+                json.name("startColumn").value(range.getStart().getCharacter() + 1);
+                json.name("endLine").value(range.getEnd().getLine() + 1);
+                json.name("endColumn").value(range.getEnd().getCharacter() + 1);
+                json.endObject();
+                json.endObject();
+                json.endObject().endArray();
+                json.endObject();
+            }
+        }
+        json.endArray();
+        json.endObject().endArray();
+        json.endObject();
+        json.flush();
+    }
+
+    private static String severity(Diagnostic diagnostic) {
+        return diagnostic.getSeverity() != null ? diagnostic.getSeverity().name().toLowerCase() : "error";
+    }
+
+    private static String sarifLevel(Diagnostic diagnostic) {
+        DiagnosticSeverity severity = diagnostic.getSeverity();
+        if (severity == null || severity == DiagnosticSeverity.Error) {
+            return "error";
+        }
+        return severity == DiagnosticSeverity.Warning ? "warning" : "note";
+    }
+}
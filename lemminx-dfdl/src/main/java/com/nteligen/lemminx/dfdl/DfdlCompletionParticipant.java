@@ -2,7 +2,9 @@ package com.nteligen.lemminx.dfdl;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import org.eclipse.lemminx.commons.BadLocationException;
@@ -14,12 +16,16 @@ import org.eclipse.lemminx.services.extensions.ICompletionRequest;
 import org.eclipse.lemminx.services.extensions.ICompletionResponse;
 import org.eclipse.lemminx.utils.XMLPositionUtility;
 import org.eclipse.lsp4j.CompletionItem;
+import org.eclipse.lsp4j.CompletionList;
 import org.eclipse.lsp4j.Range;
 import org.eclipse.lsp4j.TextEdit;
 import org.eclipse.lsp4j.jsonrpc.CancelChecker;
-import org.eclipse.lsp4j.jsonrpc.messages.Either;
 
 import com.nteligen.lemminx.dfdl.models.feature.Feature;
+import com.nteligen.lemminx.dfdl.services.DfdlMetrics;
+import com.nteligen.lemminx.dfdl.services.DfdlTracer;
+import com.nteligen.lemminx.dfdl.services.DfdlTracer.Span;
+import com.nteligen.lemminx.dfdl.services.FeatureIndex;
 import com.nteligen.lemminx.dfdl.services.FeatureService;
 import com.nteligen.lemminx.dfdl.services.SettingsService;
 import com.nteligen.lemminx.dfdl.util.DfdlConstants;
@@ -33,8 +39,17 @@ public class DfdlCompletionParticipant extends CompletionParticipantAdapter {
         if (!DfdlUtils.isServerXMLFile(request.getXMLDocument()))
             return;    
 
-        DfdlUtils.getVersion(request.getXMLDocument());
+        long start = System.nanoTime();
+        try (Span span = DfdlTracer.getInstance().span("completion")) {
+            span.arg("uri", request.getXMLDocument().getDocumentURI());
+            completeFeatures(request, response, cancelChecker);
+        } finally {
+            DfdlMetrics.getInstance().record(DfdlMetrics.COMPLETION, start);
+        }
+    }
 
+    private void completeFeatures(ICompletionRequest request, ICompletionResponse response,
+            CancelChecker cancelChecker) {
         DOMElement parentElement = request.getParentElement();
         if (parentElement == null || parentElement.getTagName() == null)
             return;
@@ -42,61 +57,110 @@ public class DfdlCompletionParticipant extends CompletionParticipantAdapter {
         // if the parent element of cursor is a <feature>
         // provide the Dfdl features as completion options
         if (parentElement.getTagName().equals(DfdlConstants.FEATURE_ELEMENT)) {
-            List<String> existingFeatures = new ArrayList<>();
+            Set<String> existingFeatures = new HashSet<>();
             // collect existing features
             if (parentElement.getParentNode() != null
                     && parentElement.getParentNode().getNodeName().equals(DfdlConstants.FEATURE_MANAGER_ELEMENT)) {
-                existingFeatures = collectExistingFeatures(parentElement.getParentNode());
+                existingFeatures = collectExistingFeatures(parentElement.getParentNode(), parentElement);
             }
+            String typedFeatureName = getTypedFeatureName(request, parentElement);
+            cancelChecker.checkCanceled();
             List<CompletionItem> featureCompletionItems = buildCompletionItems(parentElement, request.getXMLDocument(),
-                    existingFeatures);
+                    existingFeatures, typedFeatureName, cancelChecker);
             featureCompletionItems.stream().forEach(item -> response.addCompletionItem(item));
+            // the items only match what has been typed so far, and are only
+            // documented once a name is typed, so the client has to ask again as
+            // the feature name changes instead of filtering them
+            if (response instanceof CompletionList) {
+                ((CompletionList) response).setIsIncomplete(true);
+            }
         }
     }
 
-    private CompletionItem buildFeatureCompletionItem(Feature feature, DOMElement featureElement,
-            DOMDocument document) {
-        String featureName = feature.getWlpInformation().getShortName();
-
-        // Build a text edit to replace whatever is inside <feature></feature>
-        // with the completion result
-        Range range = XMLPositionUtility.createRange(featureElement.getStartTagCloseOffset() + 1,
-                featureElement.getEndTagOpenOffset(), document);
-        TextEdit edit = new TextEdit(range, featureName);
-
-        // Build the completion item to return to the client
-        CompletionItem item = new CompletionItem();
-        item.setTextEdit(edit);
-        item.setLabel(featureName);
-        item.setDocumentation(Either.forLeft(feature.getShortDescription()));
-        return item;
-    }
-
     private List<CompletionItem> buildCompletionItems(DOMElement featureElement, DOMDocument domDocument,
-            List<String> existingFeatures) {
+            Set<String> existingFeatures, String typedFeatureName, CancelChecker cancelChecker) {
 
-        String DfdlVersion = DfdlUtils.getVersion(domDocument);
+        DfdlTracer tracer = DfdlTracer.getInstance();
+        String DfdlVersion;
+        try (Span span = tracer.span("getVersion")) {
+            DfdlVersion = DfdlUtils.getVersion(domDocument, cancelChecker);
+        }
+        cancelChecker.checkCanceled();
 
         final int requestDelay = SettingsService.getInstance().getRequestDelay();
-        List<Feature> features = FeatureService.getInstance().getFeatures(DfdlVersion, requestDelay, domDocument.getDocumentURI());
+        FeatureIndex featureIndex;
+        try (Span span = tracer.span("getFeatureIndex")) {
+            featureIndex = FeatureService.getInstance().getFeatureIndex(DfdlVersion, requestDelay,
+                    domDocument.getDocumentURI(), cancelChecker);
+        }
+        cancelChecker.checkCanceled();
 
-        // filter out features that are already specified in the featureManager block
-        List<CompletionItem> uniqueFeatureCompletionItems = features.stream()
-                .filter(feature -> !existingFeatures.contains(feature.getWlpInformation().getShortName()))
-                .map(feat -> buildFeatureCompletionItem(feat, featureElement, domDocument)).collect(Collectors.toList());
+        try (Span span = tracer.span("buildItems")) {
+            return createItems(featureIndex, featureElement, domDocument, existingFeatures, typedFeatureName);
+        }
+    }
 
-        return uniqueFeatureCompletionItems;
+    private List<CompletionItem> createItems(FeatureIndex featureIndex, DOMElement featureElement,
+            DOMDocument domDocument, Set<String> existingFeatures, String typedFeatureName) {
+        // only the features matching what has been typed so far, without the
+        // features that are already specified in the featureManager block
+        List<Feature> features = featureIndex.getFeaturesByPrefix(typedFeatureName).stream()
+                .filter(feature -> !existingFeatures
+                        .contains(FeatureIndex.toKey(feature.getWlpInformation().getShortName())))
+                .collect(Collectors.toList());
+
+        // Every item replaces whatever is inside <feature></feature>
+        Range range = XMLPositionUtility.createRange(featureElement.getStartTagCloseOffset() + 1,
+                featureElement.getEndTagOpenOffset(), domDocument);
+        // Without a typed name every feature is listed, and the descriptions
+        // would make up most of the response: they are only sent once the list
+        // is narrowed down
+        boolean documented = !typedFeatureName.isEmpty();
+        List<CompletionItem> featureCompletionItems = new ArrayList<>(features.size());
+        for (Feature feature : features) {
+            featureCompletionItems.add(createItem(feature, range, documented));
+        }
+        return featureCompletionItems;
     }
 
-    private List<String> collectExistingFeatures(DOMNode featureManager) {
-        List<String> includedFeatures = new ArrayList<>();
+    private CompletionItem createItem(Feature feature, Range range, boolean documented) {
+        String shortName = feature.getWlpInformation().getShortName();
+        CompletionItem item = new CompletionItem(shortName);
+        item.setTextEdit(new TextEdit(range, shortName));
+        if (documented && feature.getShortDescription() != null) {
+            item.setDocumentation(feature.getShortDescription());
+        }
+        return item;
+    }
+
+    /**
+     * Returns the text typed between the start tag of the feature element and the
+     * cursor, used to narrow down the completion items.
+     */
+    private String getTypedFeatureName(ICompletionRequest request, DOMElement featureElement) {
+        String text = request.getXMLDocument().getText();
+        int start = featureElement.getStartTagCloseOffset() + 1;
+        int offset = request.getOffset();
+        if (start <= 0 || offset < start || offset > text.length()) {
+            return "";
+        }
+        return text.substring(start, offset).trim();
+    }
+
+    private Set<String> collectExistingFeatures(DOMNode featureManager, DOMElement completedFeature) {
+        Set<String> includedFeatures = new HashSet<>();
         List<DOMNode> features = featureManager.getChildren();
         for (DOMNode featureNode : features) {
+            // the feature being completed is not a duplicate of itself
+            if (featureNode == completedFeature) {
+                continue;
+            }
             DOMNode featureTextNode = (DOMNode) featureNode.getChildNodes().item(0);
             // skip nodes that do not have any text value (ie. comments)
-            if (featureNode.getNodeName().equals(DfdlConstants.FEATURE_ELEMENT) && featureTextNode != null) {
+            if (featureNode.getNodeName().equals(DfdlConstants.FEATURE_ELEMENT) && featureTextNode != null
+                    && featureTextNode.getTextContent() != null) {
                 String featureName = featureTextNode.getTextContent();
-                includedFeatures.add(featureName);
+                includedFeatures.add(FeatureIndex.toKey(featureName));
             }
         }
         return includedFeatures;
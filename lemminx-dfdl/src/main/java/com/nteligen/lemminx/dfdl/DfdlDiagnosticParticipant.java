@@ -9,28 +9,67 @@ import org.eclipse.lsp4j.Diagnostic;
 import org.eclipse.lsp4j.DiagnosticSeverity;
 import org.eclipse.lsp4j.Range;
 import org.eclipse.lsp4j.jsonrpc.CancelChecker;
+import com.nteligen.lemminx.dfdl.services.DfdlMetrics;
+import com.nteligen.lemminx.dfdl.services.DfdlTracer;
+import com.nteligen.lemminx.dfdl.services.DfdlTracer.Span;
+import com.nteligen.lemminx.dfdl.services.FeatureIndex;
 import com.nteligen.lemminx.dfdl.services.FeatureService;
+import com.nteligen.lemminx.dfdl.services.FeatureValidation;
+import com.nteligen.lemminx.dfdl.services.FeatureValidation.Problem;
 import com.nteligen.lemminx.dfdl.services.SettingsService;
-importcom.nteligen.lemminx.dfdl.util.*;
+import com.nteligen.lemminx.dfdl.util.*;
 import java.io.IOException;
 import java.util.*;
 
-public class DfdlyDiagnosticParticipant implements IDiagnosticsParticipant {
+public class DfdlDiagnosticParticipant implements IDiagnosticsParticipant {
+
+    // Number of documents whose feature validation is remembered
+    private static final int MAX_CACHED_DOCUMENTS = 32;
+
+    // document uri -> feature validation, least recently validated first, null
+    // if every validation starts over
+    private final Map<String, FeatureValidation> validations;
+
+    public DfdlDiagnosticParticipant() {
+        this(true);
+    }
+
+    /**
+     * @param cacheValidations false to validate every document from scratch,
+     *                         ie. for a batch validation that sees each
+     *                         document once
+     */
+    public DfdlDiagnosticParticipant(boolean cacheValidations) {
+        validations = !cacheValidations ? null
+                : Collections.synchronizedMap(new LinkedHashMap<String, FeatureValidation>(16, 0.75f, true) {
+                    private static final long serialVersionUID = 1L;
+
+                    @Override
+                    protected boolean removeEldestEntry(Map.Entry<String, FeatureValidation> eldest) {
+                        return size() > MAX_CACHED_DOCUMENTS;
+                    }
+                });
+    }
 
     @Override
     public void doDiagnostics(DOMDocument domDocument, List<Diagnostic> diagnostics,
             XMLValidationSettings validationSettings, CancelChecker cancelChecker) {
         if (!DfdlUtils.isServerXMLFile(domDocument))
             return;
-        try {
-            validateFeatures(domDocument, diagnostics);
+        long start = System.nanoTime();
+        try (Span span = DfdlTracer.getInstance().span("diagnostics")) {
+            span.arg("uri", domDocument.getDocumentURI());
+            validateFeatures(domDocument, diagnostics, cancelChecker);
         } catch (IOException e) {
             System.err.println("Error validating features");
             System.err.println(e.getMessage());
+        } finally {
+            DfdlMetrics.getInstance().record(DfdlMetrics.DIAGNOSTICS, start);
         }
     }
 
-    private void validateFeatures(DOMDocument domDocument, List<Diagnostic> list) throws IOException {
+    private void validateFeatures(DOMDocument domDocument, List<Diagnostic> list, CancelChecker cancelChecker)
+            throws IOException {
         List<DOMNode> nodes = domDocument.getDocumentElement().getChildren();
         DOMNode featureManager = null;
         // find <featureManager> element if it exists
@@ -45,37 +84,53 @@ public class DfdlyDiagnosticParticipant implements IDiagnosticsParticipant {
             return;
         }
 
-        String DfdlVersion =  DfdlUtils.getVersion(domDocument);
+        cancelChecker.checkCanceled();
+        DfdlTracer tracer = DfdlTracer.getInstance();
+        String DfdlVersion;
+        try (Span span = tracer.span("getVersion")) {
+            DfdlVersion = DfdlUtils.getVersion(domDocument, cancelChecker);
+        }
+        cancelChecker.checkCanceled();
 
         final int requestDelay = SettingsService.getInstance().getRequestDelay();
+        FeatureIndex featureIndex;
+        try (Span span = tracer.span("getFeatureIndex")) {
+            featureIndex = FeatureService.getInstance().getFeatureIndex(DfdlVersion, requestDelay,
+                    domDocument.getDocumentURI(), cancelChecker);
+        }
+        cancelChecker.checkCanceled();
 
-        // Search for duplicate features
-        // or features that do not exist
-        Set<String> includedFeatures = new HashSet<>();
-        List<DOMNode> features = featureManager.getChildren();
-        for (DOMNode featureNode : features) {
+        FeatureValidation validation;
+        if (validations == null) {
+            validation = new FeatureValidation(featureIndex);
+        } else {
+            String documentURI = domDocument.getDocumentURI();
+            validation = validations.get(documentURI);
+            if (validation == null || validation.getFeatureIndex() != featureIndex) {
+                // another version or a new feature list, check every feature again
+                validation = new FeatureValidation(featureIndex);
+                validations.put(documentURI, validation);
+            }
+        }
+
+        // Search for duplicate features, features that do not exist and
+        // features that cannot be used together; only the entries that changed
+        // since the last validation of the document are checked again
+        List<String> featureNames = new ArrayList<>();
+        List<DOMNode> featureTextNodes = new ArrayList<>();
+        for (DOMNode featureNode : featureManager.getChildren()) {
             DOMNode featureTextNode = (DOMNode) featureNode.getChildNodes().item(0);
             // skip nodes that do not have any text value (ie. comments)
             if (featureTextNode != null && featureTextNode.getTextContent() != null) {
-                String featureName = featureTextNode.getTextContent();
-                // if the feature is not a user defined feature and the feature does not exist in the list of
-                // supported features show a "Feature does not exist" diagnostic
-                if (!featureName.startsWith("usr:") && !FeatureService.getInstance().featureExists(featureName, DfdlVersion, requestDelay, domDocument.getDocumentURI())) {
-                    Range range = XMLPositionUtility.createRange(featureTextNode.getStart(), featureTextNode.getEnd(),
-                            domDocument);
-                    String message = "ERROR: The feature \"" + featureName + "\" does not exist.";
-                    list.add(new Diagnostic(range, message, DiagnosticSeverity.Error, "Dfdl-lemminx"));
-                } else {
-                    if (includedFeatures.contains(featureName)) {
-                        Range range = XMLPositionUtility.createRange(featureTextNode.getStart(),
-                                featureTextNode.getEnd(), domDocument);
-                        String message = "ERROR: " + featureName + " is already included.";
-                        list.add(new Diagnostic(range, message, DiagnosticSeverity.Error, "Dfdl-lemminx"));
-                    } else {
-                        includedFeatures.add(featureName);
-                    }
-                }
+                featureNames.add(featureTextNode.getTextContent());
+                featureTextNodes.add(featureTextNode);
             }
         }
+        for (Problem problem : validation.validate(featureNames)) {
+            DOMNode featureTextNode = featureTextNodes.get(problem.getEntry());
+            Range range = XMLPositionUtility.createRange(featureTextNode.getStart(), featureTextNode.getEnd(),
+                    domDocument);
+            list.add(new Diagnostic(range, problem.getMessage(), DiagnosticSeverity.Error, "Dfdl-lemminx"));
+        }
     }
 }
@@ -1,30 +1,49 @@
 package com.nteligen.lemminx.dfdl;
 
+import org.eclipse.lemminx.dom.DOMDocument;
+import org.eclipse.lemminx.services.IXMLDocumentProvider;
+import org.eclipse.lemminx.services.IXMLValidationService;
 import org.eclipse.lemminx.services.extensions.ICompletionParticipant;
 import org.eclipse.lemminx.services.extensions.IHoverParticipant;
 import org.eclipse.lemminx.services.extensions.IXMLExtension;
 import org.eclipse.lemminx.services.extensions.XMLExtensionsRegistry;
+import org.eclipse.lemminx.services.extensions.commands.IXMLCommandService;
 import org.eclipse.lemminx.services.extensions.diagnostics.IDiagnosticsParticipant;
 import org.eclipse.lemminx.services.extensions.save.ISaveContext;
 import org.eclipse.lemminx.services.extensions.save.ISaveContext.SaveContextType;
 import org.eclipse.lemminx.uriresolver.URIResolverExtension;
+import org.eclipse.lsp4j.ExecuteCommandParams;
 import org.eclipse.lsp4j.InitializeParams;
 import org.eclipse.lsp4j.WorkspaceFolder;
 
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+
 import java.util.List;
+import java.util.function.Consumer;
 import java.util.logging.Logger;
 
+import com.nteligen.lemminx.dfdl.services.DfdlMetrics;
 import com.nteligen.lemminx.dfdl.services.DfdlProjectsManager;
+import com.nteligen.lemminx.dfdl.services.DfdlTracer;
+import com.nteligen.lemminx.dfdl.services.FeatureService;
+import com.nteligen.lemminx.dfdl.services.FileWatcherService;
 import com.nteligen.lemminx.dfdl.services.SettingsService;
+import com.nteligen.lemminx.dfdl.util.DfdlUtils;
 
 public class DfdlExtension implements IXMLExtension {
 
     private static final Logger LOGGER = Logger.getLogger(DfdlExtension.class.getName());
 
+    // Returns the DfdlMetrics as json, and clears them if given "reset"
+    public static final String METRICS_COMMAND = "Dfdl.metrics";
+
     private URIResolverExtension xsdResolver;
     private ICompletionParticipant completionParticipant;
     private IHoverParticipant hoverParticipant;
     private IDiagnosticsParticipant diagnosticsParticipant;
+    private Consumer<String> featureListListener;
+    private DfdlWarmUp warmUp;
 
     @Override
     public void start(InitializeParams initializeParams, XMLExtensionsRegistry xmlExtensionsRegistry) {
@@ -47,12 +66,40 @@ public class DfdlExtension implements IXMLExtension {
 
         diagnosticsParticipant = new DfdlDiagnosticParticipant();
         xmlExtensionsRegistry.registerDiagnosticsParticipant(diagnosticsParticipant);
+
+        // feature lists are fetched in the background, revalidate once one arrives
+        featureListListener = DfdlVersion -> revalidateServerXMLDocuments(xmlExtensionsRegistry);
+        FeatureService.getInstance().addFeatureListListener(featureListListener);
+
+        DfdlMetrics.getInstance().registerMBean();
+        IXMLCommandService commandService = xmlExtensionsRegistry.getCommandService();
+        if (commandService != null) {
+            commandService.registerCommand(METRICS_COMMAND, (params, cancelChecker) -> getMetrics(params));
+        }
+
+        // do what the first requests on a server.xml would do lazily
+        warmUp = new DfdlWarmUp();
+        warmUp.start();
     }
 
     @Override
     public void stop(XMLExtensionsRegistry xmlExtensionsRegistry) {
+        if (warmUp != null) {
+            warmUp.cancel();
+        }
         // clean up .Dfdlls folders
         DfdlProjectsManager.getInstance().cleanUpTempDirs();
+        DfdlProjectsManager.getInstance().dispose();
+        FileWatcherService.getInstance().shutdown();
+
+        FeatureService.getInstance().removeFeatureListListener(featureListListener);
+
+        IXMLCommandService commandService = xmlExtensionsRegistry.getCommandService();
+        if (commandService != null) {
+            commandService.unregisterCommand(METRICS_COMMAND);
+        }
+        DfdlMetrics.getInstance().unregisterMBean();
+        DfdlTracer.getInstance().disable();
 
         xmlExtensionsRegistry.getResolverExtensionManager().unregisterResolver(xsdResolver);
         xmlExtensionsRegistry.unregisterCompletionParticipant(completionParticipant);
@@ -60,6 +107,38 @@ public class DfdlExtension implements IXMLExtension {
         xmlExtensionsRegistry.unregisterDiagnosticsParticipant(diagnosticsParticipant);
     }
 
+    private static JsonObject getMetrics(ExecuteCommandParams params) {
+        JsonObject metrics = DfdlMetrics.getInstance().toJson();
+        List<Object> arguments = params.getArguments();
+        if (arguments != null && !arguments.isEmpty()) {
+            // arguments come from the client as json
+            Object argument = arguments.get(0);
+            String action = argument instanceof JsonPrimitive ? ((JsonPrimitive) argument).getAsString()
+                    : String.valueOf(argument);
+            if ("reset".equals(action)) {
+                DfdlMetrics.getInstance().reset();
+            }
+        }
+        return metrics;
+    }
+
+    /**
+     * Revalidates the open server.xml documents so that their feature
+     * diagnostics use the latest feature lists.
+     */
+    private void revalidateServerXMLDocuments(XMLExtensionsRegistry xmlExtensionsRegistry) {
+        IXMLDocumentProvider documentProvider = xmlExtensionsRegistry.getDocumentProvider();
+        IXMLValidationService validationService = xmlExtensionsRegistry.getValidationService();
+        if (documentProvider == null || validationService == null) {
+            return;
+        }
+        for (DOMDocument document : documentProvider.getAllDocuments()) {
+            if (DfdlUtils.isServerXMLFile(document)) {
+                validationService.validate(document);
+            }
+        }
+    }
+
     // Do save is called on startup with a Settings update
     // and any time the settings are updated.
     @Override
@@ -69,7 +148,17 @@ public class DfdlExtension implements IXMLExtension {
         if (saveContext.getType() == SaveContextType.SETTINGS) {
             Object xmlSettings = saveContext.getSettings();
             SettingsService.getInstance().updateDfdlSettings(xmlSettings);
+            updateTracing();
             LOGGER.fine("Dfdl XML settings updated");
         }
     }
+
+    private static void updateTracing() {
+        SettingsService settings = SettingsService.getInstance();
+        if (settings.isTraceEnabled()) {
+            DfdlTracer.getInstance().enable(settings.getTraceFile());
+        } else {
+            DfdlTracer.getInstance().disable();
+        }
+    }
 }
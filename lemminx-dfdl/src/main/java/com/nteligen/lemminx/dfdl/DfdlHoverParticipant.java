@@ -7,9 +7,12 @@ import org.eclipse.lemminx.services.extensions.IHoverRequest;
 import org.eclipse.lsp4j.Hover;
 import org.eclipse.lsp4j.MarkupContent;
 import com.nteligen.lemminx.dfdl.models.feature.*;
+import com.nteligen.lemminx.dfdl.services.DfdlMetrics;
+import com.nteligen.lemminx.dfdl.services.DfdlTracer;
+import com.nteligen.lemminx.dfdl.services.DfdlTracer.Span;
 import com.nteligen.lemminx.dfdl.services.FeatureService;
 import com.nteligen.lemminx.dfdl.services.SettingsService;
-import com.nteligen.lemminx.dfdl.Dfdl.util.*;
+import com.nteligen.lemminx.dfdl.util.*;
 
 import java.util.Optional;
 
@@ -41,18 +44,31 @@ public class DfdlHoverParticipant implements IHoverParticipant {
 
 		// if we are hovering over text inside a <feature> element
 		if (DfdlConstants.FEATURE_ELEMENT.equals(parentElement.getTagName())) {
-			String featureName = request.getNode().getTextContent();
-			return getHoverFeatureDescription(featureName, request.getXMLDocument());
+			long start = System.nanoTime();
+			try (Span span = DfdlTracer.getInstance().span("hover")) {
+				span.arg("uri", request.getXMLDocument().getDocumentURI());
+				String featureName = request.getNode().getTextContent();
+				return getHoverFeatureDescription(featureName, request.getXMLDocument());
+			} finally {
+				DfdlMetrics.getInstance().record(DfdlMetrics.HOVER, start);
+			}
 		}
 
 		return null;
 	}
 
 	private Hover getHoverFeatureDescription(String featureName, DOMDocument domDocument) {
-		String DfdlVersion = DfdlUtils.getVersion(domDocument);
+		DfdlTracer tracer = DfdlTracer.getInstance();
+		String DfdlVersion;
+		try (Span span = tracer.span("getVersion")) {
+			DfdlVersion = DfdlUtils.getVersion(domDocument);
+		}
 
 		final int requestDelay = SettingsService.getInstance().getRequestDelay();
-		Optional<Feature> feature = FeatureService.getInstance().getFeature(featureName, DfdlVersion, requestDelay, domDocument.getDocumentURI());
+		Optional<Feature> feature;
+		try (Span span = tracer.span("getFeature")) {
+			feature = FeatureService.getInstance().getFeature(featureName, DfdlVersion, requestDelay, domDocument.getDocumentURI());
+		}
 		if (feature.isPresent()) {
 			return new Hover(new MarkupContent("plaintext", feature.get().getShortDescription()));
 		}
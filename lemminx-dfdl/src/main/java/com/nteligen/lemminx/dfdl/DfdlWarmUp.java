@@ -0,0 +1,180 @@
+package com.nteligen.lemminx.dfdl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+import org.eclipse.lsp4j.jsonrpc.CancelChecker;
+
+import com.nteligen.lemminx.dfdl.services.DfdlProjectsManager;
+import com.nteligen.lemminx.dfdl.services.DfdlTracer;
+import com.nteligen.lemminx.dfdl.services.DfdlTracer.Span;
+import com.nteligen.lemminx.dfdl.services.FeatureService;
+import com.nteligen.lemminx.dfdl.util.DfdlUtils;
+
+/**
+ * Background warm-up of what the first requests on a server.xml would
+ * otherwise do lazily: deploying server.xsd to the LemMinx cache, loading the
+ * default feature catalog, detecting the Dfdl version of each workspace folder
+ * and loading the classes of the request pipelines.
+ *
+ * Stages run by priority on low-priority daemon threads. Each stage goes
+ * through the same lazily initialized, locked code as the requests, so a
+ * request waits for a stage only while it is in flight, and does the work
+ * itself if the stage has not started yet. The warm-up is cancelled when the
+ * extension stops.
+ */
+public class DfdlWarmUp {
+
+    private static final Logger LOGGER = Logger.getLogger(DfdlWarmUp.class.getName());
+
+    private static final int THREADS = 2;
+
+    /**
+     * Stages, highest priority first: opening a server.xml validates it against
+     * server.xsd right away, completion and hover come later.
+     */
+    public enum Stage {
+        SERVER_XSD, DEFAULT_FEATURES, VERSIONS, CLASSES
+    }
+
+    // Classes loaded by the first completion, hover and diagnostics
+    private static final String[] CLASSES = { "org.eclipse.lsp4j.CompletionItem", "org.eclipse.lsp4j.TextEdit",
+            "org.eclipse.lsp4j.MarkupContent", "org.eclipse.lsp4j.Hover", "org.eclipse.lsp4j.Diagnostic",
+            "org.eclipse.lsp4j.DiagnosticSeverity", "org.eclipse.lemminx.utils.XMLPositionUtility",
+            "com.google.gson.stream.JsonReader", "com.nteligen.lemminx.dfdl.DfdlCompletionParticipant",
+            "com.nteligen.lemminx.dfdl.DfdlHoverParticipant", "com.nteligen.lemminx.dfdl.DfdlDiagnosticParticipant",
+            "com.nteligen.lemminx.dfdl.services.FeatureDependencyGraph",
+            "com.nteligen.lemminx.dfdl.util.FeatureJsonReader" };
+
+    private final class StageTask extends FutureTask<Void> implements Comparable<StageTask> {
+        private final Stage stage;
+
+        StageTask(Stage stage) {
+            super(() -> runStage(stage), null);
+            this.stage = stage;
+        }
+
+        @Override
+        public int compareTo(StageTask other) {
+            return stage.compareTo(other.stage);
+        }
+    }
+
+    private final ThreadPoolExecutor executor;
+    private final List<StageTask> tasks = new ArrayList<>();
+    private volatile boolean cancelled;
+
+    // stops the version detection once the warm-up is cancelled
+    private final CancelChecker cancelChecker = () -> {
+        if (cancelled) {
+            throw new CancellationException();
+        }
+    };
+
+    public DfdlWarmUp() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor = new ThreadPoolExecutor(THREADS, THREADS, 1, TimeUnit.SECONDS,
+                new PriorityBlockingQueue<Runnable>(), runnable -> {
+                    Thread thread = new Thread(runnable, "dfdl-warm-up-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    thread.setPriority(Thread.MIN_PRIORITY);
+                    return thread;
+                });
+        // the threads are not kept once the warm-up is done
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Queues every stage, highest priority first.
+     */
+    public synchronized void start() {
+        if (!tasks.isEmpty()) {
+            return;
+        }
+        for (Stage stage : Stage.values()) {
+            tasks.add(new StageTask(stage));
+        }
+        // queued before the threads start, so that they are taken by priority
+        for (StageTask task : tasks) {
+            executor.getQueue().add(task);
+        }
+        executor.prestartAllCoreThreads();
+    }
+
+    /**
+     * Cancels the stages that have not run yet and interrupts the running ones.
+     */
+    public synchronized void cancel() {
+        cancelled = true;
+        for (StageTask task : tasks) {
+            task.cancel(true);
+        }
+        executor.shutdownNow();
+    }
+
+    /**
+     * @return true once the stage has run, failed or been cancelled
+     */
+    public synchronized boolean isDone(Stage stage) {
+        for (StageTask task : tasks) {
+            if (task.stage == stage) {
+                return task.isDone();
+            }
+        }
+        return false;
+    }
+
+    private void runStage(Stage stage) {
+        if (cancelled) {
+            return;
+        }
+        long start = System.nanoTime();
+        try (Span span = DfdlTracer.getInstance().span("warmUp")) {
+            span.arg("stage", stage.name());
+            switch (stage) {
+                case SERVER_XSD:
+                    DfdlXSDURIResolver.deployServerXSD();
+                    break;
+                case DEFAULT_FEATURES:
+                    FeatureService.getInstance().getDefaultFeatureIndex();
+                    break;
+                case VERSIONS:
+                    for (String folderURI : DfdlProjectsManager.getInstance().getWorkspaceFolderURIs()) {
+                        DfdlUtils.getVersion(folderURI, cancelChecker);
+                    }
+                    break;
+                case CLASSES:
+                    loadClasses();
+                    break;
+            }
+            LOGGER.fine("Warmed up " + stage + " in " + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)
+                    + " ms");
+        } catch (CancellationException e) {
+            LOGGER.fine("Warm-up of " + stage + " cancelled");
+        } catch (Exception e) {
+            // the requests will do it lazily
+            LOGGER.warning("Unable to warm up " + stage + ": " + e.getMessage());
+        }
+    }
+
+    private void loadClasses() {
+        ClassLoader classLoader = DfdlWarmUp.class.getClassLoader();
+        for (String className : CLASSES) {
+            if (cancelled) {
+                return;
+            }
+            try {
+                Class.forName(className, true, classLoader);
+            } catch (ClassNotFoundException | LinkageError e) {
+                LOGGER.fine("Unable to load " + className + ": " + e.getMessage());
+            }
+        }
+    }
+}
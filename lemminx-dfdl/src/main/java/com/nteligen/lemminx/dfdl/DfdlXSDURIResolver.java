@@ -1,6 +1,8 @@
 package com.nteligen.lemminx.dfdl;
 
+import java.io.IOException;
 import java.net.URI;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.HashMap;
 import java.util.Map;
@@ -11,13 +13,14 @@ import org.eclipse.lemminx.uriresolver.IExternalGrammarLocationProvider;
 import org.eclipse.lemminx.uriresolver.CacheResourcesManager.ResourceToDeploy;
 import org.eclipse.lemminx.uriresolver.URIResolverExtension;
 
-import io.openDfdl.lemminx.Dfdl.util.DfdlUtils;
+import com.nteligen.lemminx.dfdl.util.CacheFileUtils;
+import com.nteligen.lemminx.dfdl.util.DfdlUtils;
 
 public class DfdlXSDURIResolver implements URIResolverExtension, IExternalGrammarLocationProvider {
   private static final Logger LOGGER = Logger.getLogger(DfdlXSDURIResolver.class.getName());
 
   private static final String XSD_RESOURCE_URL = "https://github.com/OpenDfdl/Dfdl-language-server/blob/master/lemminx-Dfdl/src/main/resources/schema/xsd/Dfdl/server.xsd";
-  private static final String XSD_CLASSPATH_LOCATION = "/schema/xsd/Dfdl/server.xsd";
+  private static final String XSD_CLASSPATH_LOCATION = "/schema/xsd/liberty/server.xsd";
 
   /**
    * SERVER_XSD_RESOURCE is the server.xsd that is located at `/schema/server.xsd`
@@ -32,11 +35,44 @@ public class DfdlXSDURIResolver implements URIResolverExtension, IExternalGramma
   public static final ResourceToDeploy SERVER_XSD_RESOURCE = new ResourceToDeploy(XSD_RESOURCE_URL,
       XSD_CLASSPATH_LOCATION);
 
+  // Deployed once per session and memoized, so that resolutions only check
+  // that the file is still there. Every server.xml resolves to this one URI,
+  // whose content does not change, so lemminx parses the 2.2 MB schema once
+  // and shares the grammar between all documents through its grammar pool
+  private static volatile DeployedServerXSD deployedServerXSD;
+
+  private static final class DeployedServerXSD {
+    final Path file;
+    final String uri;
+
+    DeployedServerXSD(Path file) {
+      this.file = file;
+      this.uri = file.toFile().toURI().toString();
+    }
+  }
+
+  // directory server.xsd is deployed to, the lemminx cache if null
+  private static volatile Path cacheDirectory;
+
+  /**
+   * Moves server.xsd to another cache directory, ie. to a temporary directory
+   * for tests. It is deployed there on the next resolution.
+   *
+   * Declared public to be used by tests
+   *
+   * @param directory - directory in the layout of the lemminx cache, null for
+   *          the lemminx cache
+   */
+  public static synchronized void setCacheDirectory(Path directory) {
+    cacheDirectory = directory;
+    deployedServerXSD = null;
+  }
+
   public String resolve(String baseLocation, String publicId, String systemId) {
     if (DfdlUtils.isServerXMLFile(baseLocation)) {
       try {
-        Path serverXSDCacheFile = CacheResourcesManager.getResourceCachePath(SERVER_XSD_RESOURCE);
-        return serverXSDCacheFile.toFile().toURI().toString();
+        DeployedServerXSD deployed = deployedServerXSD;
+        return deployed != null && Files.exists(deployed.file) ? deployed.uri : deployServerXSD();
       } catch (Exception e) {
         LOGGER.severe("Error: Unable to deploy server.xsd to lemminx cache.");
         e.printStackTrace();
@@ -45,6 +81,48 @@ public class DfdlXSDURIResolver implements URIResolverExtension, IExternalGramma
     return null;
   }
 
+  /**
+   * Deploys server.xsd to the lemminx cache unless it is there already. The
+   * schema is copied by one thread at a time, so a resolution that comes in
+   * while the warm-up deploys it waits for the complete file. If the lemminx
+   * cache was cleared since the schema was deployed, it is deployed again.
+   *
+   * lemminx only deploys missing files, so a server.xsd left in the cache by
+   * another version of this extension is replaced when its checksum differs
+   * from the bundled one; otherwise documents would keep being validated
+   * against the old grammar.
+   *
+   * @return URI of server.xsd in the lemminx cache
+   */
+  static synchronized String deployServerXSD() throws IOException {
+    DeployedServerXSD deployed = deployedServerXSD;
+    if (deployed != null && Files.exists(deployed.file)) {
+      return deployed.uri;
+    }
+    Path directory = cacheDirectory;
+    Path serverXSDCacheFile = directory == null ? CacheResourcesManager.getResourceCachePath(SERVER_XSD_RESOURCE)
+        : CacheFileUtils.getCachePath(directory, XSD_RESOURCE_URL);
+    if (updateServerXSD(serverXSDCacheFile)) {
+      LOGGER.info("Deployed server.xsd to lemminx cache: " + serverXSDCacheFile);
+    }
+    deployed = new DeployedServerXSD(serverXSDCacheFile);
+    deployedServerXSD = deployed;
+    return deployed.uri;
+  }
+
+  /**
+   * Writes the bundled server.xsd to the given file, unless the file already
+   * has the same checksum.
+   *
+   * Declared public to be used by tests
+   *
+   * @param serverXSDFile server.xsd in the lemminx cache
+   * @return true if the file was missing or outdated, and has been written
+   */
+  public static boolean updateServerXSD(Path serverXSDFile) throws IOException {
+    return CacheFileUtils.deploy(serverXSDFile, CacheFileUtils.readResource(XSD_CLASSPATH_LOCATION));
+  }
+
   @Override
   public Map<String, String> getExternalGrammarLocation(URI fileURI) {
     String xsdFile = resolve(fileURI.toString(), null, null);
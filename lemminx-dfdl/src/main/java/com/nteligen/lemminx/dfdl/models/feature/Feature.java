@@ -1,19 +1,11 @@
 package com.nteligen.lemminx.dfdl.models.feature;
 
-import javax.xml.bind.annotation.XmlAccessorType;
-import javax.xml.bind.annotation.XmlAttribute;
-import javax.xml.bind.annotation.XmlAccessType;
-import javax.xml.bind.annotation.XmlRootElement;
-
-@XmlRootElement(name = "feature")
-@XmlAccessorType(XmlAccessType.FIELD)
 public class Feature {
 
   private String description;
   private String licenseId;
   private String licenseType;
 
-  @XmlAttribute
   private String name;
   private String shortDescription;
 
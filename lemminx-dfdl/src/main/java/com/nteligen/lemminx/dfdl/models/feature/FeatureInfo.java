@@ -1,24 +0,0 @@
-package com.nteligen.lemminx.dfdl.models.feature;
-
-import java.util.List;
-
-import javax.xml.bind.annotation.XmlAccessType;
-import javax.xml.bind.annotation.XmlAccessorType;
-import javax.xml.bind.annotation.XmlElement;
-import javax.xml.bind.annotation.XmlRootElement;
-
-@XmlRootElement(name = "featureInfo")
-@XmlAccessorType(XmlAccessType.FIELD)
-public class FeatureInfo {
-
-    @XmlElement(name = "feature")
-    private List<Feature> features = null;
-
-    public List<Feature> getFeatures() {
-        return features;
-    }
-
-    public void setFeatures(List<Feature> features) {
-        this.features = features;
-    }
-}
\ No newline at end of file
@@ -0,0 +1,28 @@
+package com.nteligen.lemminx.dfdl.models.feature;
+
+import java.util.ArrayList;
+
+public class RequireFeatureWithTolerates {
+  private String feature;
+  ArrayList<String> tolerates;
+
+  // Getter Methods
+
+  public String getFeature() {
+    return feature;
+  }
+
+  public ArrayList<String> getTolerates() {
+    return tolerates;
+  }
+
+  // Setter Methods
+
+  public void setFeature(String feature) {
+    this.feature = feature;
+  }
+
+  public void setTolerates(ArrayList<String> tolerates) {
+    this.tolerates = tolerates;
+  }
+}
@@ -11,6 +11,7 @@ public class WlpInformation {
   JavaSEVersionRequirements javaSEVersionRequirements;
   ArrayList<String> provideFeature;
   ArrayList<String> requireFeature;
+  ArrayList<RequireFeatureWithTolerates> requireFeatureWithTolerates;
   private String singleton;
   private String typeLabel;
   private String visibility;
@@ -74,6 +75,10 @@ public class WlpInformation {
     return requireFeature;
   }
 
+  public ArrayList<RequireFeatureWithTolerates> getRequireFeatureWithTolerates() {
+    return requireFeatureWithTolerates;
+  }
+
   public String getShortName() {
     return shortName;
   }
@@ -130,6 +135,10 @@ public class WlpInformation {
     this.requireFeature = requireFeature;
   }
 
+  public void setRequireFeatureWithTolerates(ArrayList<RequireFeatureWithTolerates> requireFeatureWithTolerates) {
+    this.requireFeatureWithTolerates = requireFeatureWithTolerates;
+  }
+
   public void setShortName(String shortName) {
     this.shortName = shortName;
   }
@@ -1,12 +1,16 @@
-package com.nteligen.lemminx.dfdl
+package com.nteligen.lemminx.dfdl.models.settings;
+
 /**
- * Model for settings under the 'liberty' key in xml settings
+ * Model for settings under the 'Dfdl' key in xml settings
  * Ie. version refers to: xml.Dfdl.version
  */
 public class DfdlSettings {
 
   private String version;
   private int requestDelay; // in seconds
+  private String featureRepository; // Maven repository to fetch feature lists from
+  private boolean trace; // record request spans to traceFile
+  private String traceFile; // Chrome trace-event file, rotated when it gets large
 
   public String getVersion() {
     return version;
@@ -24,4 +28,28 @@ public class DfdlSettings {
     this.requestDelay = requestDelay;
   }
 
+  public String getFeatureRepository() {
+    return featureRepository;
+  }
+
+  public void setFeatureRepository(String featureRepository) {
+    this.featureRepository = featureRepository;
+  }
+
+  public boolean getTrace() {
+    return trace;
+  }
+
+  public void setTrace(boolean trace) {
+    this.trace = trace;
+  }
+
+  public String getTraceFile() {
+    return traceFile;
+  }
+
+  public void setTraceFile(String traceFile) {
+    this.traceFile = traceFile;
+  }
+
 }
@@ -0,0 +1,205 @@
+package com.nteligen.lemminx.dfdl.services;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToLongFunction;
+import java.util.logging.Logger;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import com.google.gson.JsonObject;
+
+/**
+ * Counters and latency histograms of the Dfdl participants and services:
+ * how long completion, hover and diagnostics take, where feature lists come
+ * from, and how long fetches, workspace walks and installation scans take.
+ *
+ * Everything is lock-free and cheap enough to stay enabled, ie.
+ *
+ * <pre>
+ * long start = System.nanoTime();
+ * ...
+ * DfdlMetrics.getInstance().record(DfdlMetrics.COMPLETION, start);
+ * </pre>
+ *
+ * The metrics are available through the Dfdl.metrics workspace command and
+ * through JMX.
+ */
+public final class DfdlMetrics implements DfdlMetricsMXBean {
+
+    private static final Logger LOGGER = Logger.getLogger(DfdlMetrics.class.getName());
+
+    public static final String OBJECT_NAME = "com.nteligen.lemminx.dfdl:type=Metrics";
+
+    // Participant timers
+    public static final String COMPLETION = "completion";
+    public static final String HOVER = "hover";
+    public static final String DIAGNOSTICS = "diagnostics";
+
+    // Service timers
+    public static final String FEATURE_FETCH = "features.fetch";
+    public static final String WORKSPACE_WALK = "workspace.walk";
+    public static final String INSTALLATION_SCAN = "installation.scan";
+
+    // Where the feature list of a request came from
+    public static final String FEATURES_CACHE_HIT = "features.cache.hit";
+    public static final String FEATURES_DISK_CACHE_HIT = "features.diskCache.hit";
+    public static final String FEATURES_CACHE_MISS = "features.cache.miss";
+    public static final String FEATURES_INSTALLED_FALLBACK = "features.fallback.installed";
+    public static final String FEATURES_DEFAULT_FALLBACK = "features.fallback.default";
+
+    // Outcome of the fetches from Maven
+    public static final String FETCH_SUCCESS = "features.fetch.success";
+    public static final String FETCH_NOT_MODIFIED = "features.fetch.notModified";
+    public static final String FETCH_FAILURE = "features.fetch.failure";
+
+    private static final DfdlMetrics instance = new DfdlMetrics();
+
+    public static DfdlMetrics getInstance() {
+        return instance;
+    }
+
+    private final Map<String, LongAdder> counters = new ConcurrentHashMap<>();
+    private final Map<String, LatencyHistogram> timers = new ConcurrentHashMap<>();
+
+    private DfdlMetrics() {
+    }
+
+    public void increment(String counter) {
+        LongAdder adder = counters.get(counter);
+        if (adder == null) {
+            adder = counters.computeIfAbsent(counter, name -> new LongAdder());
+        }
+        adder.increment();
+    }
+
+    /**
+     * Records the time elapsed since the given start.
+     *
+     * @param timer      name of the timer
+     * @param startNanos {@link System#nanoTime()} when the timed work started
+     */
+    public void record(String timer, long startNanos) {
+        getTimer(timer).record(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startNanos));
+    }
+
+    public long getCount(String counter) {
+        LongAdder adder = counters.get(counter);
+        return adder != null ? adder.sum() : 0;
+    }
+
+    public LatencyHistogram getTimer(String timer) {
+        LatencyHistogram histogram = timers.get(timer);
+        if (histogram == null) {
+            histogram = timers.computeIfAbsent(timer, name -> new LatencyHistogram());
+        }
+        return histogram;
+    }
+
+    /**
+     * @return counters, and count, mean, percentiles and maximum (in
+     *         milliseconds) of every timer
+     */
+    public JsonObject toJson() {
+        JsonObject report = new JsonObject();
+        JsonObject counterValues = new JsonObject();
+        getCounters().forEach(counterValues::addProperty);
+        report.add("counters", counterValues);
+        JsonObject timerValues = new JsonObject();
+        new TreeMap<>(timers).forEach((name, histogram) -> {
+            JsonObject timer = new JsonObject();
+            timer.addProperty("count", histogram.getCount());
+            timer.addProperty("meanMillis", toMillis(histogram.getMean()));
+            timer.addProperty("p50Millis", toMillis(histogram.getPercentile(0.5)));
+            timer.addProperty("p90Millis", toMillis(histogram.getPercentile(0.9)));
+            timer.addProperty("p99Millis", toMillis(histogram.getPercentile(0.99)));
+            timer.addProperty("maxMillis", toMillis(histogram.getMax()));
+            timerValues.add(name, timer);
+        });
+        report.add("timers", timerValues);
+        return report;
+    }
+
+    @Override
+    public Map<String, Long> getCounters() {
+        Map<String, Long> values = new TreeMap<>();
+        counters.forEach((name, adder) -> values.put(name, adder.sum()));
+        return values;
+    }
+
+    @Override
+    public Map<String, Long> getTimerCounts() {
+        Map<String, Long> values = new TreeMap<>();
+        timers.forEach((name, histogram) -> values.put(name, histogram.getCount()));
+        return values;
+    }
+
+    @Override
+    public Map<String, Double> getP50Millis() {
+        return getTimerValues(histogram -> histogram.getPercentile(0.5));
+    }
+
+    @Override
+    public Map<String, Double> getP99Millis() {
+        return getTimerValues(histogram -> histogram.getPercentile(0.99));
+    }
+
+    @Override
+    public Map<String, Double> getMaxMillis() {
+        return getTimerValues(LatencyHistogram::getMax);
+    }
+
+    @Override
+    public String getReport() {
+        return toJson().toString();
+    }
+
+    @Override
+    public void reset() {
+        counters.values().forEach(LongAdder::reset);
+        timers.values().forEach(LatencyHistogram::reset);
+    }
+
+    /**
+     * Registers the metrics with the platform MBean server, once.
+     */
+    public void registerMBean() {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            if (!server.isRegistered(name)) {
+                server.registerMBean(this, name);
+            }
+        } catch (JMException | RuntimeException e) {
+            LOGGER.warning("Unable to register the Dfdl metrics with JMX: " + e.getMessage());
+        }
+    }
+
+    public void unregisterMBean() {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            if (server.isRegistered(name)) {
+                server.unregisterMBean(name);
+            }
+        } catch (JMException | RuntimeException e) {
+            LOGGER.warning("Unable to unregister the Dfdl metrics from JMX: " + e.getMessage());
+        }
+    }
+
+    private Map<String, Double> getTimerValues(ToLongFunction<LatencyHistogram> value) {
+        Map<String, Double> values = new TreeMap<>();
+        timers.forEach((name, histogram) -> values.put(name, toMillis(value.applyAsLong(histogram))));
+        return values;
+    }
+
+    private static double toMillis(double micros) {
+        return Math.round(micros) / 1000.0;
+    }
+}
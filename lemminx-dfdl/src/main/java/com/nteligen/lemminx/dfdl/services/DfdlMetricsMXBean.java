@@ -0,0 +1,45 @@
+package com.nteligen.lemminx.dfdl.services;
+
+import java.util.Map;
+
+/**
+ * JMX view of the {@link DfdlMetrics}, registered as
+ * com.nteligen.lemminx.dfdl:type=Metrics. Latencies are in milliseconds.
+ */
+public interface DfdlMetricsMXBean {
+
+    /**
+     * @return counter name -> count
+     */
+    Map<String, Long> getCounters();
+
+    /**
+     * @return timer name -> number of recorded latencies
+     */
+    Map<String, Long> getTimerCounts();
+
+    /**
+     * @return timer name -> median latency
+     */
+    Map<String, Double> getP50Millis();
+
+    /**
+     * @return timer name -> 99th percentile latency
+     */
+    Map<String, Double> getP99Millis();
+
+    /**
+     * @return timer name -> highest latency
+     */
+    Map<String, Double> getMaxMillis();
+
+    /**
+     * @return all metrics as json, as returned by the Dfdl.metrics command
+     */
+    String getReport();
+
+    /**
+     * Clears all counters and timers.
+     */
+    void reset();
+}
@@ -1,4 +1,4 @@
-package com.nteligen.lemminx.dfdl.Dfdl.services;
+package com.nteligen.lemminx.dfdl.services;
 
 import java.io.IOException;
 import java.net.URI;
@@ -7,11 +7,17 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
 
 import org.eclipse.lsp4j.WorkspaceFolder;
+import org.eclipse.lsp4j.WorkspaceFoldersChangeEvent;
 
 public class DfdlProjectsManager {
 
@@ -19,25 +25,86 @@ public class DfdlProjectsManager {
 
     private static final DfdlProjectsManager INSTANCE = new DfdlProjectsManager();
 
-    private List<DfdlWorkspace> DfdlWorkspaceFolders;
+    // Registered workspace folders, normalized URI -> URI as given by the
+    // client. Copied on write and published together with the trie over them,
+    // so that language requests can read them from any thread without locking
+    private volatile Map<String, String> workspaceFolderURIs;
+    private volatile WorkspaceFolderTrie workspaceFolderTrie;
+
+    // State of the workspace folders that hold a document that has been worked
+    // on, created on first use
+    private final Map<String, DfdlWorkspace> DfdlWorkspaces;
 
     public static DfdlProjectsManager getInstance() {
         return INSTANCE;
     }
 
     private DfdlProjectsManager() {
-        DfdlWorkspaceFolders = new ArrayList<DfdlWorkspace>();
+        workspaceFolderURIs = Collections.emptyMap();
+        workspaceFolderTrie = new WorkspaceFolderTrie(workspaceFolderURIs.values());
+        DfdlWorkspaces = new ConcurrentHashMap<>();
     }
 
+    /**
+     * Registers the workspace folders the client opened with.
+     *
+     * @param workspaceFolders workspace folders from the initialize request
+     */
     public void setWorkspaceFolders(List<WorkspaceFolder> workspaceFolders) {
-        for (WorkspaceFolder folder : workspaceFolders) {
-            DfdlWorkspace DfdlWorkspace = new DfdlWorkspace(folder.getUri());
-            this.DfdlWorkspaceFolders.add(DfdlWorkspace);
+        updateWorkspaceFolders(workspaceFolders, Collections.<WorkspaceFolder>emptyList());
+    }
+
+    /**
+     * Handles a workspace/didChangeWorkspaceFolders notification.
+     *
+     * @param event added and removed workspace folders
+     */
+    public void didChangeWorkspaceFolders(WorkspaceFoldersChangeEvent event) {
+        updateWorkspaceFolders(event.getAdded() != null ? event.getAdded() : Collections.<WorkspaceFolder>emptyList(),
+                event.getRemoved() != null ? event.getRemoved() : Collections.<WorkspaceFolder>emptyList());
+    }
+
+    /**
+     * Adds and removes workspace folders. The state of a removed folder (cached
+     * version and installed features, file index, watchers) is disposed of.
+     *
+     * @param added   workspace folders to add
+     * @param removed workspace folders to remove
+     */
+    public synchronized void updateWorkspaceFolders(List<WorkspaceFolder> added, List<WorkspaceFolder> removed) {
+        Map<String, String> folderURIs = new LinkedHashMap<>(this.workspaceFolderURIs);
+        List<String> removedURIs = new ArrayList<>();
+        for (WorkspaceFolder folder : removed) {
+            String folderURI = folderURIs.remove(WorkspaceFolderTrie.normalize(folder.getUri()));
+            if (folderURI != null) {
+                removedURIs.add(folderURI);
+            }
+        }
+        for (WorkspaceFolder folder : added) {
+            if (folder.getUri() != null) {
+                folderURIs.putIfAbsent(WorkspaceFolderTrie.normalize(folder.getUri()), folder.getUri());
+            }
+        }
+        this.workspaceFolderTrie = new WorkspaceFolderTrie(folderURIs.values());
+        this.workspaceFolderURIs = Collections.unmodifiableMap(folderURIs);
+
+        for (String folderURI : removedURIs) {
+            evict(folderURI);
         }
     }
 
+    /**
+     * Returns the state of the workspace folders that have been worked on.
+     */
     public List<DfdlWorkspace> getDfdlWorkspaceFolders() {
-        return this.DfdlWorkspaceFolders;
+        return new ArrayList<DfdlWorkspace>(DfdlWorkspaces.values());
+    }
+
+    /**
+     * Returns the URIs of all registered workspace folders.
+     */
+    public Collection<String> getWorkspaceFolderURIs() {
+        return workspaceFolderURIs.values();
     }
 
     public String getDfdlVersion(DfdlWorkspace DfdlWorkspace) {
@@ -45,18 +112,46 @@ public class DfdlProjectsManager {
     }
 
     /**
-     * Given a serverXML URI return the corresponding workspace folder URI
+     * Given a serverXML URI return the corresponding workspace folder, the
+     * innermost one if workspace folders are nested. The state of the folder is
+     * created the first time one of its documents is looked up.
      * 
      * @param serverXMLUri
-     * @return
+     * @return workspace folder, or null if the document is in none of them
      */
     public DfdlWorkspace getWorkspaceFolder(String serverXMLUri) {
+        String folderURI = workspaceFolderTrie.getWorkspaceFolderURI(serverXMLUri);
+        if (folderURI == null) {
+            return null;
+        }
+        DfdlWorkspace DfdlWorkspace = DfdlWorkspaces.get(folderURI);
+        if (DfdlWorkspace != null) {
+            return DfdlWorkspace;
+        }
+        DfdlWorkspace = DfdlWorkspaces.computeIfAbsent(folderURI, DfdlWorkspace::new);
+        if (!workspaceFolderURIs.containsKey(WorkspaceFolderTrie.normalize(folderURI))) {
+            // the folder was removed while it was being looked up
+            evict(folderURI);
+            return null;
+        }
+        return DfdlWorkspace;
+    }
+
+    private void evict(String folderURI) {
+        DfdlWorkspace DfdlWorkspace = DfdlWorkspaces.remove(folderURI);
+        if (DfdlWorkspace != null) {
+            LOGGER.fine("Disposing of workspace folder " + folderURI);
+            DfdlWorkspace.dispose();
+        }
+    }
+
+    /**
+     * Stops watching the files of all workspace folders.
+     */
+    public void dispose() {
         for (DfdlWorkspace folder : getInstance().getDfdlWorkspaceFolders()) {
-            if (serverXMLUri.contains(folder.getURI())) {
-                return folder;
-            }
+            folder.dispose();
         }
-        return null;
     }
 
     public void cleanUpTempDirs() {
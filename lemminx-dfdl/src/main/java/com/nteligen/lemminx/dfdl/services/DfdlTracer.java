@@ -0,0 +1,315 @@
+package com.nteligen.lemminx.dfdl.services;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+
+import com.google.gson.JsonObject;
+
+/**
+ * Opt-in tracing of the Dfdl request pipelines. Each stage of a completion,
+ * hover or diagnostics request (version detection, workspace lookups, feature
+ * list loading, item building, ...) is recorded as a span, ie.
+ *
+ * <pre>
+ * try (Span span = DfdlTracer.getInstance().span("getVersion")) {
+ *     ...
+ * }
+ * </pre>
+ *
+ * Spans are written in the Chrome trace-event format (complete events in a
+ * json array) to a local file that can be opened in chrome://tracing or
+ * Perfetto, where spans of the same thread are nested by time. The file is
+ * rotated once it reaches its maximum size, keeping the previous files as
+ * file.1 to file.{@value #ROTATED_FILES}. Enabled with xml.Dfdl.trace; while
+ * disabled, a span costs a volatile read.
+ */
+public final class DfdlTracer {
+
+    private static final Logger LOGGER = Logger.getLogger(DfdlTracer.class.getName());
+
+    public static final long DEFAULT_MAX_FILE_SIZE = 16 * 1024 * 1024;
+    private static final int ROTATED_FILES = 3;
+
+    // Spans waiting to be written, later ones are dropped when it is full
+    private static final int MAX_PENDING_EVENTS = 100000;
+    private static final long FLUSH_INTERVAL = 500; // ms
+
+    private static final DfdlTracer instance = new DfdlTracer();
+
+    public static DfdlTracer getInstance() {
+        return instance;
+    }
+
+    /**
+     * A stage of a request, recorded when it is closed.
+     */
+    public static class Span implements AutoCloseable {
+        private final String name;
+        private final long startNanos;
+        private JsonObject args;
+
+        private Span(String name, long startNanos) {
+            this.name = name;
+            this.startNanos = startNanos;
+        }
+
+        /**
+         * Adds an argument shown along with the span, ie. the document uri.
+         *
+         * @return this span
+         */
+        public Span arg(String key, String value) {
+            if (args == null) {
+                args = new JsonObject();
+            }
+            args.addProperty(key, value);
+            return this;
+        }
+
+        @Override
+        public void close() {
+            instance.record(this, System.nanoTime());
+        }
+    }
+
+    // returned while tracing is disabled, records nothing
+    private static final Span NO_SPAN = new Span(null, 0) {
+        @Override
+        public Span arg(String key, String value) {
+            return this;
+        }
+
+        @Override
+        public void close() {
+        }
+    };
+
+    private static final class Event {
+        final String name;
+        final long startMicros;
+        final long durationMicros;
+        final long threadId;
+        final String threadName;
+        final JsonObject args;
+
+        Event(Span span, long endNanos) {
+            this.name = span.name;
+            this.startMicros = TimeUnit.NANOSECONDS.toMicros(span.startNanos);
+            this.durationMicros = TimeUnit.NANOSECONDS.toMicros(endNanos - span.startNanos);
+            this.threadId = Thread.currentThread().getId();
+            this.threadName = Thread.currentThread().getName();
+            this.args = span.args;
+        }
+    }
+
+    private final BlockingQueue<Event> pendingEvents = new ArrayBlockingQueue<>(MAX_PENDING_EVENTS);
+    private final AtomicLong droppedEvents = new AtomicLong();
+    private final long processId = getProcessId();
+
+    private volatile Path traceFile;
+    private volatile long maxFileSize = DEFAULT_MAX_FILE_SIZE;
+    private ScheduledExecutorService writer;
+
+    // state of the file being written, guarded by this
+    private Path openFile;
+    private long fileSize;
+    private final Set<Long> namedThreads = new HashSet<>();
+
+    private DfdlTracer() {
+    }
+
+    /**
+     * Starts a span on the current thread.
+     *
+     * @param name name of the stage
+     * @return span to close when the stage ends
+     */
+    public Span span(String name) {
+        return traceFile != null ? new Span(name, System.nanoTime()) : NO_SPAN;
+    }
+
+    public boolean isEnabled() {
+        return traceFile != null;
+    }
+
+    /**
+     * Enables tracing, see {@link #enable(Path, long)}.
+     */
+    public void enable(Path file) {
+        enable(file, DEFAULT_MAX_FILE_SIZE);
+    }
+
+    /**
+     * Enables tracing to the given file. A file left by an earlier session is
+     * rotated like a full one, to the file with the ".1" suffix. Does nothing
+     * if tracing to that file is already enabled.
+     *
+     * @param file        trace file
+     * @param maxFileSize size after which the file is rotated, in bytes
+     */
+    public synchronized void enable(Path file, long maxFileSize) {
+        Path normalizedFile = file.toAbsolutePath().normalize();
+        if (normalizedFile.equals(traceFile) && this.maxFileSize == maxFileSize) {
+            return;
+        }
+        flush();
+        this.maxFileSize = maxFileSize;
+        openFile = null;
+        traceFile = normalizedFile;
+        if (writer == null) {
+            writer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "dfdl-trace-writer");
+                thread.setDaemon(true);
+                thread.setPriority(Thread.MIN_PRIORITY);
+                return thread;
+            });
+            writer.scheduleWithFixedDelay(this::flush, FLUSH_INTERVAL, FLUSH_INTERVAL, TimeUnit.MILLISECONDS);
+        }
+        LOGGER.info("Tracing Dfdl requests to " + normalizedFile);
+    }
+
+    /**
+     * Disables tracing, writing the spans recorded so far.
+     */
+    public synchronized void disable() {
+        if (traceFile == null) {
+            return;
+        }
+        flush();
+        traceFile = null;
+        openFile = null;
+        if (writer != null) {
+            writer.shutdown();
+            writer = null;
+        }
+    }
+
+    /**
+     * @return number of spans dropped because they were recorded faster than
+     *         they could be written
+     */
+    public long getDroppedEvents() {
+        return droppedEvents.get();
+    }
+
+    private void record(Span span, long endNanos) {
+        if (traceFile != null && !pendingEvents.offer(new Event(span, endNanos))) {
+            droppedEvents.incrementAndGet();
+        }
+    }
+
+    /**
+     * Writes the pending spans to the trace file.
+     */
+    public synchronized void flush() {
+        Path file = traceFile;
+        if (file == null || pendingEvents.isEmpty()) {
+            return;
+        }
+        List<Event> events = new ArrayList<>(pendingEvents.size());
+        pendingEvents.drainTo(events);
+        try {
+            StringBuilder text = new StringBuilder();
+            for (Event event : events) {
+                if (openFile == null || fileSize + text.length() >= maxFileSize) {
+                    write(text);
+                    text.setLength(0);
+                    startFile(file);
+                }
+                if (namedThreads.add(event.threadId)) {
+                    JsonObject threadName = new JsonObject();
+                    threadName.addProperty("name", event.threadName);
+                    appendEvent(text, "thread_name", "M", 0, -1, event.threadId, threadName);
+                }
+                appendEvent(text, event.name, "X", event.startMicros, event.durationMicros, event.threadId,
+                        event.args);
+            }
+            write(text);
+        } catch (IOException e) {
+            LOGGER.warning("Unable to write the Dfdl trace to " + file + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Rotates the existing trace files and starts a new one.
+     */
+    private void startFile(Path file) throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        if (openFile != null || Files.exists(file)) {
+            for (int i = ROTATED_FILES - 1; i >= 1; i--) {
+                Path rotated = rotatedFile(file, i);
+                if (Files.exists(rotated)) {
+                    Files.move(rotated, rotatedFile(file, i + 1), StandardCopyOption.REPLACE_EXISTING);
+                }
+            }
+            if (Files.exists(file)) {
+                Files.move(file, rotatedFile(file, 1), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        // the closing bracket is optional in the trace-event format, so the
+        // file can be read at any time
+        byte[] start = "[\n".getBytes(StandardCharsets.UTF_8);
+        Files.write(file, start);
+        openFile = file;
+        fileSize = start.length;
+        namedThreads.clear();
+    }
+
+    static Path rotatedFile(Path file, int index) {
+        return file.resolveSibling(file.getFileName() + "." + index);
+    }
+
+    private void write(StringBuilder text) throws IOException {
+        if (text.length() == 0) {
+            return;
+        }
+        byte[] bytes = text.toString().getBytes(StandardCharsets.UTF_8);
+        Files.write(openFile, bytes, StandardOpenOption.APPEND);
+        fileSize += bytes.length;
+    }
+
+    private void appendEvent(StringBuilder text, String name, String phase, long timestamp, long duration,
+            long threadId, JsonObject args) {
+        JsonObject event = new JsonObject();
+        event.addProperty("name", name);
+        event.addProperty("ph", phase);
+        event.addProperty("ts", timestamp);
+        if (duration >= 0) {
+            event.addProperty("dur", duration);
+        }
+        event.addProperty("pid", processId);
+        event.addProperty("tid", threadId);
+        if (args != null) {
+            event.add("args", args);
+        }
+        text.append(event.toString()).append(",\n");
+    }
+
+    private static long getProcessId() {
+        // <pid>@<host name> on the usual JVMs
+        String name = ManagementFactory.getRuntimeMXBean().getName();
+        try {
+            return Long.parseLong(name.substring(0, name.indexOf('@')));
+        } catch (RuntimeException e) {
+            return 0;
+        }
+    }
+}
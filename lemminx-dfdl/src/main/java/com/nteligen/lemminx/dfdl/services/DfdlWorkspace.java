@@ -1,16 +1,62 @@
 package com.nteligen.lemminx.dfdl.services;
 
+import java.net.URI;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
 
 import com.nteligen.lemminx.dfdl.models.feature.Feature;
+import com.nteligen.lemminx.dfdl.services.FileWatcherService.Registration;
+import com.nteligen.lemminx.dfdl.util.DfdlConstants;
 
 public class DfdlWorkspace {
 
-    private String workspaceFolderURI;
-    private String DfdlVersion;
-    private boolean isDfdlInstalled;
-    private List<Feature> installedFeatureList;
+    private static final Logger LOGGER = Logger.getLogger(DfdlWorkspace.class.getName());
+
+    private final String workspaceFolderURI;
+    // read by the language feature participants on LemMinx worker threads
+    private volatile String DfdlVersion;
+    private volatile boolean isDfdlInstalled;
+    private volatile FeatureIndex installedFeatureIndex;
+    private WorkspaceFileIndex fileIndex;
+    private Registration propertiesFileWatch;
+
+    // Version memoized by DfdlUtils.getVersion, dropped when the installation
+    // changes on disk
+    private volatile ResolvedVersion resolvedVersion;
+    // bumped on every invalidation, which drops the memoized version without
+    // taking the lock of the workspace, so that file watcher events are not held
+    // up by a resolution in progress; a resolution that raced with an
+    // invalidation carries an older stamp and is never returned
+    private final AtomicInteger versionStamp = new AtomicInteger();
+    private final AtomicInteger versionResolutions = new AtomicInteger();
+
+    /**
+     * Dfdl version resolved from the properties file of the workspace, along
+     * with the generation of the settings it was resolved under.
+     */
+    public static final class ResolvedVersion {
+        private final String version;
+        private final long settingsGeneration;
+        private final int versionStamp;
+
+        ResolvedVersion(String version, long settingsGeneration, int versionStamp) {
+            this.version = version;
+            this.settingsGeneration = settingsGeneration;
+            this.versionStamp = versionStamp;
+        }
+
+        public String getVersion() {
+            return version;
+        }
+
+        public long getSettingsGeneration() {
+            return settingsGeneration;
+        }
+    }
 
     /**
      * Model of a Dfdl Workspace. Each workspace indicates the
@@ -23,7 +69,7 @@ public class DfdlWorkspace {
         this.workspaceFolderURI = workspaceFolderURI;
         this.DfdlVersion = null;
         this.isDfdlInstalled = false;
-        this.installedFeatureList = new ArrayList<Feature>();
+        this.installedFeatureIndex = new FeatureIndex(new ArrayList<Feature>());
     }
 
     public String getURI() {
@@ -47,11 +93,142 @@ public class DfdlWorkspace {
     }
 
     public List<Feature> getInstalledFeatureList() {
-        return this.installedFeatureList;
+        return this.installedFeatureIndex.getFeatures();
+    }
+
+    public FeatureIndex getInstalledFeatureIndex() {
+        return this.installedFeatureIndex;
     }
 
     public void setInstalledFeatureList(List<Feature> installedFeatureList){
-        this.installedFeatureList = installedFeatureList;
+        this.installedFeatureIndex = new FeatureIndex(installedFeatureList);
+    }
+
+    public void setInstalledFeatureIndex(FeatureIndex installedFeatureIndex) {
+        this.installedFeatureIndex = installedFeatureIndex;
+    }
+
+    /**
+     * @return memoized version, or null if it was invalidated since
+     */
+    public ResolvedVersion getResolvedVersion() {
+        ResolvedVersion resolvedVersion = this.resolvedVersion;
+        if (resolvedVersion == null || resolvedVersion.versionStamp != versionStamp.get()) {
+            return null;
+        }
+        return resolvedVersion;
+    }
+
+    public int getVersionStamp() {
+        return this.versionStamp.get();
+    }
+
+    /**
+     * Memoizes the resolved version, unless the version was invalidated since
+     * the resolution started.
+     *
+     * @param version            resolved version, may be null
+     * @param settingsGeneration settings generation it was resolved under
+     * @param versionStamp       {@link #getVersionStamp()} from before the
+     *                           resolution started
+     */
+    public void setResolvedVersion(String version, long settingsGeneration, int versionStamp) {
+        if (this.versionStamp.get() == versionStamp) {
+            this.resolvedVersion = new ResolvedVersion(version, settingsGeneration, versionStamp);
+        }
+    }
+
+    /**
+     * Drops the memoized version, so that the next request resolves it again.
+     * Does not lock the workspace, so that it can be called from file watcher
+     * events while a request is resolving the version.
+     */
+    public void invalidateVersion() {
+        this.versionStamp.incrementAndGet();
+        this.resolvedVersion = null;
+    }
+
+    /**
+     * Counts a lookup of the properties file of this workspace, made to resolve
+     * its version.
+     */
+    public void recordVersionLookup() {
+        versionResolutions.incrementAndGet();
+    }
+
+    /**
+     * Returns how many times the properties file of this workspace has been
+     * looked up to resolve its version.
+     */
+    public int getVersionResolutions() {
+        return versionResolutions.get();
+    }
+
+    /**
+     * Returns the index of the files in this workspace folder, starting to build
+     * it in the background on first use.
+     *
+     * @return file index, or null if the workspace folder is not a local folder
+     */
+    public synchronized WorkspaceFileIndex getFileIndex() {
+        if (fileIndex == null && workspaceFolderURI != null) {
+            try {
+                Path rootPath = Paths.get(new URI(workspaceFolderURI));
+                fileIndex = new WorkspaceFileIndex(rootPath);
+                fileIndex.setChangeListener(this::onFileChanged);
+                fileIndex.start();
+            } catch (Exception e) {
+                LOGGER.warning("Unable to index workspace folder " + workspaceFolderURI + ": " + e.getMessage());
+                return null;
+            }
+        }
+        return fileIndex;
+    }
+
+    public synchronized Registration getPropertiesFileWatch() {
+        return propertiesFileWatch;
+    }
+
+    /**
+     * Replaces the watch on the directory of the Dfdl properties file of this
+     * workspace folder.
+     *
+     * @param propertiesFileWatch watch registration, closed with the workspace
+     */
+    public synchronized void setPropertiesFileWatch(Registration propertiesFileWatch) {
+        if (this.propertiesFileWatch != null) {
+            this.propertiesFileWatch.close();
+        }
+        this.propertiesFileWatch = propertiesFileWatch;
+    }
+
+    /**
+     * Called when a file of the workspace is created or deleted.
+     */
+    private void onFileChanged(Path file) {
+        String filename = file.getFileName().toString();
+        if (filename.equals(DfdlConstants.PROPERTIES_FILE)) {
+            // an installation was added or removed
+            setDfdlInstalled(false);
+            invalidateVersion();
+        } else if (filename.endsWith(DfdlConstants.FEATURE_MANIFEST_EXTENSION)) {
+            // a feature was installed or uninstalled
+            setInstalledFeatureList(new ArrayList<Feature>());
+        }
+    }
+
+    /**
+     * Stops watching the files of this workspace folder.
+     */
+    public synchronized void dispose() {
+        if (fileIndex != null) {
+            fileIndex.stop();
+            fileIndex = null;
+        }
+        if (propertiesFileWatch != null) {
+            propertiesFileWatch.close();
+            propertiesFileWatch = null;
+        }
     }
 
 }
@@ -0,0 +1,325 @@
+package com.nteligen.lemminx.dfdl.services;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.nteligen.lemminx.dfdl.models.feature.Feature;
+import com.nteligen.lemminx.dfdl.models.feature.RequireFeatureWithTolerates;
+import com.nteligen.lemminx.dfdl.models.feature.WlpInformation;
+
+/**
+ * Dependency graph of the features of one Dfdl version, public and non public
+ * ones. Every feature is given an ordinal, and the features it always enables
+ * (itself and its transitive requirements) are precomputed as a bitset, so
+ * that the features enabled by a <featureManager> block are the union of a few
+ * bitsets. Built once along with the {@link FeatureIndex} of the version, from
+ * a compact {@link Node} per feature.
+ *
+ * A requirement that tolerates other versions (ie. servlet-3.0 tolerating 3.1
+ * and 4.0) can be satisfied by whichever version is enabled anyway, so it is
+ * not followed: only features that are enabled whatever the resolution are in
+ * a closure, and a conflict between them is a real one.
+ */
+public final class FeatureDependencyGraph {
+
+    /**
+     * Two versions of a singleton feature enabled by the same configuration.
+     */
+    public static final class Conflict {
+        private final int firstRoot;
+        private final int secondRoot;
+        private final String firstFeature;
+        private final String secondFeature;
+
+        Conflict(int firstRoot, int secondRoot, String firstFeature, String secondFeature) {
+            this.firstRoot = firstRoot;
+            this.secondRoot = secondRoot;
+            this.firstFeature = firstFeature;
+            this.secondFeature = secondFeature;
+        }
+
+        /**
+         * @return position, in the ordinals given to {@link #findConflicts},
+         *         of the feature that enables {@link #getFirstFeature()}
+         */
+        public int getFirstRoot() {
+            return firstRoot;
+        }
+
+        /**
+         * @return position, in the ordinals given to {@link #findConflicts},
+         *         of the feature that enables {@link #getSecondFeature()}
+         */
+        public int getSecondRoot() {
+            return secondRoot;
+        }
+
+        public String getFirstFeature() {
+            return firstFeature;
+        }
+
+        public String getSecondFeature() {
+            return secondFeature;
+        }
+    }
+
+    /**
+     * What the graph needs to know about a feature: its names, whether it is a
+     * singleton and the features it requires whatever the resolution. Non
+     * public features are only kept in this form.
+     */
+    public static final class Node {
+        private final String symbolicName;
+        private final String shortName;
+        private final boolean singleton;
+        private final String[] requirements;
+
+        /**
+         * @param symbolicName symbolic name of the feature
+         * @param shortName    short name, null for non public features
+         * @param singleton    true if only one version of the feature can be
+         *                     enabled
+         * @param requirements features that have to be enabled along with it
+         */
+        public Node(String symbolicName, String shortName, boolean singleton, List<String> requirements) {
+            this.symbolicName = symbolicName;
+            this.shortName = shortName;
+            this.singleton = singleton;
+            this.requirements = requirements.toArray(new String[requirements.size()]);
+        }
+
+        public static Node of(Feature feature) {
+            WlpInformation wlpInformation = feature.getWlpInformation();
+            if (wlpInformation == null) {
+                return new Node(feature.getName(), null, false, Collections.<String>emptyList());
+            }
+            return of(feature.getName(), wlpInformation.getShortName(), wlpInformation.getSingleton(),
+                    wlpInformation.getProvideFeature(), wlpInformation.getRequireFeature(),
+                    wlpInformation.getRequireFeatureWithTolerates());
+        }
+
+        /**
+         * Creates the node of a feature from the fields of its feature list
+         * entry.
+         */
+        public static Node of(String name, String shortName, String singleton, List<String> provideFeature,
+                List<String> requireFeature, List<RequireFeatureWithTolerates> requireFeatureWithTolerates) {
+            String symbolicName = provideFeature != null && !provideFeature.isEmpty() ? provideFeature.get(0) : name;
+            List<String> requirements = new ArrayList<>();
+            if (requireFeatureWithTolerates != null) {
+                for (RequireFeatureWithTolerates requirement : requireFeatureWithTolerates) {
+                    if (requirement.getTolerates() == null || requirement.getTolerates().isEmpty()) {
+                        requirements.add(requirement.getFeature());
+                    }
+                }
+            } else if (requireFeature != null) {
+                requirements.addAll(requireFeature);
+            }
+            return new Node(symbolicName, shortName, "true".equals(singleton), requirements);
+        }
+
+        public String getSymbolicName() {
+            return symbolicName;
+        }
+
+        public String getShortName() {
+            return shortName;
+        }
+
+        public boolean isSingleton() {
+            return singleton;
+        }
+
+        public List<String> getRequirements() {
+            return Collections.unmodifiableList(Arrays.asList(requirements));
+        }
+    }
+
+    // short or symbolic name key -> ordinal
+    private final Map<String, Integer> ordinals;
+    // ordinal -> short name, or symbolic name for non public features
+    private final String[] names;
+    // ordinal -> the feature and all the features it always enables
+    private final BitSet[] closures;
+    // ordinal -> singleton group (all versions of one feature), -1 if the
+    // feature is not a singleton
+    private final int[] singletonGroups;
+    private final int groupCount;
+    private final BitSet singletons;
+
+    public FeatureDependencyGraph(List<Node> nodes) {
+        int size = nodes.size();
+        this.ordinals = new HashMap<>(size * 4);
+        this.names = new String[size];
+        for (int i = 0; i < size; i++) {
+            Node node = nodes.get(i);
+            names[i] = node.shortName != null ? node.shortName : node.symbolicName;
+            if (node.symbolicName != null) {
+                ordinals.putIfAbsent(FeatureIndex.toKey(node.symbolicName), i);
+            }
+            if (node.shortName != null) {
+                ordinals.putIfAbsent(FeatureIndex.toKey(node.shortName), i);
+            }
+        }
+
+        // direct requirements that have to be enabled, whatever the resolution
+        int[][] requirements = new int[size][];
+        this.singletonGroups = new int[size];
+        this.singletons = new BitSet(size);
+        Map<String, Integer> groups = new HashMap<>();
+        for (int i = 0; i < size; i++) {
+            Node node = nodes.get(i);
+            requirements[i] = getRequirements(node);
+            singletonGroups[i] = -1;
+            if (node.singleton && node.symbolicName != null) {
+                Integer group = groups.computeIfAbsent(FeatureIndex.toKey(getBaseName(node.symbolicName)),
+                        key -> groups.size());
+                singletonGroups[i] = group;
+                singletons.set(i);
+            }
+        }
+        this.groupCount = groups.size();
+
+        this.closures = new BitSet[size];
+        Deque<Integer> pending = new ArrayDeque<>();
+        for (int i = 0; i < size; i++) {
+            BitSet closure = new BitSet(size);
+            closure.set(i);
+            pending.push(i);
+            while (!pending.isEmpty()) {
+                for (int requirement : requirements[pending.pop()]) {
+                    if (!closure.get(requirement)) {
+                        closure.set(requirement);
+                        pending.push(requirement);
+                    }
+                }
+            }
+            closures[i] = closure;
+        }
+    }
+
+    /**
+     * @param featureName short or symbolic feature name, ignoring case
+     * @return ordinal of the feature, or -1 if it is unknown
+     */
+    public int getOrdinal(String featureName) {
+        if (featureName == null) {
+            return -1;
+        }
+        Integer ordinal = ordinals.get(FeatureIndex.toKey(featureName));
+        return ordinal != null ? ordinal : -1;
+    }
+
+    /**
+     * @return short name of the feature, or its symbolic name if it has none
+     */
+    public String getName(int ordinal) {
+        return names[ordinal];
+    }
+
+    /**
+     * Returns the features enabled by a set of features.
+     *
+     * @param featureOrdinals ordinals of the configured features
+     * @return ordinals of the configured features and of all the features
+     *         they always enable
+     */
+    public BitSet getClosure(int... featureOrdinals) {
+        BitSet closure = new BitSet(names.length);
+        for (int ordinal : featureOrdinals) {
+            closure.or(closures[ordinal]);
+        }
+        return closure;
+    }
+
+    /**
+     * Finds the singleton features of which two versions are enabled by a set of
+     * features, ie. servlet-3.1 required by one configured feature and
+     * servlet-4.0 by another.
+     *
+     * @param featureOrdinals ordinals of the configured features
+     * @return conflicts, at most one per singleton feature
+     */
+    public List<Conflict> findConflicts(int... featureOrdinals) {
+        BitSet enabled = getClosure(featureOrdinals);
+        enabled.and(singletons);
+        if (enabled.cardinality() < 2) {
+            return Collections.emptyList();
+        }
+        int[] firstOfGroup = new int[groupCount];
+        Arrays.fill(firstOfGroup, -1);
+        List<Conflict> conflicts = null;
+        for (int i = enabled.nextSetBit(0); i >= 0; i = enabled.nextSetBit(i + 1)) {
+            int group = singletonGroups[i];
+            int first = firstOfGroup[group];
+            if (first == -1) {
+                firstOfGroup[group] = i;
+            } else if (first >= 0) {
+                // one conflict per group is enough
+                firstOfGroup[group] = -2;
+                Conflict conflict = createConflict(featureOrdinals, first, i);
+                if (conflict != null) {
+                    if (conflicts == null) {
+                        conflicts = new ArrayList<>(2);
+                    }
+                    conflicts.add(conflict);
+                }
+            }
+        }
+        return conflicts != null ? conflicts : Collections.emptyList();
+    }
+
+    /**
+     * @return the conflict between two enabled features, with the configured
+     *         features that enable them, or null if only one configured feature
+     *         enables both (an inconsistent feature list, not a configuration
+     *         error)
+     */
+    private Conflict createConflict(int[] featureOrdinals, int first, int second) {
+        for (int firstRoot = 0; firstRoot < featureOrdinals.length; firstRoot++) {
+            if (!closures[featureOrdinals[firstRoot]].get(first)) {
+                continue;
+            }
+            for (int secondRoot = 0; secondRoot < featureOrdinals.length; secondRoot++) {
+                if (secondRoot != firstRoot && closures[featureOrdinals[secondRoot]].get(second)
+                        && !closures[featureOrdinals[secondRoot]].get(first)) {
+                    return new Conflict(firstRoot, secondRoot, names[first], names[second]);
+                }
+            }
+        }
+        return null;
+    }
+
+    private int[] getRequirements(Node node) {
+        int[] requirements = new int[node.requirements.length];
+        int count = 0;
+        for (String featureName : node.requirements) {
+            int ordinal = getOrdinal(featureName);
+            // features missing from the list cannot be followed
+            if (ordinal != -1) {
+                requirements[count++] = ordinal;
+            }
+        }
+        return Arrays.copyOf(requirements, count);
+    }
+
+    /**
+     * @return the symbolic name without its version, ie.
+     *         com.ibm.websphere.appserver.servlet for
+     *         com.ibm.websphere.appserver.servlet-4.0
+     */
+    static String getBaseName(String symbolicName) {
+        int dash = symbolicName.lastIndexOf('-');
+        if (dash > 0 && dash < symbolicName.length() - 1 && Character.isDigit(symbolicName.charAt(dash + 1))) {
+            return symbolicName.substring(0, dash);
+        }
+        return symbolicName;
+    }
+}
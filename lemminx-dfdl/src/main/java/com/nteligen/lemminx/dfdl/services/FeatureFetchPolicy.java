@@ -0,0 +1,167 @@
+package com.nteligen.lemminx.dfdl.services;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+import java.util.logging.Logger;
+
+/**
+ * Decides when the feature list of a Dfdl version may be fetched from Maven.
+ *
+ * Each version backs off on its own: after a failed fetch the next attempt
+ * waits for the request delay, doubling with every further failure up to
+ * {@link #MAX_BACKOFF}. A version that Maven does not have (404) is not asked
+ * for again for {@link #NOT_FOUND_RETRY}. On top of that a circuit breaker
+ * stops all remote attempts once {@link #NETWORK_FAILURE_THRESHOLD} fetches in
+ * a row could not reach the repository at all, ie. on an air-gapped machine.
+ * After the circuit has been open for a while a single trial fetch is let
+ * through; if it fails the circuit stays open for twice as long.
+ */
+public class FeatureFetchPolicy {
+
+    private static final Logger LOGGER = Logger.getLogger(FeatureFetchPolicy.class.getName());
+
+    // Longest wait (ms) in between fetch attempts for a version
+    static final long MAX_BACKOFF = 60 * 60 * 1000L;
+    // Wait (ms) before asking again for a version that Maven does not have
+    static final long NOT_FOUND_RETRY = 6 * 60 * 60 * 1000L;
+    // Shortest wait (ms) after a failure, when no request delay is configured
+    static final long MIN_BACKOFF = 1000L;
+
+    // Consecutive network failures that open the circuit
+    static final int NETWORK_FAILURE_THRESHOLD = 3;
+    // Time (ms) the circuit stays open before a trial fetch, doubled on every
+    // failed trial up to CIRCUIT_MAX_OPEN_TIME
+    static final long CIRCUIT_OPEN_TIME = 60 * 1000L;
+    static final long CIRCUIT_MAX_OPEN_TIME = 30 * 60 * 1000L;
+
+    private static class VersionState {
+        int failures;
+        long nextAttemptTime;
+    }
+
+    private final LongSupplier clock;
+    private final Map<String, VersionState> versionStates = new ConcurrentHashMap<>();
+
+    // circuit breaker state, guarded by this
+    private int consecutiveNetworkFailures;
+    private long circuitOpenTime;
+    private long circuitOpenUntil = -1;
+    private boolean trialInFlight;
+
+    public FeatureFetchPolicy() {
+        this(System::currentTimeMillis);
+    }
+
+    public FeatureFetchPolicy(LongSupplier clock) {
+        this.clock = clock;
+    }
+
+    /**
+     * Checks whether a fetch for the given version may start now. When the
+     * circuit is half open this claims the single trial fetch, so a caller that
+     * is allowed to fetch must report the outcome.
+     *
+     * @param DfdlVersion - version to fetch features for
+     * @return true if the fetch may start
+     */
+    public boolean tryAcquire(String DfdlVersion) {
+        long now = clock.getAsLong();
+        VersionState state = versionStates.get(DfdlVersion);
+        if (state != null) {
+            synchronized (state) {
+                if (now < state.nextAttemptTime) {
+                    return false;
+                }
+            }
+        }
+        synchronized (this) {
+            if (circuitOpenUntil == -1) {
+                return true;
+            }
+            if (now < circuitOpenUntil || trialInFlight) {
+                return false;
+            }
+            // half open, let a single trial fetch through
+            trialInFlight = true;
+            return true;
+        }
+    }
+
+    /**
+     * Records a fetch that reached the repository and returned a feature list,
+     * or confirmed that the cached one is up to date.
+     */
+    public void onSuccess(String DfdlVersion) {
+        versionStates.remove(DfdlVersion);
+        closeCircuit();
+    }
+
+    /**
+     * Records a fetch for a version that the repository does not have.
+     */
+    public void onNotFound(String DfdlVersion) {
+        VersionState state = getState(DfdlVersion);
+        synchronized (state) {
+            state.failures++;
+            state.nextAttemptTime = clock.getAsLong() + NOT_FOUND_RETRY;
+        }
+        // the repository answered, so the network is fine
+        closeCircuit();
+    }
+
+    /**
+     * Records a failed fetch.
+     *
+     * @param DfdlVersion - version the fetch was for
+     * @param requestDelay - time (seconds) to wait after a first failure
+     * @param networkFailure - true if the repository could not be reached at all,
+     *        false if it answered with an error or an unreadable feature list
+     */
+    public void onFailure(String DfdlVersion, int requestDelay, boolean networkFailure) {
+        long now = clock.getAsLong();
+        VersionState state = getState(DfdlVersion);
+        synchronized (state) {
+            state.failures++;
+            long backoff = Math.max(requestDelay * 1000L, MIN_BACKOFF);
+            for (int i = 1; i < state.failures && backoff < MAX_BACKOFF; i++) {
+                backoff *= 2;
+            }
+            state.nextAttemptTime = now + Math.min(backoff, MAX_BACKOFF);
+        }
+        if (!networkFailure) {
+            closeCircuit();
+            return;
+        }
+        synchronized (this) {
+            consecutiveNetworkFailures++;
+            if (trialInFlight) {
+                // failed trial, stay open for longer
+                trialInFlight = false;
+                circuitOpenTime = Math.min(circuitOpenTime * 2, CIRCUIT_MAX_OPEN_TIME);
+                circuitOpenUntil = now + circuitOpenTime;
+            } else if (circuitOpenUntil == -1 && consecutiveNetworkFailures >= NETWORK_FAILURE_THRESHOLD) {
+                circuitOpenTime = CIRCUIT_OPEN_TIME;
+                circuitOpenUntil = now + circuitOpenTime;
+                LOGGER.info("Feature repository unreachable, pausing feature list requests");
+            }
+        }
+    }
+
+    public synchronized boolean isCircuitOpen() {
+        return circuitOpenUntil != -1;
+    }
+
+    private synchronized void closeCircuit() {
+        if (circuitOpenUntil != -1) {
+            LOGGER.info("Feature repository reachable again, resuming feature list requests");
+        }
+        consecutiveNetworkFailures = 0;
+        circuitOpenUntil = -1;
+        trialInFlight = false;
+    }
+
+    private VersionState getState(String DfdlVersion) {
+        return versionStates.computeIfAbsent(DfdlVersion, version -> new VersionState());
+    }
+}
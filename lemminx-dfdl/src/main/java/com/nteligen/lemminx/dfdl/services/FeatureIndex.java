@@ -0,0 +1,255 @@
+package com.nteligen.lemminx.dfdl.services;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+import com.nteligen.lemminx.dfdl.models.feature.Feature;
+import com.nteligen.lemminx.dfdl.models.feature.WlpInformation;
+import com.nteligen.lemminx.dfdl.services.FeatureDependencyGraph.Node;
+import com.nteligen.lemminx.dfdl.util.DfdlConstants;
+import com.nteligen.lemminx.dfdl.util.FeatureCatalogFile;
+
+/**
+ * Immutable lookup structure over the feature list of one Dfdl version.
+ * Features can be found by short name (ie. jaxrs-2.1) or by symbolic name (ie.
+ * com.ibm.websphere.appserver.jaxrs-2.1), ignoring case, and by the prefix of
+ * their short name or of one of its capability segments (ie. "config" for
+ * mpConfig-1.4). Built once when the feature list of a version is loaded.
+ * Lookups only need the names of the features, so an index over a
+ * {@link FeatureCatalogFile} only decodes the features it returns.
+ *
+ * Only public features can be looked up; non public features of the list are
+ * only kept as compact nodes of its {@link FeatureDependencyGraph}.
+ */
+public final class FeatureIndex {
+
+    private final List<Feature> features;
+    private final List<Node> nonPublicFeatures;
+    // short or symbolic name key -> position of the feature
+    private final Map<String, Integer> featuresByShortName;
+    private final Map<String, Integer> featuresBySymbolicName;
+    private final FeatureDependencyGraph dependencyGraph;
+
+    // Sorted lowercase prefix keys and the position of the feature each key
+    // belongs to, searched with a binary search for completion
+    private final String[] prefixKeys;
+    private final int[] prefixOrdinals;
+
+    /**
+     * @param allFeatures public and non public features of a Dfdl version
+     */
+    public FeatureIndex(List<Feature> allFeatures) {
+        this(getPublicFeatures(allFeatures), getNonPublicFeatures(allFeatures));
+    }
+
+    /**
+     * @param features          public features of a Dfdl version
+     * @param nonPublicFeatures non public features of that version, as needed
+     *                          by the dependency graph
+     */
+    public FeatureIndex(List<Feature> features, List<Node> nonPublicFeatures) {
+        this(new ArrayList<>(features), getNodes(features), nonPublicFeatures);
+    }
+
+    /**
+     * @param features          public features, only read when looked up
+     * @param featureNodes      dependency graph nodes of the public features,
+     *                          in the same order
+     * @param nonPublicFeatures dependency graph nodes of the non public features
+     */
+    private FeatureIndex(List<Feature> features, List<Node> featureNodes, List<Node> nonPublicFeatures) {
+        this.features = Collections.unmodifiableList(features);
+        this.nonPublicFeatures = Collections.unmodifiableList(new ArrayList<>(nonPublicFeatures));
+        List<Node> nodes = new ArrayList<>(featureNodes.size() + nonPublicFeatures.size());
+        nodes.addAll(featureNodes);
+        nodes.addAll(nonPublicFeatures);
+        this.dependencyGraph = new FeatureDependencyGraph(nodes);
+        this.featuresByShortName = new HashMap<>(featureNodes.size() * 2);
+        this.featuresBySymbolicName = new HashMap<>(featureNodes.size() * 2);
+
+        List<PrefixKey> keys = new ArrayList<>(featureNodes.size() * 2);
+        for (int i = 0; i < featureNodes.size(); i++) {
+            Node node = featureNodes.get(i);
+            if (node.getSymbolicName() != null) {
+                featuresBySymbolicName.putIfAbsent(toKey(node.getSymbolicName()), i);
+            }
+            String shortName = node.getShortName();
+            if (shortName == null) {
+                continue;
+            }
+            featuresByShortName.putIfAbsent(toKey(shortName), i);
+            keys.add(new PrefixKey(toKey(shortName), i));
+            // capability segments start at each camel case hump, ie. jaxrsClient-2.1 -> client-2.1
+            for (int c = 1; c < shortName.length(); c++) {
+                if (Character.isUpperCase(shortName.charAt(c)) && Character.isLowerCase(shortName.charAt(c - 1))) {
+                    keys.add(new PrefixKey(toKey(shortName.substring(c)), i));
+                }
+            }
+        }
+        Collections.sort(keys);
+        this.prefixKeys = new String[keys.size()];
+        this.prefixOrdinals = new int[keys.size()];
+        for (int i = 0; i < keys.size(); i++) {
+            prefixKeys[i] = keys.get(i).key;
+            prefixOrdinals[i] = keys.get(i).ordinal;
+        }
+    }
+
+    /**
+     * Creates the index of a feature catalog. Only the names and requirements
+     * of the features are decoded; the features themselves are decoded when
+     * they are looked up.
+     *
+     * @param catalog feature catalog of a Dfdl version
+     * @return index of the catalog
+     */
+    public static FeatureIndex of(FeatureCatalogFile catalog) {
+        return new FeatureIndex(catalog.getFeatures(), catalog.getFeatureNodes(), catalog.getNonPublicFeatures());
+    }
+
+    /**
+     * Normalizes a feature name into the key used by the index.
+     *
+     * @param featureName short or symbolic feature name
+     * @return case-folded key
+     */
+    public static String toKey(String featureName) {
+        return featureName.toLowerCase(Locale.ROOT);
+    }
+
+    private static List<Feature> getPublicFeatures(List<Feature> allFeatures) {
+        List<Feature> features = new ArrayList<>(allFeatures.size());
+        for (Feature feature : allFeatures) {
+            if (isPublic(feature)) {
+                features.add(feature);
+            }
+        }
+        return features;
+    }
+
+    private static List<Node> getNodes(List<Feature> features) {
+        List<Node> nodes = new ArrayList<>(features.size());
+        for (Feature feature : features) {
+            nodes.add(Node.of(feature));
+        }
+        return nodes;
+    }
+
+    private static List<Node> getNonPublicFeatures(List<Feature> allFeatures) {
+        List<Node> nodes = new ArrayList<>();
+        for (Feature feature : allFeatures) {
+            if (!isPublic(feature)) {
+                nodes.add(Node.of(feature));
+            }
+        }
+        return nodes;
+    }
+
+    private static boolean isPublic(Feature feature) {
+        WlpInformation wlpInformation = feature.getWlpInformation();
+        // lists without visibility only have public features
+        return wlpInformation == null || wlpInformation.getVisibility() == null
+                || DfdlConstants.PUBLIC_VISIBILITY.equals(wlpInformation.getVisibility());
+    }
+
+    public List<Feature> getFeatures() {
+        return features;
+    }
+
+    /**
+     * @return non public features of the list, in the compact form kept for
+     *         the dependency graph
+     */
+    public List<Node> getNonPublicFeatures() {
+        return nonPublicFeatures;
+    }
+
+    public int size() {
+        return features.size();
+    }
+
+    public FeatureDependencyGraph getDependencyGraph() {
+        return dependencyGraph;
+    }
+
+    public Optional<Feature> getFeature(String shortName) {
+        if (shortName == null) {
+            return Optional.empty();
+        }
+        return getFeature(featuresByShortName.get(toKey(shortName)));
+    }
+
+    public Optional<Feature> getFeatureBySymbolicName(String symbolicName) {
+        if (symbolicName == null) {
+            return Optional.empty();
+        }
+        return getFeature(featuresBySymbolicName.get(toKey(symbolicName)));
+    }
+
+    private Optional<Feature> getFeature(Integer position) {
+        return position != null ? Optional.of(features.get(position)) : Optional.empty();
+    }
+
+    public boolean featureExists(String shortName) {
+        return shortName != null && featuresByShortName.containsKey(toKey(shortName));
+    }
+
+    /**
+     * Returns the features whose short name, or one of its capability segments,
+     * starts with the given prefix, ignoring case. Features are returned in
+     * catalog order.
+     *
+     * @param prefix partially typed feature name
+     * @return matching features, all features if the prefix is empty
+     */
+    public List<Feature> getFeaturesByPrefix(String prefix) {
+        if (prefix == null || prefix.isEmpty()) {
+            return features;
+        }
+        String key = toKey(prefix);
+        BitSet matches = new BitSet(features.size());
+        for (int i = lowerBound(key); i < prefixKeys.length && prefixKeys[i].startsWith(key); i++) {
+            matches.set(prefixOrdinals[i]);
+        }
+        List<Feature> matchingFeatures = new ArrayList<>(matches.cardinality());
+        for (int i = matches.nextSetBit(0); i >= 0; i = matches.nextSetBit(i + 1)) {
+            matchingFeatures.add(features.get(i));
+        }
+        return matchingFeatures;
+    }
+
+    private int lowerBound(String key) {
+        int low = 0;
+        int high = prefixKeys.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (prefixKeys[mid].compareTo(key) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static class PrefixKey implements Comparable<PrefixKey> {
+        final String key;
+        final int ordinal;
+
+        PrefixKey(String key, int ordinal) {
+            this.key = key;
+            this.ordinal = ordinal;
+        }
+
+        @Override
+        public int compareTo(PrefixKey other) {
+            return key.compareTo(other.key);
+        }
+    }
+}
@@ -0,0 +1,229 @@
+package com.nteligen.lemminx.dfdl.services;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Properties;
+import java.util.logging.Logger;
+
+import com.nteligen.lemminx.dfdl.util.CacheFileUtils;
+import com.nteligen.lemminx.dfdl.util.FeatureCatalogFile;
+
+/**
+ * Persistent cache of the feature lists downloaded from Maven. Each feature
+ * list is stored in the LemMinx cache, at the location LemMinx would use for
+ * the json itself (or in the same layout under another cache directory), as a
+ * {@link FeatureCatalogFile} next to a properties file
+ * holding the ETag, Last-Modified and checksum of the download. Entries that
+ * are corrupt or were only partially written are detected and deleted.
+ */
+public class FeatureListCache {
+
+    private static final Logger LOGGER = Logger.getLogger(FeatureListCache.class.getName());
+
+    private static final String CATALOG_SUFFIX = ".catalog";
+    private static final String METADATA_SUFFIX = ".properties";
+
+    private static final String ETAG = "etag";
+    private static final String LAST_MODIFIED = "lastModified";
+    private static final String FETCH_TIME = "fetchTime";
+    private static final String SIZE = "size";
+    private static final String SHA256 = "sha256";
+    private static final String FORMAT_VERSION = "formatVersion";
+
+    // directory the feature lists are cached in, the LemMinx cache if null
+    private volatile Path cacheDirectory;
+
+    public FeatureListCache() {
+        this(null);
+    }
+
+    /**
+     * @param cacheDirectory directory to cache the feature lists in, null for
+     *                       the LemMinx cache
+     */
+    public FeatureListCache(Path cacheDirectory) {
+        this.cacheDirectory = cacheDirectory;
+    }
+
+    /**
+     * @param cacheDirectory directory to cache the feature lists in from now
+     *                       on, null for the LemMinx cache
+     */
+    public void setCacheDirectory(Path cacheDirectory) {
+        this.cacheDirectory = cacheDirectory;
+    }
+
+    /**
+     * Returns where the feature list downloaded from the given url is cached:
+     * its catalog and metadata files are that path with the .catalog and
+     * .properties suffixes.
+     *
+     * @param featureListURL url the feature list was downloaded from
+     * @return cache path of the feature list
+     * @throws IOException if the url cannot be mapped to a cache path
+     */
+    public Path getCachePath(String featureListURL) throws IOException {
+        return CacheFileUtils.getCachePath(cacheDirectory, featureListURL);
+    }
+
+    /**
+     * A feature list loaded from the cache along with the validators needed to
+     * revalidate it with a conditional request.
+     */
+    public static class CachedFeatureList {
+        private final FeatureIndex features;
+        private final String etag;
+        private final String lastModified;
+        private final long fetchTime;
+
+        CachedFeatureList(FeatureIndex features, String etag, String lastModified, long fetchTime) {
+            this.features = features;
+            this.etag = etag;
+            this.lastModified = lastModified;
+            this.fetchTime = fetchTime;
+        }
+
+        public FeatureIndex getFeatures() {
+            return features;
+        }
+
+        public String getETag() {
+            return etag;
+        }
+
+        public String getLastModified() {
+            return lastModified;
+        }
+
+        public long getFetchTime() {
+            return fetchTime;
+        }
+    }
+
+    /**
+     * Loads the feature list downloaded from the given url.
+     *
+     * @param featureListURL url the feature list was downloaded from
+     * @return cached feature list, or null if not cached or the entry is invalid
+     */
+    public CachedFeatureList load(String featureListURL) {
+        Path catalogFile;
+        Path metadataFile;
+        try {
+            Path cachePath = getCachePath(featureListURL);
+            catalogFile = cachePath.resolveSibling(cachePath.getFileName() + CATALOG_SUFFIX);
+            metadataFile = cachePath.resolveSibling(cachePath.getFileName() + METADATA_SUFFIX);
+        } catch (IOException e) {
+            LOGGER.warning("Unable to locate cached feature list for " + featureListURL + ": " + e.getMessage());
+            return null;
+        }
+        if (!Files.exists(metadataFile) || !Files.exists(catalogFile)) {
+            return null;
+        }
+
+        try {
+            Properties metadata = readMetadata(metadataFile);
+            byte[] catalog = Files.readAllBytes(catalogFile);
+            if (!String.valueOf(FeatureCatalogFile.FORMAT_VERSION).equals(metadata.getProperty(FORMAT_VERSION))
+                    || !String.valueOf(catalog.length).equals(metadata.getProperty(SIZE))
+                    || !CacheFileUtils.sha256(catalog).equals(metadata.getProperty(SHA256))) {
+                throw new IOException("checksum mismatch");
+            }
+            FeatureIndex features = FeatureIndex.of(FeatureCatalogFile.wrap(catalog));
+            long fetchTime = Long.parseLong(metadata.getProperty(FETCH_TIME, "0"));
+            return new CachedFeatureList(features, metadata.getProperty(ETAG), metadata.getProperty(LAST_MODIFIED),
+                    fetchTime);
+        } catch (IOException | RuntimeException e) {
+            LOGGER.warning("Discarding invalid cached feature list for " + featureListURL + ": " + e.getMessage());
+            delete(catalogFile);
+            delete(metadataFile);
+            return null;
+        }
+    }
+
+    /**
+     * Stores a feature list downloaded from the given url. The catalog is
+     * written before its metadata, both through a temporary file, so that a
+     * partial write never looks like a valid entry.
+     *
+     * @param featureListURL url the feature list was downloaded from
+     * @param features       index of the feature list, its public features and
+     *                       the dependency graph nodes of its non public ones
+     *                       are stored
+     * @param etag           ETag response header, may be null
+     * @param lastModified   Last-Modified response header, may be null
+     */
+    public void store(String featureListURL, FeatureIndex features, String etag, String lastModified) {
+        try {
+            Path cachePath = getCachePath(featureListURL);
+            Files.createDirectories(cachePath.getParent());
+            Path catalogFile = cachePath.resolveSibling(cachePath.getFileName() + CATALOG_SUFFIX);
+            Path metadataFile = cachePath.resolveSibling(cachePath.getFileName() + METADATA_SUFFIX);
+
+            ByteArrayOutputStream catalog = new ByteArrayOutputStream();
+            FeatureCatalogFile.write(features.getFeatures(), features.getNonPublicFeatures(), catalog);
+            byte[] catalogBytes = catalog.toByteArray();
+            CacheFileUtils.writeAtomically(catalogFile, catalogBytes);
+
+            Properties metadata = new Properties();
+            if (etag != null) {
+                metadata.setProperty(ETAG, etag);
+            }
+            if (lastModified != null) {
+                metadata.setProperty(LAST_MODIFIED, lastModified);
+            }
+            metadata.setProperty(FETCH_TIME, String.valueOf(System.currentTimeMillis()));
+            metadata.setProperty(SIZE, String.valueOf(catalogBytes.length));
+            metadata.setProperty(SHA256, CacheFileUtils.sha256(catalogBytes));
+            metadata.setProperty(FORMAT_VERSION, String.valueOf(FeatureCatalogFile.FORMAT_VERSION));
+            writeMetadata(metadataFile, metadata);
+        } catch (IOException e) {
+            LOGGER.warning("Unable to cache feature list for " + featureListURL + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Records that the cached feature list was successfully revalidated (ie. the
+     * server answered 304 Not Modified).
+     *
+     * @param featureListURL url the feature list was downloaded from
+     */
+    public void touch(String featureListURL) {
+        try {
+            Path cachePath = getCachePath(featureListURL);
+            Path metadataFile = cachePath.resolveSibling(cachePath.getFileName() + METADATA_SUFFIX);
+            if (Files.exists(metadataFile)) {
+                Properties metadata = readMetadata(metadataFile);
+                metadata.setProperty(FETCH_TIME, String.valueOf(System.currentTimeMillis()));
+                writeMetadata(metadataFile, metadata);
+            }
+        } catch (IOException e) {
+            LOGGER.warning("Unable to update cached feature list for " + featureListURL + ": " + e.getMessage());
+        }
+    }
+
+    private static Properties readMetadata(Path metadataFile) throws IOException {
+        Properties metadata = new Properties();
+        try (InputStream in = Files.newInputStream(metadataFile)) {
+            metadata.load(in);
+        }
+        return metadata;
+    }
+
+    private static void writeMetadata(Path metadataFile, Properties metadata) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        metadata.store(bytes, "Dfdl feature list cache");
+        CacheFileUtils.writeAtomically(metadataFile, bytes.toByteArray());
+    }
+
+    private static void delete(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            LOGGER.warning("Could not delete " + file + ": " + e.getMessage());
+        }
+    }
+}
@@ -1,35 +1,39 @@
 package com.nteligen.lemminx.dfdl.services;
 
-import java.io.BufferedReader;
+import java.io.FileNotFoundException;
 import java.io.IOException;
-import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.net.HttpURLConnection;
 import java.net.URL;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
 import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
 import java.util.logging.Logger;
 
-import javax.xml.bind.JAXBContext;
-import javax.xml.bind.JAXBException;
-import javax.xml.bind.Unmarshaller;
-
-import com.google.gson.Gson;
 import com.google.gson.JsonParseException;
 
-import org.eclipse.lemminx.uriresolver.CacheResourcesManager;
-import org.eclipse.lemminx.uriresolver.CacheResourcesManager.ResourceToDeploy;
+import org.eclipse.lsp4j.jsonrpc.CancelChecker;
 
 import com.nteligen.lemminx.dfdl.models.feature.Feature;
-import com.nteligen.lemminx.dfdl.models.feature.FeatureInfo;
-import com.nteligen.lemminx.dfdl.models.feature.WlpInformation;
+import com.nteligen.lemminx.dfdl.services.DfdlTracer.Span;
+import com.nteligen.lemminx.dfdl.services.FeatureDependencyGraph.Node;
+import com.nteligen.lemminx.dfdl.services.FeatureListCache.CachedFeatureList;
+import com.nteligen.lemminx.dfdl.util.CacheFileUtils;
 import com.nteligen.lemminx.dfdl.util.DfdlConstants;
 import com.nteligen.lemminx.dfdl.util.DfdlUtils;
+import com.nteligen.lemminx.dfdl.util.FeatureCatalogFile;
+import com.nteligen.lemminx.dfdl.util.FeatureJsonReader;
+import com.nteligen.lemminx.dfdl.util.FeatureManifestScanner;
 
 public class FeatureService {
 
@@ -38,149 +42,442 @@ public class FeatureService {
   // Singleton so that only 1 Feature Service can be initialized and is
   // shared between all Lemminx Language Feature Participants
 
-  private static FeatureService instance;
+  private static final FeatureService instance = new FeatureService();
 
   public static FeatureService getInstance() {
-    if (instance == null) {
-      instance = new FeatureService();
-    }
     return instance;
   }
 
-  // Cache of Dfdl version -> list of supported features
-  private Map<String, List<Feature>> featureCache;
-  private List<Feature> defaultFeatureList;
-  private long featureUpdateTime;
+  // Features of the default Dfdl version, precompiled from
+  // src/main/features by the build (see FeatureCatalogCompiler)
+  private static final String DEFAULT_FEATURE_CATALOG_CLASSPATH_LOCATION = "/features-"
+      + DfdlConstants.DEFAULT_SERVER_VERSION + ".catalog";
+  private static final String DEFAULT_FEATURE_CATALOG_URL = "https://github.com/OpenDfdl/Dfdl-language-server/blob/master/lemminx-Dfdl/src/main/features"
+      + DEFAULT_FEATURE_CATALOG_CLASSPATH_LOCATION;
+
+  // Timeouts (ms) for feature list requests to Maven
+  private static final int FETCH_CONNECT_TIMEOUT = 10000;
+  private static final int FETCH_READ_TIMEOUT = 30000;
+
+  // Age (ms) after which a feature list cached on disk is revalidated with Maven
+  private static final long FEATURE_LIST_MAX_AGE = 24 * 60 * 60 * 1000L;
+
+  // Cache of Dfdl version -> index of supported features. Completion, hover and
+  // diagnostics call in from several threads at once, so everything here is
+  // safe for concurrent use
+  private final Map<String, FeatureIndex> featureCache;
+  private final FeatureListCache featureListCache;
+  private final InstalledFeatureCache installedFeatureCache;
+  private volatile FeatureIndex defaultFeatureIndex;
+  // When each version may be fetched again, see FeatureFetchPolicy
+  private final FeatureFetchPolicy fetchPolicy;
+
+  // Feature list requests to Maven that are in flight, by Dfdl version
+  private final Map<String, CompletableFuture<FeatureIndex>> pendingFetches;
+  // Lock per Dfdl version, held while a version missing from the feature cache
+  // is loaded from disk or scheduled for fetching
+  private final Map<String, Object> versionLocks;
+  private final ExecutorService fetchExecutor;
+  private final List<Consumer<String>> featureListListeners;
+  // false to only use cached, installed and default feature lists
+  private volatile boolean remoteFetchEnabled = true;
+  private final DfdlMetrics metrics = DfdlMetrics.getInstance();
 
   private FeatureService() {
-    featureCache = new HashMap<>();
-    featureUpdateTime = -1;
+    featureCache = new ConcurrentHashMap<>();
+    featureListCache = new FeatureListCache();
+    installedFeatureCache = new InstalledFeatureCache(featureListCache);
+    fetchPolicy = new FeatureFetchPolicy();
+    pendingFetches = new ConcurrentHashMap<>();
+    versionLocks = new ConcurrentHashMap<>();
+    fetchExecutor = Executors.newCachedThreadPool(runnable -> {
+      Thread thread = new Thread(runnable, "dfdl-feature-fetch");
+      thread.setDaemon(true);
+      return thread;
+    });
+    featureListListeners = new CopyOnWriteArrayList<>();
   }
 
   /**
-   * Fetches information about Dfdl features from Maven repo
+   * Enables or disables fetching feature lists from Maven, ie. for headless
+   * validation on a machine without network access.
    *
-   * @param DfdlVersion - version of Dfdl to fetch features for
-   * @return list of features supported by the provided version of Dfdl
+   * @param remoteFetchEnabled - false to never contact the feature repository
    */
-  private List<Feature> fetchFeaturesForVersion(String DfdlVersion) throws IOException, JsonParseException {
-    String featureEndpoint = String.format(
-        "https://repo1.maven.org/maven2/io/openDfdl/features/features/%s/features-%s.json", DfdlVersion,
-        DfdlVersion);
-    InputStreamReader reader = new InputStreamReader(new URL(featureEndpoint).openStream());
+  public void setRemoteFetchEnabled(boolean remoteFetchEnabled) {
+    this.remoteFetchEnabled = remoteFetchEnabled;
+  }
 
-    // Only need the public features
-    ArrayList<Feature> publicFeatures = readPublicFeatures(reader);
+  public boolean isRemoteFetchEnabled() {
+    return remoteFetchEnabled;
+  }
 
-    LOGGER.fine("Returning public features from Maven: " + publicFeatures.size());
-    return publicFeatures;
+  /**
+   * Moves the disk cache of downloaded and installed feature lists, and of the
+   * default catalog if it is not loaded yet, ie. to a temporary directory for
+   * tests.
+   *
+   * @param cacheDirectory - directory to cache feature lists in, null for the
+   *          LemMinx cache
+   */
+  public void setFeatureListCacheDirectory(Path cacheDirectory) {
+    featureListCache.setCacheDirectory(cacheDirectory);
   }
 
   /**
-   * Returns the default feature list
+   * Registers a listener that is notified with the Dfdl version whenever the
+   * feature list of that version has been fetched in the background.
    *
-   * @return list of features supported by the default version of Dfdl
+   * @param listener - called on the fetch thread
    */
-  private List<Feature> getDefaultFeatureList() {
+  public void addFeatureListListener(Consumer<String> listener) {
+    featureListListeners.add(listener);
+  }
+
+  public void removeFeatureListListener(Consumer<String> listener) {
+    featureListListeners.remove(listener);
+  }
+
+  private static String getFeatureListURL(String DfdlVersion) {
+    return String.format("%s/io/openDfdl/features/features/%s/features-%s.json",
+        SettingsService.getInstance().getFeatureRepository(), DfdlVersion, DfdlVersion);
+  }
+
+  /**
+   * Fetches information about Dfdl features from Maven repo. If a cached copy
+   * of the feature list is given, the request is made conditional on it having
+   * changed. Downloaded feature lists are stored in the persistent cache.
+   *
+   * @param DfdlVersion - version of Dfdl to fetch features for
+   * @param cached - feature list cached on disk, or null
+   * @return features supported by the provided version of Dfdl, or null if the
+   *         cached copy is still up to date
+   */
+  private FeatureIndex fetchFeaturesForVersion(String DfdlVersion, CachedFeatureList cached)
+      throws IOException, JsonParseException {
+    String featureEndpoint = getFeatureListURL(DfdlVersion);
+    HttpURLConnection connection = (HttpURLConnection) new URL(featureEndpoint).openConnection();
+    connection.setConnectTimeout(FETCH_CONNECT_TIMEOUT);
+    connection.setReadTimeout(FETCH_READ_TIMEOUT);
+    if (cached != null) {
+      if (cached.getETag() != null) {
+        connection.setRequestProperty("If-None-Match", cached.getETag());
+      }
+      if (cached.getLastModified() != null) {
+        connection.setRequestProperty("If-Modified-Since", cached.getLastModified());
+      }
+    }
     try {
-      if (defaultFeatureList == null) {
-        InputStream is = getClass().getClassLoader().getResourceAsStream("features-20.0.0.9.json");
-        InputStreamReader reader = new InputStreamReader(is, StandardCharsets.UTF_8);
+      int responseCode = connection.getResponseCode();
+      if (cached != null && responseCode == HttpURLConnection.HTTP_NOT_MODIFIED) {
+        LOGGER.fine("Cached features are up to date for version: " + DfdlVersion);
+        featureListCache.touch(featureEndpoint);
+        return null;
+      }
+      if (responseCode == HttpURLConnection.HTTP_NOT_FOUND) {
+        throw new FileNotFoundException("No feature list published at " + featureEndpoint);
+      }
+      if (responseCode != HttpURLConnection.HTTP_OK) {
+        throw new FeatureListResponseException(responseCode, featureEndpoint);
+      }
+      FeatureIndex features;
+      try (InputStreamReader reader = new InputStreamReader(connection.getInputStream(),
+          StandardCharsets.UTF_8)) {
+        features = readFeatures(reader);
+      }
+      featureListCache.store(featureEndpoint, features, connection.getHeaderField("ETag"),
+          connection.getHeaderField("Last-Modified"));
+
+      LOGGER.fine("Returning features from Maven: " + features.size());
+      return features;
+    } finally {
+      connection.disconnect();
+    }
+  }
+
+  /**
+   * Starts fetching the feature list of the given version from Maven on a
+   * background thread, unless a fetch for that version is already in flight or
+   * the fetch policy holds it back after earlier failures. Once the
+   * fetch succeeds the feature list is cached and, if it changed, the listeners
+   * are notified. The fetch is put in the feature cache before it is removed
+   * from the pending fetches, so a caller that finds neither has to fetch.
+   *
+   * @param DfdlVersion - version of Dfdl to fetch features for
+   * @param requestDelay - time (seconds) to wait after a failed feature list request
+   * @param cached - feature list cached on disk to revalidate, or null
+   */
+  private void fetchFeaturesInBackground(String DfdlVersion, int requestDelay, CachedFeatureList cached) {
+    // called with the version lock held, so nobody else can start a fetch for
+    // this version in between these checks
+    if (!remoteFetchEnabled || pendingFetches.containsKey(DfdlVersion) || !fetchPolicy.tryAcquire(DfdlVersion)) {
+      return;
+    }
+    CompletableFuture<FeatureIndex> fetch = new CompletableFuture<>();
+    pendingFetches.put(DfdlVersion, fetch);
+    fetchExecutor.execute(() -> {
+      long start = System.nanoTime();
+      try (Span span = DfdlTracer.getInstance().span("fetchFeatures")) {
+        span.arg("version", DfdlVersion);
+        FeatureIndex features = fetchFeaturesForVersion(DfdlVersion, cached);
+        fetchPolicy.onSuccess(DfdlVersion);
+        if (features == null) {
+          // not modified
+          metrics.increment(DfdlMetrics.FETCH_NOT_MODIFIED);
+          fetch.complete(cached.getFeatures());
+          return;
+        }
+        metrics.increment(DfdlMetrics.FETCH_SUCCESS);
+        featureCache.put(DfdlVersion, features);
+        fetch.complete(features);
+        for (Consumer<String> listener : featureListListeners) {
+          listener.accept(DfdlVersion);
+        }
+      } catch (FileNotFoundException e) {
+        LOGGER.fine(e.getMessage());
+        metrics.increment(DfdlMetrics.FETCH_FAILURE);
+        fetchPolicy.onNotFound(DfdlVersion);
+        fetch.completeExceptionally(e);
+      } catch (Exception e) {
+        LOGGER.fine("Unable to fetch features for version " + DfdlVersion + ": " + e.getMessage());
+        // anything but an error response or a bad feature list means Maven
+        // could not be reached
+        boolean networkFailure = e instanceof IOException && !(e instanceof FeatureListResponseException);
+        metrics.increment(DfdlMetrics.FETCH_FAILURE);
+        fetchPolicy.onFailure(DfdlVersion, requestDelay, networkFailure);
+        fetch.completeExceptionally(e);
+      } finally {
+        metrics.record(DfdlMetrics.FEATURE_FETCH, start);
+        pendingFetches.remove(DfdlVersion, fetch);
+      }
+    });
+  }
 
-        // Only need the public features
-        defaultFeatureList = readPublicFeatures(reader);
+  /**
+   * @return true once the default feature index has been loaded, ie. by the
+   *         warm-up
+   */
+  public boolean isDefaultFeatureIndexLoaded() {
+    return defaultFeatureIndex != null;
+  }
+
+  /**
+   * Returns the default feature index, loading it the first time. Concurrent
+   * callers wait for the load in flight.
+   *
+   * @return index of features supported by the default version of Dfdl
+   */
+  public FeatureIndex getDefaultFeatureIndex() {
+    try {
+      FeatureIndex features = defaultFeatureIndex;
+      if (features == null) {
+        synchronized (this) {
+          features = defaultFeatureIndex;
+          if (features == null) {
+            features = FeatureIndex.of(loadDefaultFeatureCatalog());
+            defaultFeatureIndex = features;
+          }
+        }
       }
       LOGGER.fine("Returning default feature list");
-      return defaultFeatureList;
+      return features;
 
-    } catch (JsonParseException e) {
-      // unable to read json in resources file, return empty list
-      LOGGER.severe("Error: Unable to get default features.");
-      return defaultFeatureList;
+    } catch (IOException e) {
+      // unable to read the precompiled catalog, return empty index
+      LOGGER.severe("Error: Unable to get default features: " + e.getMessage());
+      return new FeatureIndex(new ArrayList<Feature>());
     }
   }
 
   /**
-   * Returns a list of public features
+   * Returns the precompiled catalog of the default Dfdl version, deployed to
+   * the feature list cache and memory-mapped from there.
    *
-   * @param reader - InputStreamReader for json feature list
-   * @return list of public features
+   * @return default feature catalog
    */
-  private ArrayList<Feature> readPublicFeatures(InputStreamReader reader) throws JsonParseException {
-    Feature[] featureList = new Gson().fromJson(reader, Feature[].class);
+  private FeatureCatalogFile loadDefaultFeatureCatalog() throws IOException {
+    return loadDefaultFeatureCatalog(featureListCache.getCachePath(DEFAULT_FEATURE_CATALOG_URL));
+  }
 
-    ArrayList<Feature> publicFeatures = new ArrayList<>();
-    Arrays.asList(featureList).stream()
-        .filter(f -> f.getWlpInformation().getVisibility().equals(DfdlConstants.PUBLIC_VISIBILITY))
-        .forEach(publicFeatures::add);
-    defaultFeatureList = publicFeatures;
-    return publicFeatures;
+  /**
+   * Deploys the precompiled catalog of the default Dfdl version to the given
+   * file and memory-maps it. lemminx only deploys missing files, so a catalog
+   * left there by another build of this extension, ie. in an older format, is
+   * replaced when its checksum differs from the bundled one. If the file
+   * cannot be written or mapped, the bundled catalog is read into memory.
+   *
+   * Declared public to be used by tests
+   *
+   * @param catalogCacheFile - catalog file in the cache
+   * @return default feature catalog
+   * @throws IOException if the bundled catalog cannot be read
+   */
+  public static FeatureCatalogFile loadDefaultFeatureCatalog(Path catalogCacheFile) throws IOException {
+    byte[] catalog = CacheFileUtils.readResource(DEFAULT_FEATURE_CATALOG_CLASSPATH_LOCATION);
+    try {
+      if (CacheFileUtils.deploy(catalogCacheFile, catalog)) {
+        LOGGER.info("Deployed default feature catalog to " + catalogCacheFile);
+      }
+      return FeatureCatalogFile.map(catalogCacheFile);
+    } catch (IOException e) {
+      LOGGER.warning("Unable to map default feature catalog from " + catalogCacheFile + ": " + e.getMessage());
+    }
+    return FeatureCatalogFile.wrap(catalog);
   }
 
   /**
-   * Returns the Dfdl features corresponding to the Dfdl version. First
-   * attempts to fetch the feature list from Maven, otherwise falls back to the
-   * list of installed features. If the installed features list cannot be
-   * gathered, falls back to the default feature list.
+   * Returns the index of a json feature list. The json is streamed entry by
+   * entry so that unused fields are never materialized, and non public
+   * features are only kept as dependency graph nodes.
+   *
+   * @param reader - InputStreamReader for json feature list
+   * @return index of the features
+   */
+  private FeatureIndex readFeatures(InputStreamReader reader) throws JsonParseException {
+    List<Node> nonPublicFeatures = new ArrayList<>();
+    List<Feature> features = FeatureJsonReader.readFeatures(reader, nonPublicFeatures);
+    return new FeatureIndex(features, nonPublicFeatures);
+  }
+
+  /**
+   * Returns the index of the Dfdl features corresponding to the Dfdl version.
+   * Returns the feature list fetched from Maven if it has been cached, in memory
+   * or on disk, otherwise starts fetching it in the background and falls back to
+   * the list of installed features. If the installed features list cannot be
+   * gathered, falls back to the default feature list. Never waits for Maven.
+   * Concurrent calls for the same version share one disk load and one fetch.
    * 
    * @param DfdlVersion Dfdl version (corrsponds to XML document)
-   * @param requestDelay Time to wait in between feature list requests to Maven
+   * @param requestDelay Time to wait after a failed feature list request to Maven
    * @param documentURI Dfdl XML document
-   * @return List of possible features
+   * @return Index of possible features
    */
-  public List<Feature> getFeatures(String DfdlVersion, int requestDelay, String documentURI) {
-    LOGGER.fine("Getting features for version: " + DfdlVersion);
-    // if the features are already cached in the feature cache
-    if (featureCache.containsKey(DfdlVersion)) {
-      return featureCache.get(DfdlVersion);
-    }
+  public FeatureIndex getFeatureIndex(String DfdlVersion, int requestDelay, String documentURI) {
+    return getFeatureIndex(DfdlVersion, requestDelay, documentURI, null);
+  }
 
-    // else need to fetch the features from maven central
-    try {
-      // verify that request delay (seconds) has gone by since last fetch request
-      long currentTime = System.currentTimeMillis();
-      if (this.featureUpdateTime == -1 || currentTime >= (this.featureUpdateTime + (requestDelay * 1000))) {
-        List<Feature> features = fetchFeaturesForVersion(DfdlVersion);
-        featureCache.put(DfdlVersion, features);
-        this.featureUpdateTime = System.currentTimeMillis();
-        return features;
+  /**
+   * Returns the index of the Dfdl features corresponding to the Dfdl version,
+   * see {@link #getFeatureIndex(String, int, String)}, checking for cancellation
+   * of the request in between steps and while the installed features are read.
+   *
+   * @param DfdlVersion Dfdl version (corrsponds to XML document)
+   * @param requestDelay Time to wait after a failed feature list request to Maven
+   * @param documentURI Dfdl XML document
+   * @param cancelChecker checker of the request, may be null
+   * @return Index of possible features
+   * @throws CancellationException if the request was cancelled
+   */
+  public FeatureIndex getFeatureIndex(String DfdlVersion, int requestDelay, String documentURI,
+      CancelChecker cancelChecker) {
+    LOGGER.fine("Getting features for version: " + DfdlVersion);
+    if (DfdlVersion != null) {
+      // if the features are already cached in the feature cache
+      FeatureIndex cachedFeatures = featureCache.get(DfdlVersion);
+      if (cachedFeatures != null) {
+        metrics.increment(DfdlMetrics.FEATURES_CACHE_HIT);
+        return cachedFeatures;
       }
-    } catch (Exception e) {
-      // do nothing, continue on to returning default feature list
+      cachedFeatures = loadFeatureIndex(DfdlVersion, requestDelay);
+      if (cachedFeatures != null) {
+        return cachedFeatures;
+      }
+      metrics.increment(DfdlMetrics.FEATURES_CACHE_MISS);
     }
 
     // fetch installed features list
-    List<Feature> installedFeatures = getInstalledFeaturesList(documentURI);
+    checkCanceled(cancelChecker);
+    FeatureIndex installedFeatures = getInstalledFeatureIndex(documentURI, cancelChecker);
     if (installedFeatures.size() != 0) {
+      metrics.increment(DfdlMetrics.FEATURES_INSTALLED_FALLBACK);
       return installedFeatures;
     }
 
-
     // return default feature list
-    List<Feature> defaultFeatures = getDefaultFeatureList(); 
-    return defaultFeatures;
+    metrics.increment(DfdlMetrics.FEATURES_DEFAULT_FALLBACK);
+    return getDefaultFeatureIndex();
+  }
+
+  /**
+   * Loads the features of a version missing from the feature cache, one thread
+   * per version at a time: from the disk cache if a previous session stored
+   * them, revalidated in the background once they get old, or else by starting
+   * a background fetch from Maven.
+   *
+   * @param DfdlVersion - Dfdl version
+   * @param requestDelay - time (seconds) to wait after a failed feature list request
+   * @return cached features, or null if they are being fetched
+   */
+  private FeatureIndex loadFeatureIndex(String DfdlVersion, int requestDelay) {
+    synchronized (versionLocks.computeIfAbsent(DfdlVersion, version -> new Object())) {
+      // a fetch in flight puts its result in the feature cache before it
+      // completes, so check for it first
+      if (pendingFetches.containsKey(DfdlVersion)) {
+        return featureCache.get(DfdlVersion);
+      }
+      FeatureIndex cachedFeatures = featureCache.get(DfdlVersion);
+      if (cachedFeatures != null) {
+        metrics.increment(DfdlMetrics.FEATURES_CACHE_HIT);
+        return cachedFeatures;
+      }
+
+      CachedFeatureList diskCachedFeatures = featureListCache.load(getFeatureListURL(DfdlVersion));
+      if (diskCachedFeatures != null) {
+        metrics.increment(DfdlMetrics.FEATURES_DISK_CACHE_HIT);
+        featureCache.put(DfdlVersion, diskCachedFeatures.getFeatures());
+        if (System.currentTimeMillis() - diskCachedFeatures.getFetchTime() > FEATURE_LIST_MAX_AGE) {
+          fetchFeaturesInBackground(DfdlVersion, requestDelay, diskCachedFeatures);
+        }
+        return diskCachedFeatures.getFeatures();
+      }
+
+      // else fetch the features from maven central in the background, the
+      // caller answers with the best list available right now
+      fetchFeaturesInBackground(DfdlVersion, requestDelay, null);
+      return null;
+    }
+  }
+
+  /**
+   * Returns the features of a version if they are in the memory or disk cache,
+   * without waiting for a fetch; like a request, starts fetching them in the
+   * background if they are not cached and fetching is enabled.
+   *
+   * @param DfdlVersion - Dfdl version
+   * @return cached features, or null if the version is not cached
+   */
+  public FeatureIndex getCachedFeatureIndex(String DfdlVersion) {
+    return loadFeatureIndex(DfdlVersion, SettingsService.getInstance().getRequestDelay());
+  }
+
+  /**
+   * Returns the Dfdl features corresponding to the Dfdl version, see
+   * {@link #getFeatureIndex(String, int, String)}.
+   */
+  public List<Feature> getFeatures(String DfdlVersion, int requestDelay, String documentURI) {
+    return getFeatureIndex(DfdlVersion, requestDelay, documentURI).getFeatures();
   }
 
   public Optional<Feature> getFeature(String featureName, String DfdlVersion, int requestDelay, String documentURI) {
-    List<Feature> features = getFeatures(DfdlVersion, requestDelay, documentURI);
-    return features.stream().filter(f -> f.getWlpInformation().getShortName().equalsIgnoreCase(featureName))
-        .findFirst();
+    return getFeatureIndex(DfdlVersion, requestDelay, documentURI).getFeature(featureName);
   }
 
   public boolean featureExists(String featureName, String DfdlVersion, int requestDelay, String documentURI) {
-    return this.getFeature(featureName, DfdlVersion, requestDelay, documentURI).isPresent();
+    return getFeatureIndex(DfdlVersion, requestDelay, documentURI).featureExists(featureName);
   }
 
   /**
-   * Returns the list of installed features generated from ws-featurelist.jar.
-   * Generated feature list is stored in the LemMinx cache. Returns an empty list
-   * if cannot determine installed feature list.
+   * Returns the index of installed features read from the feature manifests of
+   * the Dfdl installation in the workspace. Generated feature list is stored in
+   * the workspace. Returns an empty index if cannot determine installed feature
+   * list.
    * 
    * @param documentURI xml document
-   * @return list of installed features, or empty list
+   * @param cancelChecker checker of the request, may be null
+   * @return index of installed features, or empty index
    */
-  private List<Feature> getInstalledFeaturesList(String documentURI) {
-    List<Feature> installedFeatures = new ArrayList<Feature>();
+  private FeatureIndex getInstalledFeatureIndex(String documentURI, CancelChecker cancelChecker) {
+    FeatureIndex installedFeatures = new FeatureIndex(new ArrayList<Feature>());
     try {
       DfdlWorkspace DfdlWorkspace = DfdlProjectsManager.getInstance().getWorkspaceFolder(documentURI);
       if (DfdlWorkspace == null || DfdlWorkspace.getURI() == null) {
@@ -188,48 +485,18 @@ public class FeatureService {
       }
 
       // return installed features from cache
-      if (DfdlWorkspace.getInstalledFeatureList().size() != 0) {
-        return DfdlWorkspace.getInstalledFeatureList();
+      if (DfdlWorkspace.getInstalledFeatureIndex().size() != 0) {
+        return DfdlWorkspace.getInstalledFeatureIndex();
       }
 
-      Path featureListJAR = DfdlUtils.findFileInWorkspace(documentURI, "ws-featurelist.jar");
-
-      if (featureListJAR != null && featureListJAR.toFile().exists()) {
-
-        // creating featurelist.xml file in cache
-        String XSD_RESOURCE_URL = "https://github.com/OpenDfdl/Dfdl-language-server/blob/master/lemminx-Dfdl/src/main/resources/schema/xsd/Dfdl/featurelist.xml";
-        String XSD_CLASSPATH_LOCATION = "/schema/xsd/Dfdl/featurelist.xml";
-        ResourceToDeploy FEATURE_LIST_RESOURCE = new ResourceToDeploy(XSD_RESOURCE_URL, XSD_CLASSPATH_LOCATION);
-        Path featureListCacheFile = CacheResourcesManager.getResourceCachePath(FEATURE_LIST_RESOURCE);
-
-        if (featureListCacheFile.toFile().exists()) {
-          String[] cmd = { "java", "-jar", featureListJAR.toAbsolutePath().toString(),
-          featureListCacheFile.toAbsolutePath().toString() };
-  
-          Process proc = Runtime.getRuntime().exec(cmd);
-          BufferedReader in = new BufferedReader(new InputStreamReader(proc.getInputStream()));
-          while (in.readLine() != null) {
-            // read input from file
-          }
-  
-          JAXBContext jaxbContext = JAXBContext.newInstance(FeatureInfo.class);
-          Unmarshaller jaxbUnmarshaller = jaxbContext.createUnmarshaller();
-          FeatureInfo featureInfo = (FeatureInfo) jaxbUnmarshaller.unmarshal(featureListCacheFile.toFile());
-          if (featureInfo.getFeatures().size() > 0) {
-            for (int i = 0; i < featureInfo.getFeatures().size(); i++) {
-              Feature f = featureInfo.getFeatures().get(i);
-              f.setShortDescription(f.getDescription());
-              WlpInformation wlpInfo = new WlpInformation(f.getName());
-              f.setWlpInformation(wlpInfo);
-            }
-            installedFeatures = featureInfo.getFeatures();
-            DfdlWorkspace.setInstalledFeatureList(installedFeatures);
-          }
-        } else {
-          LOGGER.warning("Unable to load installed features into LemMinx cache, file does not exist:" + featureListCacheFile.toAbsolutePath());
+      // only one thread per workspace generates the installed features list
+      synchronized (DfdlWorkspace) {
+        if (DfdlWorkspace.getInstalledFeatureIndex().size() != 0) {
+          return DfdlWorkspace.getInstalledFeatureIndex();
         }
+        installedFeatures = generateInstalledFeatureIndex(DfdlWorkspace, documentURI, cancelChecker);
       }
-    } catch (IOException | JAXBException e) {
+    } catch (IOException e) {
       LOGGER.warning("Unable to get installed features: " + e);
     }
 
@@ -237,4 +504,48 @@ public class FeatureService {
     return installedFeatures;
   }
 
+  /**
+   * Generates the installed features list of a workspace by reading the feature
+   * manifests of its Dfdl installation, unless the list of that installation is
+   * cached, and stores it in the workspace.
+   *
+   * @param DfdlWorkspace workspace of the xml document
+   * @param documentURI xml document
+   * @param cancelChecker checker of the request, may be null
+   * @return index of installed features, or empty index
+   */
+  private FeatureIndex generateInstalledFeatureIndex(DfdlWorkspace DfdlWorkspace, String documentURI,
+      CancelChecker cancelChecker) throws IOException {
+    FeatureIndex installedFeatures = new FeatureIndex(new ArrayList<Feature>());
+    Path propertiesFile = DfdlUtils.findFileInWorkspace(documentURI, DfdlConstants.PROPERTIES_FILE, cancelChecker);
+    Path installationRoot = propertiesFile != null ? FeatureManifestScanner.getInstallationRoot(propertiesFile) : null;
+
+    if (installationRoot != null) {
+      FeatureIndex features = installedFeatureCache.getInstalledFeatures(propertiesFile, installationRoot,
+          cancelChecker);
+      if (features.size() > 0) {
+        DfdlWorkspace.setInstalledFeatureIndex(features);
+        installedFeatures = features;
+      }
+    }
+    return installedFeatures;
+  }
+
+  private static void checkCanceled(CancelChecker cancelChecker) {
+    if (cancelChecker != null) {
+      cancelChecker.checkCanceled();
+    }
+  }
+
+  /**
+   * Error response, other than 404, from the feature repository.
+   */
+  private static class FeatureListResponseException extends IOException {
+    private static final long serialVersionUID = 1L;
+
+    FeatureListResponseException(int responseCode, String featureEndpoint) {
+      super("Unexpected response " + responseCode + " from " + featureEndpoint);
+    }
+  }
+
 }
@@ -0,0 +1,226 @@
+package com.nteligen.lemminx.dfdl.services;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.nteligen.lemminx.dfdl.services.DfdlTracer.Span;
+import com.nteligen.lemminx.dfdl.services.FeatureDependencyGraph.Conflict;
+
+/**
+ * Validation of the feature entries of the <featureManager> block of one
+ * document against one feature index, kept from one validation to the next.
+ * Each entry remembers the result of its check by text, so that an edit only
+ * checks the entries it adds or changes: entries left untouched before and
+ * after the edit are kept as they are, and entries that were moved are taken
+ * back by text. The number of entries of each feature is updated for the
+ * changed entries only, and the singleton conflicts are only searched again
+ * when the included features change.
+ */
+public class FeatureValidation {
+
+    /**
+     * Problem found with one feature entry.
+     */
+    public static final class Problem {
+        private final int entry;
+        private final String message;
+
+        Problem(int entry, String message) {
+            this.entry = entry;
+            this.message = message;
+        }
+
+        /**
+         * @return position of the entry, in the feature names given to
+         *         {@link FeatureValidation#validate}
+         */
+        public int getEntry() {
+            return entry;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+    }
+
+    /**
+     * Checked feature entry, reused while its text is unchanged.
+     */
+    private static final class Entry {
+        final String name;
+        // message of the entry if the feature does not exist, null otherwise
+        final String unknownMessage;
+        // node of the feature in the dependency graph, -1 if it has none
+        final int ordinal;
+
+        Entry(String name, String unknownMessage, int ordinal) {
+            this.name = name;
+            this.unknownMessage = unknownMessage;
+            this.ordinal = ordinal;
+        }
+    }
+
+    private final FeatureIndex featureIndex;
+    private List<Entry> entries = new ArrayList<>();
+    // feature name -> number of entries of that feature, for features that exist
+    private final Map<String, Integer> entryCounts = new HashMap<>();
+    // graph ordinals of the features included last, and their conflicts
+    private int[] includedOrdinals = new int[0];
+    private List<Conflict> conflicts = Collections.emptyList();
+    private int checks;
+    private int conflictSearches;
+
+    /**
+     * @param featureIndex features of the Dfdl version of the document
+     */
+    public FeatureValidation(FeatureIndex featureIndex) {
+        this.featureIndex = featureIndex;
+    }
+
+    public FeatureIndex getFeatureIndex() {
+        return featureIndex;
+    }
+
+    /**
+     * Validates the feature entries of the block: features that do not exist,
+     * features that are already included and features that cannot be used
+     * together.
+     *
+     * @param featureNames text of each feature entry, in document order
+     * @return problems, in entry order, followed by the conflicts
+     */
+    public synchronized List<Problem> validate(List<String> featureNames) {
+        update(featureNames);
+
+        List<Problem> problems = new ArrayList<>();
+        // names of features with several entries, the first of which is included
+        Set<String> includedDuplicates = new HashSet<>();
+        int[] ordinals = new int[entries.size()];
+        int[] ordinalEntries = new int[entries.size()];
+        int ordinalCount = 0;
+        for (int i = 0; i < entries.size(); i++) {
+            Entry entry = entries.get(i);
+            if (entry.unknownMessage != null) {
+                problems.add(new Problem(i, entry.unknownMessage));
+                continue;
+            }
+            if (entryCounts.get(entry.name) > 1 && !includedDuplicates.add(entry.name)) {
+                problems.add(new Problem(i, "ERROR: " + entry.name + " is already included."));
+                continue;
+            }
+            if (entry.ordinal != -1) {
+                ordinals[ordinalCount] = entry.ordinal;
+                ordinalEntries[ordinalCount++] = i;
+            }
+        }
+
+        // Search for singleton features of which two versions are enabled,
+        // directly or through the features they require
+        ordinals = Arrays.copyOf(ordinals, ordinalCount);
+        if (!Arrays.equals(ordinals, includedOrdinals)) {
+            conflictSearches++;
+            try (Span span = DfdlTracer.getInstance().span("findConflicts")) {
+                conflicts = featureIndex.getDependencyGraph().findConflicts(ordinals);
+            }
+            includedOrdinals = ordinals;
+        }
+        Set<Integer> conflictingEntries = new HashSet<>();
+        for (Conflict conflict : conflicts) {
+            int first = ordinalEntries[conflict.getFirstRoot()];
+            int second = ordinalEntries[conflict.getSecondRoot()];
+            int last = Math.max(first, second);
+            // one problem per entry is enough, ie. for cdi-1.2 and servlet-4.0
+            // that conflict on several Java EE versions
+            if (!conflictingEntries.add(last)) {
+                continue;
+            }
+            String message = "ERROR: " + entries.get(first).name + " and " + entries.get(second).name
+                    + " cannot be used together: they enable " + conflict.getFirstFeature() + " and "
+                    + conflict.getSecondFeature() + ", conflicting versions of a singleton feature.";
+            problems.add(new Problem(last, message));
+        }
+        return problems;
+    }
+
+    /**
+     * @return number of feature entries checked against the feature index
+     */
+    public synchronized int getChecks() {
+        return checks;
+    }
+
+    /**
+     * @return number of times the singleton conflicts were searched
+     */
+    public synchronized int getConflictSearches() {
+        return conflictSearches;
+    }
+
+    /**
+     * Replaces the entries validated last by the given ones, checking only the
+     * entries that are not found among them.
+     */
+    private void update(List<String> featureNames) {
+        int common = Math.min(entries.size(), featureNames.size());
+        int prefix = 0;
+        while (prefix < common && entries.get(prefix).name.equals(featureNames.get(prefix))) {
+            prefix++;
+        }
+        if (prefix == entries.size() && prefix == featureNames.size()) {
+            return;
+        }
+        int suffix = 0;
+        while (suffix < common - prefix && entries.get(entries.size() - 1 - suffix).name
+                .equals(featureNames.get(featureNames.size() - 1 - suffix))) {
+            suffix++;
+        }
+
+        // entries in between were changed, removed or moved
+        Map<String, Deque<Entry>> replacedEntries = new HashMap<>();
+        for (int i = prefix; i < entries.size() - suffix; i++) {
+            Entry entry = entries.get(i);
+            replacedEntries.computeIfAbsent(entry.name, name -> new ArrayDeque<>()).add(entry);
+            uncount(entry);
+        }
+        List<Entry> updatedEntries = new ArrayList<>(featureNames.size());
+        updatedEntries.addAll(entries.subList(0, prefix));
+        for (int i = prefix; i < featureNames.size() - suffix; i++) {
+            String featureName = featureNames.get(i);
+            Deque<Entry> movedEntries = replacedEntries.get(featureName);
+            Entry entry = movedEntries != null && !movedEntries.isEmpty() ? movedEntries.poll() : check(featureName);
+            count(entry);
+            updatedEntries.add(entry);
+        }
+        updatedEntries.addAll(entries.subList(entries.size() - suffix, entries.size()));
+        entries = updatedEntries;
+    }
+
+    private Entry check(String featureName) {
+        checks++;
+        // user defined features are not in the feature list
+        if (featureName.startsWith("usr:") || featureIndex.featureExists(featureName)) {
+            return new Entry(featureName, null, featureIndex.getDependencyGraph().getOrdinal(featureName));
+        }
+        return new Entry(featureName, "ERROR: The feature \"" + featureName + "\" does not exist.", -1);
+    }
+
+    private void count(Entry entry) {
+        if (entry.unknownMessage == null) {
+            entryCounts.merge(entry.name, 1, Integer::sum);
+        }
+    }
+
+    private void uncount(Entry entry) {
+        if (entry.unknownMessage == null) {
+            entryCounts.computeIfPresent(entry.name, (name, count) -> count > 1 ? count - 1 : null);
+        }
+    }
+}
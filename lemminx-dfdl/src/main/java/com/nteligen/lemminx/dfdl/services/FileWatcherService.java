@@ -0,0 +1,209 @@
+package com.nteligen.lemminx.dfdl.services;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.logging.Logger;
+
+/**
+ * Watches directories for the whole language server with a single watch
+ * service and a single daemon thread that blocks until something changes.
+ * Directories are registered on demand; registering a directory that is
+ * already watched only adds a listener. Listeners are called on the watcher
+ * thread and must not block.
+ */
+public class FileWatcherService {
+
+    private static final Logger LOGGER = Logger.getLogger(FileWatcherService.class.getName());
+
+    // Singleton so that only 1 watch service and thread are used however many
+    // workspaces and installations are watched
+
+    private static final FileWatcherService INSTANCE = new FileWatcherService();
+
+    public static FileWatcherService getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Called when an entry of a watched directory changes.
+     */
+    public interface FileWatchListener {
+        /**
+         * @param path changed entry, or the watched directory itself when it was
+         *             deleted (ENTRY_DELETE) or events were lost (OVERFLOW)
+         * @param kind ENTRY_CREATE, ENTRY_DELETE, ENTRY_MODIFY or OVERFLOW
+         */
+        void onChange(Path path, WatchEvent.Kind<?> kind);
+    }
+
+    /**
+     * Registration of a listener for a directory, closed to stop listening.
+     */
+    public final class Registration implements AutoCloseable {
+        private final Path directory;
+        private final FileWatchListener listener;
+
+        private Registration(Path directory, FileWatchListener listener) {
+            this.directory = directory;
+            this.listener = listener;
+        }
+
+        public Path getDirectory() {
+            return directory;
+        }
+
+        @Override
+        public void close() {
+            unregister(this);
+        }
+    }
+
+    private static class WatchedDirectory {
+        final Path directory;
+        final WatchKey watchKey;
+        final List<Registration> registrations = new CopyOnWriteArrayList<>();
+
+        WatchedDirectory(Path directory, WatchKey watchKey) {
+            this.directory = directory;
+            this.watchKey = watchKey;
+        }
+    }
+
+    // guarded by this
+    private WatchService watcher;
+    private Thread thread;
+    private final Map<Path, WatchedDirectory> directories = new HashMap<>();
+    private final Map<WatchKey, WatchedDirectory> directoriesByKey = new HashMap<>();
+
+    private FileWatcherService() {
+    }
+
+    /**
+     * Starts calling the listener for changes to the entries of the directory.
+     *
+     * @param directory directory to watch
+     * @param listener  called on the watcher thread
+     * @return registration to close once no longer interested
+     * @throws IOException if the directory cannot be watched
+     */
+    public synchronized Registration register(Path directory, FileWatchListener listener) throws IOException {
+        Path key = directory.toAbsolutePath().normalize();
+        WatchedDirectory watchedDirectory = directories.get(key);
+        if (watchedDirectory == null) {
+            if (watcher == null) {
+                start();
+            }
+            WatchKey watchKey = key.register(watcher, ENTRY_CREATE, ENTRY_DELETE, ENTRY_MODIFY);
+            watchedDirectory = new WatchedDirectory(key, watchKey);
+            directories.put(key, watchedDirectory);
+            directoriesByKey.put(watchKey, watchedDirectory);
+        }
+        Registration registration = new Registration(key, listener);
+        watchedDirectory.registrations.add(registration);
+        return registration;
+    }
+
+    /**
+     * Stops watching all directories and stops the watcher thread. Directories
+     * registered later are watched by a new thread.
+     */
+    public synchronized void shutdown() {
+        if (watcher == null) {
+            return;
+        }
+        try {
+            watcher.close();
+        } catch (IOException e) {
+            LOGGER.fine("Unable to close watch service: " + e.getMessage());
+        }
+        thread.interrupt();
+        watcher = null;
+        thread = null;
+        directories.clear();
+        directoriesByKey.clear();
+    }
+
+    public synchronized int getWatchedDirectoryCount() {
+        return directories.size();
+    }
+
+    private synchronized void unregister(Registration registration) {
+        WatchedDirectory watchedDirectory = directories.get(registration.directory);
+        if (watchedDirectory == null || !watchedDirectory.registrations.remove(registration)) {
+            return;
+        }
+        if (watchedDirectory.registrations.isEmpty()) {
+            watchedDirectory.watchKey.cancel();
+            directories.remove(watchedDirectory.directory);
+            directoriesByKey.remove(watchedDirectory.watchKey);
+        }
+    }
+
+    private void start() throws IOException {
+        WatchService newWatcher = FileSystems.getDefault().newWatchService();
+        Thread newThread = new Thread(() -> run(newWatcher), "dfdl-file-watcher");
+        newThread.setDaemon(true);
+        watcher = newWatcher;
+        thread = newThread;
+        newThread.start();
+    }
+
+    private void run(WatchService watcher) {
+        try {
+            while (true) {
+                WatchKey watchKey = watcher.take();
+                WatchedDirectory watchedDirectory;
+                synchronized (this) {
+                    watchedDirectory = directoriesByKey.get(watchKey);
+                }
+                List<WatchEvent<?>> events = watchKey.pollEvents();
+                boolean valid = watchKey.reset();
+                if (watchedDirectory == null) {
+                    continue;
+                }
+                for (WatchEvent<?> event : events) {
+                    if (event.kind() == OVERFLOW) {
+                        notify(watchedDirectory, watchedDirectory.directory, OVERFLOW);
+                    } else {
+                        notify(watchedDirectory, watchedDirectory.directory.resolve((Path) event.context()),
+                                event.kind());
+                    }
+                }
+                if (!valid) {
+                    // the directory itself was deleted
+                    synchronized (this) {
+                        directories.remove(watchedDirectory.directory, watchedDirectory);
+                        directoriesByKey.remove(watchKey);
+                    }
+                    notify(watchedDirectory, watchedDirectory.directory, ENTRY_DELETE);
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // shut down
+        }
+    }
+
+    private static void notify(WatchedDirectory watchedDirectory, Path path, WatchEvent.Kind<?> kind) {
+        for (Registration registration : watchedDirectory.registrations) {
+            try {
+                registration.listener.onChange(path, kind);
+            } catch (RuntimeException e) {
+                LOGGER.warning("File watch listener failed for " + path + ": " + e);
+            }
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.nteligen.lemminx.dfdl.services;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+import org.eclipse.lsp4j.jsonrpc.CancelChecker;
+
+import com.nteligen.lemminx.dfdl.models.feature.Feature;
+import com.nteligen.lemminx.dfdl.services.DfdlTracer.Span;
+import com.nteligen.lemminx.dfdl.services.FeatureListCache.CachedFeatureList;
+import com.nteligen.lemminx.dfdl.util.CacheFileUtils;
+import com.nteligen.lemminx.dfdl.util.FeatureManifestScanner;
+
+/**
+ * Cache of the installed features of Dfdl installations, keyed by a
+ * fingerprint of the installation: the content of its openDfdl.properties and
+ * the name, size and modification time of the manifests of its feature
+ * directories. Lists are kept in memory, so that all workspaces using an
+ * installation share one index, and on disk through a
+ * {@link FeatureListCache}, so that they survive restarts. An
+ * installation is only scanned again once its fingerprint changes, ie. when it
+ * is upgraded or features are installed or removed.
+ */
+public class InstalledFeatureCache {
+
+    private static final Logger LOGGER = Logger.getLogger(InstalledFeatureCache.class.getName());
+
+    // Bumped when the scanner output changes, so that older entries are not used
+    private static final int FINGERPRINT_VERSION = 3;
+
+    // Cache location of the list with a given fingerprint, in the LemMinx cache
+    private static final String INSTALLED_FEATURES_URL = "https://github.com/OpenDfdl/Dfdl-language-server/installed-features/";
+
+    private static final String[] FEATURE_DIRECTORIES = { "lib/features", "usr/extension/lib/features" };
+
+    private final FeatureListCache featureListCache;
+
+    // fingerprint -> installed features
+    private final Map<String, FeatureIndex> installedFeatures = new ConcurrentHashMap<>();
+    // installation root -> fingerprint of its current entry, so that upgraded
+    // installations do not leave their old lists behind in memory
+    private final Map<Path, String> fingerprints = new ConcurrentHashMap<>();
+    private final Map<String, Object> fingerprintLocks = new ConcurrentHashMap<>();
+    private final AtomicInteger scans = new AtomicInteger();
+
+    public InstalledFeatureCache() {
+        this(new FeatureListCache());
+    }
+
+    public InstalledFeatureCache(FeatureListCache featureListCache) {
+        this.featureListCache = featureListCache;
+    }
+
+    /**
+     * Returns the installed features of an installation, scanning it only if
+     * neither the memory nor the disk cache has a list for its fingerprint.
+     *
+     * @param propertiesFile   openDfdl.properties of the installation
+     * @param installationRoot root of the installation
+     * @return index of installed features
+     * @throws IOException if the installation cannot be read
+     */
+    public FeatureIndex getInstalledFeatures(Path propertiesFile, Path installationRoot) throws IOException {
+        return getInstalledFeatures(propertiesFile, installationRoot, null);
+    }
+
+    /**
+     * See {@link #getInstalledFeatures(Path, Path)}, giving up on a scan as soon
+     * as the request is cancelled.
+     *
+     * @param propertiesFile   openDfdl.properties of the installation
+     * @param installationRoot root of the installation
+     * @param cancelChecker    checker of the request, may be null
+     * @return index of installed features
+     * @throws IOException if the installation cannot be read
+     */
+    public FeatureIndex getInstalledFeatures(Path propertiesFile, Path installationRoot,
+            CancelChecker cancelChecker) throws IOException {
+        String fingerprint = fingerprint(propertiesFile, installationRoot);
+        FeatureIndex features = installedFeatures.get(fingerprint);
+        if (features != null) {
+            return features;
+        }
+
+        // only one thread per installation loads or scans it
+        synchronized (fingerprintLocks.computeIfAbsent(fingerprint, key -> new Object())) {
+            features = installedFeatures.get(fingerprint);
+            if (features != null) {
+                return features;
+            }
+            String cacheURL = INSTALLED_FEATURES_URL + fingerprint;
+            CachedFeatureList cachedFeatures = featureListCache.load(cacheURL);
+            if (cachedFeatures != null) {
+                LOGGER.fine("Using cached installed features of " + installationRoot);
+                features = cachedFeatures.getFeatures();
+            } else {
+                scans.incrementAndGet();
+                long start = System.nanoTime();
+                List<Feature> scannedFeatures;
+                try (Span span = DfdlTracer.getInstance().span("scanInstallation")) {
+                    span.arg("installation", installationRoot.toString());
+                    scannedFeatures = FeatureManifestScanner.scan(installationRoot, cancelChecker);
+                }
+                DfdlMetrics.getInstance().record(DfdlMetrics.INSTALLATION_SCAN, start);
+                features = new FeatureIndex(scannedFeatures);
+                featureListCache.store(cacheURL, features, null, null);
+            }
+            installedFeatures.put(fingerprint, features);
+        }
+
+        String previousFingerprint = fingerprints.put(installationRoot.toAbsolutePath().normalize(), fingerprint);
+        if (previousFingerprint != null && !previousFingerprint.equals(fingerprint)) {
+            installedFeatures.remove(previousFingerprint);
+            fingerprintLocks.remove(previousFingerprint);
+        }
+        return features;
+    }
+
+    /**
+     * @return number of times an installation was scanned
+     */
+    public int getScans() {
+        return scans.get();
+    }
+
+    /**
+     * Fingerprints an installation from the content of its properties file and
+     * the name, size and modification time of each manifest of its feature
+     * directories. Installing or removing a feature adds or removes a manifest,
+     * and updating one in place changes its size or modification time. The
+     * manifests are only listed, not read.
+     */
+    static String fingerprint(Path propertiesFile, Path installationRoot) throws IOException {
+        MessageDigest digest = CacheFileUtils.newSha256Digest();
+        digest.update(String.valueOf(FINGERPRINT_VERSION).getBytes(StandardCharsets.UTF_8));
+        digest.update(Files.readAllBytes(propertiesFile));
+        for (String featureDirectory : FEATURE_DIRECTORIES) {
+            Path directory = installationRoot.resolve(featureDirectory);
+            StringBuilder state = new StringBuilder(featureDirectory).append(':');
+            if (Files.isDirectory(directory)) {
+                // listing order is not stable
+                List<Path> manifests = new ArrayList<>();
+                try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*.mf")) {
+                    for (Path manifest : stream) {
+                        manifests.add(manifest);
+                    }
+                }
+                Collections.sort(manifests);
+                for (Path manifest : manifests) {
+                    BasicFileAttributes attributes = Files.readAttributes(manifest, BasicFileAttributes.class);
+                    state.append(manifest.getFileName()).append(':').append(attributes.size()).append(':')
+                            .append(attributes.lastModifiedTime().toMillis()).append(';');
+                }
+            }
+            digest.update(state.toString().getBytes(StandardCharsets.UTF_8));
+        }
+        return CacheFileUtils.toHex(digest.digest());
+    }
+}
@@ -1,7 +1,11 @@
-package io.openliberty.lemminx.liberty.services;
+package com.nteligen.lemminx.dfdl.services;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.eclipse.lemminx.utils.JSONUtility;
-import io.openliberty.lemminx.liberty.models.settings.*;
+import com.nteligen.lemminx.dfdl.models.settings.*;
 
 public class SettingsService {
 
@@ -17,23 +21,57 @@ public class SettingsService {
   // default request delay is 120 seconds
   private static int DEFAULT_REQUEST_DELAY = 120;
 
+  // default repository that feature lists are fetched from
+  private static String DEFAULT_FEATURE_REPOSITORY = "https://repo1.maven.org/maven2";
+
+  // default trace file, next to the LemMinx cache
+  private static final Path DEFAULT_TRACE_FILE = Paths.get(System.getProperty("user.home"), ".lemminx",
+      "dfdl-trace.json");
+
   private SettingsService() {
   }
 
-  private LibertySettings settings;
+  private volatile DfdlSettings settings;
+
+  // bumped on every settings update, lets callers tell whether values they
+  // derived from the settings are still current
+  private final AtomicLong generation = new AtomicLong();
 
   /**
-   * Takes the xml settings object and parses out the Liberty Settings
+   * Takes the xml settings object and parses out the Dfdl Settings
    * @param xmlSettings - All xml settings provided by the client
    */
-  public void updateLibertySettings(Object xmlSettings) {
+  public void updateDfdlSettings(Object xmlSettings) {
     AllSettings rootSettings = JSONUtility.toModel(xmlSettings, AllSettings.class);
     if (rootSettings != null) {
-      settings = JSONUtility.toModel(rootSettings.getLiberty(), LibertySettings.class);
+      settings = JSONUtility.toModel(rootSettings.getDfdl(), DfdlSettings.class);
+      generation.incrementAndGet();
     }
   }
 
-  public String getLibertyVersion() {
+  /**
+   * @return settings currently in effect, null if the client sent none
+   */
+  public DfdlSettings getDfdlSettings() {
+    return settings;
+  }
+
+  /**
+   * Puts back settings returned by {@link #getDfdlSettings()}, ie. once a
+   * command line run that overrode them is done.
+   *
+   * @param dfdlSettings - settings to use, may be null
+   */
+  public void setDfdlSettings(DfdlSettings dfdlSettings) {
+    settings = dfdlSettings;
+    generation.incrementAndGet();
+  }
+
+  public long getGeneration() {
+    return generation.get();
+  }
+
+  public String getDfdlVersion() {
     if (settings != null) {
       String version = settings.getVersion();
       if (version != null) {
@@ -55,4 +93,32 @@ public class SettingsService {
     return DEFAULT_REQUEST_DELAY;
   }
 
+  public String getFeatureRepository() {
+    if (settings != null) {
+      String featureRepository = settings.getFeatureRepository();
+      if (featureRepository != null && !featureRepository.isEmpty()) {
+        return featureRepository.endsWith("/")
+            ? featureRepository.substring(0, featureRepository.length() - 1)
+            : featureRepository;
+      }
+    }
+
+    return DEFAULT_FEATURE_REPOSITORY;
+  }
+
+  public boolean isTraceEnabled() {
+    return settings != null && settings.getTrace();
+  }
+
+  public Path getTraceFile() {
+    if (settings != null) {
+      String traceFile = settings.getTraceFile();
+      if (traceFile != null && !traceFile.isEmpty()) {
+        return Paths.get(traceFile);
+      }
+    }
+
+    return DEFAULT_TRACE_FILE;
+  }
+
 }
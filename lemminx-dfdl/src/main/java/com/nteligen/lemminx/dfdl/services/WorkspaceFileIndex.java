@@ -0,0 +1,442 @@
+package com.nteligen.lemminx.dfdl.services;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.WatchEvent;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+import java.util.logging.Logger;
+
+import org.eclipse.lsp4j.jsonrpc.CancelChecker;
+
+import com.nteligen.lemminx.dfdl.services.DfdlTracer.Span;
+import com.nteligen.lemminx.dfdl.services.FileWatcherService.Registration;
+
+/**
+ * Index of the files in a workspace folder by file name, so that files such as
+ * openDfdl.properties and feature manifests can be found without walking the
+ * workspace. The index is built once in the background and then kept current
+ * through the {@link FileWatcherService}. Directories that never hold a Dfdl
+ * installation (version control metadata, node_modules) are not indexed.
+ * Directories that cannot be watched, ie. once the inotify watch limit is
+ * reached, are still indexed, and are rescanned by lookups every
+ * {@link #RESCAN_INTERVAL} ms instead.
+ */
+public class WorkspaceFileIndex {
+
+    private static final Logger LOGGER = Logger.getLogger(WorkspaceFileIndex.class.getName());
+
+    // Names of the directories that are skipped by default
+    public static final Set<String> DEFAULT_EXCLUDED_DIRECTORIES = Collections.unmodifiableSet(
+            new HashSet<>(Arrays.asList(".git", ".hg", ".svn", "node_modules", ".Dfdlls")));
+
+    // Time (ms) a lookup waits for the initial scan to complete
+    private static final long INITIAL_SCAN_WAIT = 5000;
+    // Time (ms) in between checks for cancellation while waiting
+    private static final long CANCEL_CHECK_INTERVAL = 10;
+    // Time (ms) after which a lookup rescans the directories that are not
+    // watched
+    private static final long RESCAN_INTERVAL = 30000;
+
+    // Walks directory trees for all workspaces, one at a time, so that the
+    // file watcher thread never has to; its thread exits when idle
+    private static final ExecutorService SCANNER = new ThreadPoolExecutor(0, 1, 30, TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(), runnable -> {
+                Thread thread = new Thread(runnable, "dfdl-workspace-index");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    private final Path root;
+    private final Set<String> excludedDirectories;
+
+    // file name -> paths of the files with that name
+    private final Map<String, Set<Path>> filesByName = new ConcurrentHashMap<>();
+    // watch registrations of the indexed directories, guarded by this
+    private final Map<Path, Registration> registrations = new HashMap<>();
+    // indexed directories that could not be watched, guarded by this
+    private final Set<Path> unwatchedDirectories = new HashSet<>();
+    private long lastRescan;
+    private boolean started;
+    private boolean stopped;
+
+    private final CompletableFuture<Void> initialScan = new CompletableFuture<>();
+    private volatile Consumer<Path> changeListener;
+
+    public WorkspaceFileIndex(Path root) {
+        this(root, DEFAULT_EXCLUDED_DIRECTORIES);
+    }
+
+    public WorkspaceFileIndex(Path root, Set<String> excludedDirectories) {
+        this.root = root.toAbsolutePath().normalize();
+        this.excludedDirectories = excludedDirectories;
+    }
+
+    /**
+     * Builds the index in the background, then keeps it current.
+     */
+    public synchronized void start() {
+        if (started) {
+            return;
+        }
+        started = true;
+        SCANNER.execute(() -> {
+            try {
+                index(root);
+                LOGGER.fine("Indexed workspace " + root + ": " + filesByName.size() + " file names");
+            } finally {
+                initialScan.complete(null);
+            }
+        });
+    }
+
+    /**
+     * Stops keeping the index current.
+     */
+    public synchronized void stop() {
+        stopped = true;
+        for (Registration registration : registrations.values()) {
+            registration.close();
+        }
+        registrations.clear();
+        initialScan.complete(null);
+    }
+
+    public Path getRoot() {
+        return root;
+    }
+
+    /**
+     * Sets the listener called with each file that is added to or removed from
+     * the index once the initial scan is done.
+     *
+     * @param changeListener called on the file watcher or scanner thread
+     */
+    public void setChangeListener(Consumer<Path> changeListener) {
+        this.changeListener = changeListener;
+    }
+
+    /**
+     * Returns the most recently modified file with the given name. Waits for the
+     * initial scan of the workspace if it is still running.
+     *
+     * @param filename name of the file
+     * @return path to the file, or null if there is no such file
+     */
+    public Path findFile(String filename) {
+        return findFile(filename, null);
+    }
+
+    /**
+     * Returns the most recently modified file with the given name, see
+     * {@link #findFile(String)}, giving up on the initial scan as soon as the
+     * request is cancelled.
+     *
+     * @param filename      name of the file
+     * @param cancelChecker checker of the request, may be null
+     * @return path to the file, or null if there is no such file
+     * @throws CancellationException if the request was cancelled while waiting
+     */
+    public Path findFile(String filename, CancelChecker cancelChecker) {
+        awaitInitialScan(cancelChecker);
+        scheduleRescan();
+        Set<Path> matchingFiles = filesByName.get(filename);
+        if (matchingFiles == null) {
+            return null;
+        }
+        Path lastModified = null;
+        long lastModifiedTime = Long.MIN_VALUE;
+        for (Path p : matchingFiles) {
+            long modifiedTime = p.toFile().lastModified();
+            if (lastModified == null || lastModifiedTime < modifiedTime) {
+                lastModified = p;
+                lastModifiedTime = modifiedTime;
+            }
+        }
+        return lastModified;
+    }
+
+    public boolean isReady() {
+        return initialScan.isDone();
+    }
+
+    /**
+     * Waits for the initial scan, for at most {@link #INITIAL_SCAN_WAIT}, checking
+     * for cancellation of the request in between.
+     *
+     * @param cancelChecker checker of the request, may be null
+     * @throws CancellationException if the request was cancelled while waiting
+     */
+    public void awaitInitialScan(CancelChecker cancelChecker) {
+        long deadline = System.currentTimeMillis() + INITIAL_SCAN_WAIT;
+        try {
+            while (!initialScan.isDone()) {
+                if (cancelChecker != null) {
+                    cancelChecker.checkCanceled();
+                }
+                long remaining = deadline - System.currentTimeMillis();
+                if (remaining <= 0) {
+                    LOGGER.fine("Workspace " + root + " is still being indexed");
+                    return;
+                }
+                try {
+                    initialScan.get(Math.min(remaining, CANCEL_CHECK_INTERVAL), TimeUnit.MILLISECONDS);
+                } catch (TimeoutException e) {
+                    // check for cancellation again
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            // scan failed, answer from what was indexed
+        }
+    }
+
+    /**
+     * Called on the file watcher thread.
+     */
+    private void onChange(Path path, WatchEvent.Kind<?> kind) {
+        if (kind == OVERFLOW) {
+            // events were lost, start over
+            SCANNER.execute(this::reindex);
+        } else if (kind == ENTRY_CREATE) {
+            if (Files.isDirectory(path)) {
+                SCANNER.execute(() -> index(path));
+            } else {
+                add(path);
+            }
+        } else if (kind == ENTRY_DELETE) {
+            remove(path);
+        }
+    }
+
+    private void index(Path directory) {
+        long start = System.nanoTime();
+        try (Span span = DfdlTracer.getInstance().span("walkWorkspace")) {
+            span.arg("directory", directory.toString());
+            Files.walkFileTree(directory, new SimpleFileVisitor<Path>() {
+                @Override
+                public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                    if (isExcluded(dir)) {
+                        return FileVisitResult.SKIP_SUBTREE;
+                    }
+                    return watch(dir) ? FileVisitResult.CONTINUE : FileVisitResult.TERMINATE;
+                }
+
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                    if (attrs.isRegularFile()) {
+                        add(file);
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFileFailed(Path file, IOException e) {
+                    // unreadable file or directory, leave it out
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        } catch (IOException e) {
+            LOGGER.warning("Unable to index " + directory + ": " + e.getMessage());
+        } finally {
+            DfdlMetrics.getInstance().record(DfdlMetrics.WORKSPACE_WALK, start);
+        }
+    }
+
+    private boolean isExcluded(Path directory) {
+        Path name = directory.getFileName();
+        return name != null && !directory.equals(root) && excludedDirectories.contains(name.toString());
+    }
+
+    /**
+     * Watches a directory, or marks it for rescanning if it cannot be watched.
+     *
+     * @return false once the index has been stopped
+     */
+    private synchronized boolean watch(Path directory) {
+        if (stopped) {
+            return false;
+        }
+        if (!registrations.containsKey(directory)) {
+            try {
+                registrations.put(directory, FileWatcherService.getInstance().register(directory, this::onChange));
+                unwatchedDirectories.remove(directory);
+            } catch (IOException e) {
+                if (unwatchedDirectories.isEmpty()) {
+                    LOGGER.warning("Unable to watch " + directory + ", directories of " + root
+                            + " that cannot be watched are rescanned instead: " + e.getMessage());
+                }
+                unwatchedDirectories.add(directory);
+            }
+        }
+        return true;
+    }
+
+    private void reindex() {
+        synchronized (this) {
+            for (Registration registration : registrations.values()) {
+                registration.close();
+            }
+            registrations.clear();
+            unwatchedDirectories.clear();
+        }
+        filesByName.clear();
+        index(root);
+    }
+
+    /**
+     * Rescans the directories that are not watched in the background, at most
+     * once every {@link #RESCAN_INTERVAL} ms.
+     */
+    private void scheduleRescan() {
+        synchronized (this) {
+            long now = System.currentTimeMillis();
+            if (stopped || unwatchedDirectories.isEmpty() || now - lastRescan < RESCAN_INTERVAL) {
+                return;
+            }
+            lastRescan = now;
+        }
+        SCANNER.execute(() -> {
+            List<Path> directories;
+            synchronized (this) {
+                directories = new ArrayList<>(unwatchedDirectories);
+            }
+            for (Path directory : directories) {
+                rescan(directory);
+            }
+        });
+    }
+
+    /**
+     * Brings the entries of a directory that is not watched up to date, and
+     * watches it if a watch is available again.
+     */
+    private void rescan(Path directory) {
+        if (!Files.isDirectory(directory)) {
+            remove(directory);
+            return;
+        }
+        if (!watch(directory)) {
+            return;
+        }
+        Set<Path> entries = new HashSet<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+            for (Path entry : stream) {
+                entries.add(entry);
+                if (Files.isDirectory(entry)) {
+                    if (!isExcluded(entry) && !isIndexedDirectory(entry)) {
+                        index(entry);
+                    }
+                } else if (Files.isRegularFile(entry)) {
+                    add(entry);
+                }
+            }
+        } catch (IOException e) {
+            LOGGER.fine("Unable to rescan " + directory + ": " + e.getMessage());
+            return;
+        }
+        // files and directories that were deleted in the meantime
+        List<Path> deleted = new ArrayList<>();
+        for (Set<Path> paths : filesByName.values()) {
+            for (Path p : paths) {
+                if (directory.equals(p.getParent()) && !entries.contains(p)) {
+                    deleted.add(p);
+                }
+            }
+        }
+        synchronized (this) {
+            for (Path indexedDirectory : registrations.keySet()) {
+                if (directory.equals(indexedDirectory.getParent()) && !entries.contains(indexedDirectory)) {
+                    deleted.add(indexedDirectory);
+                }
+            }
+            for (Path indexedDirectory : unwatchedDirectories) {
+                if (directory.equals(indexedDirectory.getParent()) && !entries.contains(indexedDirectory)) {
+                    deleted.add(indexedDirectory);
+                }
+            }
+        }
+        for (Path p : deleted) {
+            remove(p);
+        }
+    }
+
+    private synchronized boolean isIndexedDirectory(Path directory) {
+        return registrations.containsKey(directory) || unwatchedDirectories.contains(directory);
+    }
+
+    private void add(Path file) {
+        if (filesByName.computeIfAbsent(file.getFileName().toString(), name -> ConcurrentHashMap.newKeySet())
+                .add(file)) {
+            fileChanged(file);
+        }
+    }
+
+    private void remove(Path path) {
+        Set<Path> files = filesByName.get(path.getFileName().toString());
+        if (files != null && files.remove(path)) {
+            fileChanged(path);
+            return;
+        }
+        // a directory, drop everything that was below it
+        for (Set<Path> paths : filesByName.values()) {
+            Iterator<Path> iterator = paths.iterator();
+            while (iterator.hasNext()) {
+                Path p = iterator.next();
+                if (p.startsWith(path)) {
+                    iterator.remove();
+                    fileChanged(p);
+                }
+            }
+        }
+        List<Registration> removed = new ArrayList<>();
+        synchronized (this) {
+            Iterator<Map.Entry<Path, Registration>> entries = registrations.entrySet().iterator();
+            while (entries.hasNext()) {
+                Map.Entry<Path, Registration> entry = entries.next();
+                if (entry.getKey().startsWith(path)) {
+                    removed.add(entry.getValue());
+                    entries.remove();
+                }
+            }
+            unwatchedDirectories.removeIf(directory -> directory.startsWith(path));
+        }
+        for (Registration registration : removed) {
+            registration.close();
+        }
+    }
+
+    private void fileChanged(Path file) {
+        Consumer<Path> listener = changeListener;
+        if (listener != null && initialScan.isDone()) {
+            listener.accept(file);
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.nteligen.lemminx.dfdl.services;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Immutable trie of workspace folder URIs keyed by the segments of their
+ * normalized URI. Finding the folder of a document is a longest-prefix match
+ * that takes time proportional to the depth of the document path, however many
+ * folders there are, and picks the innermost folder when folders are nested.
+ * Safe to read from any thread once built.
+ */
+public final class WorkspaceFolderTrie {
+
+    private static final class Node {
+        final Map<String, Node> children = new HashMap<>();
+        String folderURI;
+    }
+
+    private final Node root = new Node();
+
+    public WorkspaceFolderTrie(Collection<String> folderURIs) {
+        for (String folderURI : folderURIs) {
+            if (folderURI == null) {
+                continue;
+            }
+            Node node = root;
+            for (String segment : toSegments(folderURI)) {
+                node = node.children.computeIfAbsent(segment, s -> new Node());
+            }
+            // first one wins, as with the linear search this replaces
+            if (node.folderURI == null) {
+                node.folderURI = folderURI;
+            }
+        }
+    }
+
+    /**
+     * Returns the innermost workspace folder containing the given document.
+     *
+     * @param documentURI document URI
+     * @return workspace folder URI, as given when building the trie, or null if
+     *         the document is in none of them
+     */
+    public String getWorkspaceFolderURI(String documentURI) {
+        if (documentURI == null) {
+            return null;
+        }
+        String match = null;
+        Node node = root;
+        for (String segment : toSegments(documentURI)) {
+            node = node.children.get(segment);
+            if (node == null) {
+                break;
+            }
+            if (node.folderURI != null) {
+                match = node.folderURI;
+            }
+        }
+        return match;
+    }
+
+    /**
+     * Normalizes a URI so that different spellings of the same folder compare
+     * equal, see {@link #toSegments(String)}.
+     *
+     * @param uri workspace folder URI
+     * @return normalized URI
+     */
+    public static String normalize(String uri) {
+        return String.join("/", toSegments(uri));
+    }
+
+    /**
+     * Splits a URI into the segments used as trie keys: the scheme and
+     * authority, then each path segment. Percent-encoding is decoded, empty
+     * segments are dropped and Windows drive letters are lower cased, so that
+     * file:///C:/ws/ and file:///c%3A/ws give the same segments.
+     *
+     * @param uri workspace folder or document URI
+     * @return normalized segments
+     */
+    static List<String> toSegments(String uri) {
+        String prefix;
+        String path;
+        try {
+            URI parsed = new URI(uri);
+            String scheme = parsed.getScheme() != null ? parsed.getScheme().toLowerCase(Locale.ROOT) : "";
+            String authority = parsed.getAuthority() != null ? parsed.getAuthority() : "";
+            prefix = scheme + "://" + authority;
+            path = parsed.getPath() != null ? parsed.getPath() : parsed.getSchemeSpecificPart();
+        } catch (URISyntaxException e) {
+            // not an encoded URI, ie. it contains spaces, use it as is
+            int schemeEnd = uri.indexOf("://");
+            prefix = schemeEnd > 0 ? uri.substring(0, schemeEnd).toLowerCase(Locale.ROOT) + "://" : "://";
+            path = schemeEnd > 0 ? uri.substring(schemeEnd + 3) : uri;
+        }
+
+        List<String> segments = new ArrayList<>();
+        segments.add(prefix);
+        for (String segment : path.split("[/\\\\]")) {
+            if (segment.isEmpty() || segment.equals(".")) {
+                continue;
+            }
+            if (segment.length() == 2 && segment.charAt(1) == ':' && Character.isLetter(segment.charAt(0))) {
+                segment = segment.toLowerCase(Locale.ROOT);
+            }
+            segments.add(segment);
+        }
+        return segments;
+    }
+}
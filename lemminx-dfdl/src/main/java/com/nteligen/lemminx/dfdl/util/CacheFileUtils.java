@@ -0,0 +1,146 @@
+package com.nteligen.lemminx.dfdl.util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+import org.eclipse.lemminx.uriresolver.CacheResourcesManager;
+
+/**
+ * Cache paths, checksums and atomic writes of the files this extension keeps
+ * in the LemMinx cache.
+ */
+public class CacheFileUtils {
+
+    private CacheFileUtils() {
+    }
+
+    /**
+     * Returns where the resource downloaded from the given url is cached.
+     *
+     * @param cacheDirectory directory to cache in, in the layout of the LemMinx
+     *                       cache, or null for the LemMinx cache itself
+     * @param url            url of the resource
+     * @return cache path of the resource
+     * @throws IOException if the url cannot be mapped to a cache path
+     */
+    public static Path getCachePath(Path cacheDirectory, String url) throws IOException {
+        if (cacheDirectory == null) {
+            return CacheResourcesManager.getResourceCachePath(url);
+        }
+        // same layout as the LemMinx cache: scheme, host, then the url path
+        try {
+            URI uri = new URI(url);
+            String path = uri.getPath().startsWith("/") ? uri.getPath().substring(1) : uri.getPath();
+            return cacheDirectory.resolve(uri.getScheme()).resolve(uri.getAuthority().replace(':', '_'))
+                    .resolve(path);
+        } catch (URISyntaxException | RuntimeException e) {
+            throw new IOException("Invalid url " + url, e);
+        }
+    }
+
+    /**
+     * @return new SHA-256 digest
+     */
+    public static MessageDigest newSha256Digest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            // every Java platform supports SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * @param content bytes to checksum
+     * @return SHA-256 of the bytes, in hex
+     */
+    public static String sha256(byte[] content) {
+        return toHex(newSha256Digest().digest(content));
+    }
+
+    /**
+     * @param bytes bytes to format, ie. a digest
+     * @return bytes in lowercase hex
+     */
+    public static String toHex(byte[] bytes) {
+        StringBuilder hex = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            hex.append(String.format("%02x", b));
+        }
+        return hex.toString();
+    }
+
+    /**
+     * @param classpathLocation location of a resource of this extension
+     * @return content of the resource
+     * @throws IOException if the resource is missing or cannot be read
+     */
+    public static byte[] readResource(String classpathLocation) throws IOException {
+        try (InputStream is = CacheFileUtils.class.getResourceAsStream(classpathLocation)) {
+            if (is == null) {
+                throw new IOException("Missing resource " + classpathLocation);
+            }
+            ByteArrayOutputStream content = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = is.read(buffer)) != -1) {
+                content.write(buffer, 0, read);
+            }
+            return content.toByteArray();
+        }
+    }
+
+    /**
+     * Writes the content to the file unless the file already has the same
+     * checksum. LemMinx only deploys missing resources, so a file left in the
+     * cache by another version of this extension would otherwise be used as is.
+     *
+     * @param file    file in the cache
+     * @param content content the file should have
+     * @return true if the file was missing or outdated, and has been written
+     * @throws IOException if the file cannot be read or written
+     */
+    public static boolean deploy(Path file, byte[] content) throws IOException {
+        if (Files.exists(file) && sha256(content).equals(sha256(Files.readAllBytes(file)))) {
+            return false;
+        }
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        writeAtomically(file, content);
+        return true;
+    }
+
+    /**
+     * Writes the content through a temporary file that replaces the file at
+     * once, so that readers never see a partial write.
+     *
+     * @param file    file to write
+     * @param content content of the file
+     * @throws IOException if the file cannot be written
+     */
+    public static void writeAtomically(Path file, byte[] content) throws IOException {
+        Path tempFile = Files.createTempFile(file.toAbsolutePath().getParent(), file.getFileName().toString(),
+                ".tmp");
+        try {
+            try (OutputStream out = Files.newOutputStream(tempFile)) {
+                out.write(content);
+            }
+            try {
+                Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+}
@@ -15,4 +15,8 @@ public final class DfdlConstants {
 
     public static final String DEFAULT_SERVER_VERSION = "20.0.0.9";
 
+    public static final String PROPERTIES_FILE = "openDfdl.properties";
+    public static final String VERSION_PROPERTY = "com.ibm.websphere.productVersion";
+    public static final String FEATURE_MANIFEST_EXTENSION = ".mf";
+
 }
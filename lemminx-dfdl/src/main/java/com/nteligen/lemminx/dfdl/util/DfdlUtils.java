@@ -2,35 +2,29 @@ package com.nteligen.lemminx.dfdl.util;
 
 import java.io.FileInputStream;
 import java.io.IOException;
-import java.net.URI;
-import java.net.URISyntaxException;
-import java.nio.file.FileSystems;
-import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.nio.file.StandardWatchEventKinds;
-import java.nio.file.WatchKey;
-import java.nio.file.WatchService;
 import java.util.ArrayList;
-import java.util.List;
 import java.util.Properties;
-import java.util.concurrent.TimeUnit;
 import java.util.logging.Logger;
-import java.util.stream.Collectors;
 
 import org.eclipse.lemminx.dom.DOMDocument;
+import org.eclipse.lsp4j.jsonrpc.CancelChecker;
 
 import com.nteligen.lemminx.dfdl.models.feature.Feature;
 import com.nteligen.lemminx.dfdl.services.DfdlProjectsManager;
+import com.nteligen.lemminx.dfdl.services.DfdlTracer;
+import com.nteligen.lemminx.dfdl.services.DfdlTracer.Span;
 import com.nteligen.lemminx.dfdl.services.DfdlWorkspace;
+import com.nteligen.lemminx.dfdl.services.DfdlWorkspace.ResolvedVersion;
+import com.nteligen.lemminx.dfdl.services.FileWatcherService;
+import com.nteligen.lemminx.dfdl.services.FileWatcherService.Registration;
 import com.nteligen.lemminx.dfdl.services.SettingsService;
+import com.nteligen.lemminx.dfdl.services.WorkspaceFileIndex;
 
 public class DfdlUtils {
 
     private static final Logger LOGGER = Logger.getLogger(DfdlUtils.class.getName());
 
-    private static Thread thread;
-
     private DfdlUtils() {
     }
 
@@ -43,41 +37,40 @@ public class DfdlUtils {
     }
 
     /**
-     * Given a server.xml URI find the associated workspace folder and search that
-     * folder for the most recently edited file that matches the given name.
+     * Given a server.xml URI find the associated workspace folder and look up the
+     * most recently edited file that matches the given name in the index of that
+     * folder.
      * 
      * @param serverXmlURI
      * @param filename
      * @return path to given file or null if could not be found
      */
     public static Path findFileInWorkspace(String serverXmlURI, String filename) {
+        return findFileInWorkspace(serverXmlURI, filename, null);
+    }
+
+    /**
+     * See {@link #findFileInWorkspace(String, String)}, giving up as soon as the
+     * request is cancelled.
+     * 
+     * @param serverXmlURI
+     * @param filename
+     * @param cancelChecker checker of the request, may be null
+     * @return path to given file or null if could not be found
+     */
+    public static Path findFileInWorkspace(String serverXmlURI, String filename, CancelChecker cancelChecker) {
         DfdlWorkspace DfdlWorkspace = DfdlProjectsManager.getInstance().getWorkspaceFolder(serverXmlURI);
-        if (DfdlWorkspace.getURI() == null) {
+        if (DfdlWorkspace == null || DfdlWorkspace.getURI() == null) {
             return null;
         }
-        try {
-            URI rootURI = new URI(DfdlWorkspace.getURI());
-            Path rootPath = Paths.get(rootURI);
-            List<Path> matchingFiles = Files.walk(rootPath)
-                    .filter(p -> (Files.isRegularFile(p) && p.getFileName().endsWith(filename)))
-                    .collect(Collectors.toList());
-            if (matchingFiles.isEmpty()) {
-                return null;
-            }
-            if (matchingFiles.size() == 1) {
-                return matchingFiles.get(0);
-            }
-            Path lastModified = matchingFiles.get(0);
-            for (Path p : matchingFiles) {
-                if (lastModified.toFile().lastModified() < p.toFile().lastModified()) {
-                    lastModified = p;
-                }
-            }
-            return lastModified;
-        } catch (IOException | URISyntaxException e) {
-            LOGGER.warning("Could not find: " + filename + ": " + e.getMessage());
+        WorkspaceFileIndex fileIndex = DfdlWorkspace.getFileIndex();
+        if (fileIndex == null) {
             return null;
         }
+        try (Span span = DfdlTracer.getInstance().span("findFileInWorkspace")) {
+            span.arg("file", filename);
+            return fileIndex.findFile(filename, cancelChecker);
+        }
     }
 
     /**
@@ -90,42 +83,109 @@ public class DfdlUtils {
      * @return version of Dfdl or null
      */
     public static String getVersion(DOMDocument serverXML) {
+        return getVersion(serverXML.getDocumentURI(), null);
+    }
+
+    /**
+     * See {@link #getVersion(DOMDocument)}, giving up as soon as the request is
+     * cancelled.
+     * 
+     * @param serverXML server xml associated
+     * @param cancelChecker checker of the request, may be null
+     * @return version of Dfdl or null
+     */
+    public static String getVersion(DOMDocument serverXML, CancelChecker cancelChecker) {
+        return getVersion(serverXML.getDocumentURI(), cancelChecker);
+    }
+
+    /**
+     * Given a server.xml URI find the version associated with the corresponding
+     * Dfdl workspace, see {@link #getVersion(DOMDocument)}. The version found in
+     * the workspace is memoized until the properties file changes or the
+     * settings are updated, so repeated requests do not touch the file system.
+     * 
+     * @param serverXMLURI server xml associated
+     * @return version of Dfdl or null
+     */
+    public static String getVersion(String serverXMLURI) {
+        return getVersion(serverXMLURI, null);
+    }
+
+    /**
+     * See {@link #getVersion(String)}, giving up as soon as the request is
+     * cancelled.
+     * 
+     * @param serverXMLURI server xml associated
+     * @param cancelChecker checker of the request, may be null
+     * @return version of Dfdl or null
+     */
+    public static String getVersion(String serverXMLURI, CancelChecker cancelChecker) {
         // return version set in settings if it exists
         String DfdlVersion = SettingsService.getInstance().getDfdlVersion();
         if (DfdlVersion != null) {
             return DfdlVersion;
         }
         // find workspace folder this serverXML belongs to
-        DfdlWorkspace DfdlWorkspace = DfdlProjectsManager.getInstance().getWorkspaceFolder(serverXML.getDocumentURI());
+        DfdlWorkspace DfdlWorkspace = DfdlProjectsManager.getInstance().getWorkspaceFolder(serverXMLURI);
 
         if (DfdlWorkspace == null || DfdlWorkspace.getURI() == null) {
             return null;
         }
 
+        // return memoized version if still current
+        long settingsGeneration = SettingsService.getInstance().getGeneration();
+        ResolvedVersion resolvedVersion = DfdlWorkspace.getResolvedVersion();
+        if (resolvedVersion != null && resolvedVersion.getSettingsGeneration() == settingsGeneration) {
+            return resolvedVersion.getVersion();
+        }
+        // wait for the workspace to be indexed before taking the lock, so that a
+        // cancelled request does not hold up the others
+        WorkspaceFileIndex fileIndex = DfdlWorkspace.getFileIndex();
+        if (fileIndex != null) {
+            fileIndex.awaitInitialScan(cancelChecker);
+            if (!fileIndex.isReady()) {
+                // the properties file cannot be looked up yet, nothing is memoized
+                // so that the next request looks it up once the workspace is indexed
+                return DfdlWorkspace.getDfdlVersion();
+            }
+        }
+        synchronized (DfdlWorkspace) {
+            resolvedVersion = DfdlWorkspace.getResolvedVersion();
+            if (resolvedVersion != null && resolvedVersion.getSettingsGeneration() == settingsGeneration) {
+                return resolvedVersion.getVersion();
+            }
+            int versionStamp = DfdlWorkspace.getVersionStamp();
+            String version = resolveVersion(serverXMLURI, DfdlWorkspace, cancelChecker);
+            DfdlWorkspace.setResolvedVersion(version, settingsGeneration, versionStamp);
+            return version;
+        }
+    }
+
+    private static String resolveVersion(String serverXMLURI, DfdlWorkspace DfdlWorkspace,
+            CancelChecker cancelChecker) {
         String version = DfdlWorkspace.getDfdlVersion();
 
         // return version from cache if set and Dfdl is installed
         if (version != null && DfdlWorkspace.isDfdlInstalled()) {
             return version;
         }
-        Path propertiesFile = findFileInWorkspace(serverXML.getDocumentURI(), "openDfdl.properties");
+        DfdlWorkspace.recordVersionLookup();
+        Path propertiesFile = findFileInWorkspace(serverXMLURI, DfdlConstants.PROPERTIES_FILE, cancelChecker);
 
         // detected a new Dfdl properties file, re-calculate version
         if (propertiesFile != null && propertiesFile.toFile().exists()) {
-            // new properties file, reset the installed features stored in the feature cache
-            // so that the installed features list will be regenerated as it may have
-            // changed between Dfdl installations
+            // new properties file, reset the installed features stored in the workspace
+            // so that they are looked up again, as they may have changed between Dfdl
+            // installations; an unchanged installation is found in the installed
+            // feature cache and is not scanned again
             DfdlWorkspace.setInstalledFeatureList(new ArrayList<Feature>());
             Properties prop = new Properties();
-            try {
-                // add a file watcher on this file
-                if (!DfdlWorkspace.isDfdlInstalled()) {
-                    watchFiles(propertiesFile, DfdlWorkspace);
-                }
+            // add a file watcher on this file
+            watchFiles(propertiesFile, DfdlWorkspace);
 
-                FileInputStream fis = new FileInputStream(propertiesFile.toFile());
+            try (FileInputStream fis = new FileInputStream(propertiesFile.toFile())) {
                 prop.load(fis);
-                version = prop.getProperty("com.ibm.websphere.productVersion");
+                version = prop.getProperty(DfdlConstants.VERSION_PROPERTY);
                 DfdlWorkspace.setDfdlVersion(version);
                 DfdlWorkspace.setDfdlInstalled(true);
                 return version;
@@ -171,47 +231,30 @@ public class DfdlUtils {
     // }
 
     /**
-     * Watches the parent directory of the Dfdl properties file in a separate
-     * thread. If the the contents of the directory have been modified or deleted,
-     * the installation of Dfdl has changed and the corresponding Dfdl
-     * Workspace item is updated.
+     * Watches the parent directory of the Dfdl properties file through the
+     * shared file watcher. If the contents of the directory have been modified
+     * or deleted, the installation of Dfdl has changed and the corresponding Dfdl
+     * Workspace item is updated. Each workspace watches at most one properties
+     * file at a time.
      * 
      * @param propertiesFile   openDfdl.properties file to watch
      * @param DfdlWorkspace Dfdl Workspace object, updated to indicate if
      *                         there is an associated installation of Dfdl
      */
     public static void watchFiles(Path propertiesFile, DfdlWorkspace DfdlWorkspace) {
+        Registration current = DfdlWorkspace.getPropertiesFileWatch();
+        if (current != null && current.getDirectory().equals(propertiesFile.getParent().toAbsolutePath().normalize())) {
+            return;
+        }
         try {
-            WatchService watcher = FileSystems.getDefault().newWatchService();
-            propertiesFile.getParent().register(watcher, StandardWatchEventKinds.ENTRY_MODIFY);
-            thread = new Thread(() -> {
-                WatchKey watchKey = null;
-                try {
-                    while (true) {
-                        watchKey = watcher.poll(5, TimeUnit.SECONDS);
-                        if (watchKey != null) {
-                            watchKey.pollEvents().stream().forEach(event -> {
-                                LOGGER.fine("Dfdl properties file (" + propertiesFile + ") has been modified: "
-                                        + event.context());
-                                // if modified re-calculate version
-                                DfdlWorkspace.setDfdlInstalled(false);
-                            });
-
-                            // if watchkey.reset() returns false indicates that the parent folder has been
-                            // deleted
-                            boolean valid = watchKey.reset();
-                            if (!valid) {
-                                // if deleted re-calculate version
-                                LOGGER.fine("Dfdl properties file (" + propertiesFile + ") has been deleted");
-                                DfdlWorkspace.setDfdlInstalled(false);
-                            }
-                        }
-                    }
-                } catch (InterruptedException e) {
-                    LOGGER.warning("Unable to watch properties file(s): " + e.toString());
-                }
-            });
-            thread.start();
+            Registration registration = FileWatcherService.getInstance().register(propertiesFile.getParent(),
+                    (path, kind) -> {
+                        LOGGER.fine("Dfdl properties file (" + propertiesFile + ") has been modified: " + path);
+                        // if modified or deleted re-calculate version
+                        DfdlWorkspace.setDfdlInstalled(false);
+                        DfdlWorkspace.invalidateVersion();
+                    });
+            DfdlWorkspace.setPropertiesFileWatch(registration);
         } catch (IOException e) {
             LOGGER.warning("Unable to watch properties file(s): " + e.toString());
         }
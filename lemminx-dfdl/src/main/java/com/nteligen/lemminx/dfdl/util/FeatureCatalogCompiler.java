@@ -0,0 +1,55 @@
+package com.nteligen.lemminx.dfdl.util;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.nteligen.lemminx.dfdl.models.feature.Feature;
+import com.nteligen.lemminx.dfdl.services.FeatureDependencyGraph.Node;
+
+/**
+ * Build time tool that compiles the features-<version>.json catalog of the
+ * default Dfdl version ({@link DfdlConstants#DEFAULT_SERVER_VERSION}) into a
+ * features-<version>.catalog {@link FeatureCatalogFile}. Run by the
+ * lemminx-dfdl pom during the process-classes phase so that the language
+ * server never has to parse the bundled json at runtime.
+ *
+ * Usage: FeatureCatalogCompiler <features directory> <output directory>
+ */
+public final class FeatureCatalogCompiler {
+
+    private FeatureCatalogCompiler() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            throw new IllegalArgumentException("Usage: FeatureCatalogCompiler <features directory> <output directory>");
+        }
+        String fileName = "features-" + DfdlConstants.DEFAULT_SERVER_VERSION;
+        Path jsonFile = Paths.get(args[0]).resolve(fileName + ".json");
+        Path catalogFile = Paths.get(args[1]).resolve(fileName + ".catalog");
+
+        List<Feature> features;
+        List<Node> nonPublicFeatures = new ArrayList<>();
+        try (Reader reader = new InputStreamReader(Files.newInputStream(jsonFile), StandardCharsets.UTF_8)) {
+            features = FeatureJsonReader.readFeatures(reader, nonPublicFeatures);
+        }
+
+        if (catalogFile.getParent() != null) {
+            Files.createDirectories(catalogFile.getParent());
+        }
+        try (OutputStream out = Files.newOutputStream(catalogFile)) {
+            FeatureCatalogFile.write(features, nonPublicFeatures, out);
+        }
+        System.out.println("Compiled " + features.size() + " public and " + nonPublicFeatures.size()
+                + " non public features from " + jsonFile + " into " + catalogFile + " ("
+                + Files.size(catalogFile) + " bytes)");
+    }
+}
@@ -0,0 +1,354 @@
+package com.nteligen.lemminx.dfdl.util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import com.nteligen.lemminx.dfdl.models.feature.Feature;
+import com.nteligen.lemminx.dfdl.models.feature.JavaSEVersionRequirements;
+import com.nteligen.lemminx.dfdl.models.feature.RequireFeatureWithTolerates;
+import com.nteligen.lemminx.dfdl.models.feature.WlpInformation;
+import com.nteligen.lemminx.dfdl.services.FeatureDependencyGraph.Node;
+
+/**
+ * Compact binary form of a feature list.
+ *
+ * Layout: a header (magic, format version, feature count, node count and
+ * offset of the nodes), a table with the offset of every feature record, the
+ * records of the public features, then the non public features as compact
+ * dependency graph nodes (symbolic name, short name, singleton flag and
+ * required features). Strings are stored as a length followed by UTF-8 bytes
+ * (length -1 for null) and lists as a count followed by their elements.
+ * Records are only decoded when a feature is requested, and only once, so a
+ * memory-mapped file costs nothing until it is used.
+ */
+public final class FeatureCatalogFile {
+
+    private static final int MAGIC = 0x4446434C; // "DFCL"
+    public static final int FORMAT_VERSION = 3;
+
+    private static final int HEADER_SIZE = 20;
+
+    private final ByteBuffer buffer;
+    // features decoded so far, by position
+    private final AtomicReferenceArray<Feature> decodedFeatures;
+    private final int count;
+    private final int nodeCount;
+    private final int nodesOffset;
+
+    private FeatureCatalogFile(ByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+        if (buffer.limit() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a feature catalog file");
+        }
+        int formatVersion = buffer.getInt(4);
+        if (formatVersion != FORMAT_VERSION) {
+            throw new IOException("Unsupported feature catalog format: " + formatVersion);
+        }
+        this.count = buffer.getInt(8);
+        this.nodeCount = buffer.getInt(12);
+        this.nodesOffset = buffer.getInt(16);
+        if (count < 0 || nodeCount < 0 || HEADER_SIZE + (long) count * 4 > buffer.limit()
+                || nodesOffset < HEADER_SIZE || nodesOffset > buffer.limit()) {
+            throw new IOException("Truncated feature catalog file");
+        }
+        this.decodedFeatures = new AtomicReferenceArray<>(count);
+    }
+
+    /**
+     * Memory-maps a feature catalog file. Feature records are read lazily from
+     * the mapping.
+     *
+     * @param file catalog file
+     * @return mapped catalog
+     * @throws IOException if the file cannot be mapped or is not a catalog
+     */
+    public static FeatureCatalogFile map(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return new FeatureCatalogFile(channel.map(MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Reads a feature catalog held in memory, ie. when the catalog cannot be
+     * mapped.
+     *
+     * @param bytes catalog content
+     * @return catalog backed by the given bytes
+     * @throws IOException if the content is not a catalog
+     */
+    public static FeatureCatalogFile wrap(byte[] bytes) throws IOException {
+        return new FeatureCatalogFile(ByteBuffer.wrap(bytes));
+    }
+
+    public int size() {
+        return count;
+    }
+
+    /**
+     * Returns the feature stored at the given position, decoding it the first
+     * time it is requested.
+     *
+     * @param index position of the feature in the catalog
+     * @return decoded feature
+     */
+    public Feature getFeature(int index) {
+        if (index < 0 || index >= count) {
+            throw new IndexOutOfBoundsException("Feature " + index + " of " + count);
+        }
+        Feature feature = decodedFeatures.get(index);
+        if (feature == null) {
+            // decoding twice on a race is harmless, one of them is kept
+            decodedFeatures.compareAndSet(index, null, decodeFeature(index));
+            feature = decodedFeatures.get(index);
+        }
+        return feature;
+    }
+
+    private Feature decodeFeature(int index) {
+        ByteBuffer record = buffer.duplicate();
+        record.position(buffer.getInt(HEADER_SIZE + index * 4));
+
+        WlpInformation wlpInformation = new WlpInformation(readString(record));
+        Feature feature = new Feature();
+        feature.setName(readString(record));
+        feature.setShortDescription(readString(record));
+        feature.setVersion(readString(record));
+        feature.setType(readString(record));
+        wlpInformation.setVisibility(readString(record));
+        wlpInformation.setSingleton(readString(record));
+        String javaMinVersion = readString(record);
+        String javaVersionDisplayString = readString(record);
+        if (javaMinVersion != null || javaVersionDisplayString != null) {
+            JavaSEVersionRequirements javaRequirements = new JavaSEVersionRequirements();
+            javaRequirements.setMinVersion(javaMinVersion);
+            javaRequirements.setVersionDisplayString(javaVersionDisplayString);
+            wlpInformation.setJavaSEVersionRequirements(javaRequirements);
+        }
+        wlpInformation.setProvideFeature(readStringList(record));
+        wlpInformation.setRequireFeature(readStringList(record));
+        int tolerateCount = record.getInt();
+        if (tolerateCount >= 0) {
+            ArrayList<RequireFeatureWithTolerates> requirements = new ArrayList<>(tolerateCount);
+            for (int i = 0; i < tolerateCount; i++) {
+                RequireFeatureWithTolerates requirement = new RequireFeatureWithTolerates();
+                requirement.setFeature(readString(record));
+                requirement.setTolerates(readStringList(record));
+                requirements.add(requirement);
+            }
+            wlpInformation.setRequireFeatureWithTolerates(requirements);
+        }
+        feature.setWlpInformation(wlpInformation);
+        return feature;
+    }
+
+    /**
+     * Returns the features of the catalog. Each feature is decoded the first
+     * time it is requested from the list.
+     *
+     * @return unmodifiable list of features in catalog order
+     */
+    public List<Feature> getFeatures() {
+        return new FeatureList();
+    }
+
+    /**
+     * Decodes what the dependency graph and the lookups of a
+     * {@code FeatureIndex} need of each feature (names, singleton flag and
+     * requirements), leaving the rest of the records, ie. descriptions,
+     * undecoded.
+     *
+     * @return dependency graph nodes of the features, in catalog order
+     */
+    public List<Node> getFeatureNodes() {
+        List<Node> nodes = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ByteBuffer record = buffer.duplicate();
+            record.position(buffer.getInt(HEADER_SIZE + i * 4));
+            String shortName = readString(record);
+            String name = readString(record);
+            // short description, version, type and visibility
+            skipStrings(record, 4);
+            String singleton = readString(record);
+            // java requirements
+            skipStrings(record, 2);
+            List<String> provideFeature = readStringList(record);
+            List<String> requireFeature = readStringList(record);
+            List<RequireFeatureWithTolerates> requireFeatureWithTolerates = null;
+            int tolerateCount = record.getInt();
+            if (tolerateCount >= 0) {
+                requireFeatureWithTolerates = new ArrayList<>(tolerateCount);
+                for (int t = 0; t < tolerateCount; t++) {
+                    RequireFeatureWithTolerates requirement = new RequireFeatureWithTolerates();
+                    requirement.setFeature(readString(record));
+                    requirement.setTolerates(readStringList(record));
+                    requireFeatureWithTolerates.add(requirement);
+                }
+            }
+            nodes.add(Node.of(name, shortName, singleton, provideFeature, requireFeature,
+                    requireFeatureWithTolerates));
+        }
+        return nodes;
+    }
+
+    /**
+     * Decodes the non public features of the catalog.
+     *
+     * @return dependency graph nodes of the non public features
+     */
+    public List<Node> getNonPublicFeatures() {
+        ByteBuffer nodes = buffer.duplicate();
+        nodes.position(nodesOffset);
+        List<Node> nonPublicFeatures = new ArrayList<>(nodeCount);
+        for (int i = 0; i < nodeCount; i++) {
+            String symbolicName = readString(nodes);
+            String shortName = readString(nodes);
+            boolean singleton = nodes.get() != 0;
+            List<String> requirements = readStringList(nodes);
+            nonPublicFeatures.add(new Node(symbolicName, shortName, singleton, requirements));
+        }
+        return nonPublicFeatures;
+    }
+
+    /**
+     * Writes the given features as a catalog file.
+     *
+     * @param features          public features, stored as complete records
+     * @param nonPublicFeatures non public features, stored as dependency graph
+     *                          nodes
+     * @param out               destination stream, not closed by this method
+     * @throws IOException if the catalog cannot be written
+     */
+    public static void write(List<Feature> features, List<Node> nonPublicFeatures, OutputStream out)
+            throws IOException {
+        ByteArrayOutputStream records = new ByteArrayOutputStream();
+        DataOutputStream recordOut = new DataOutputStream(records);
+        int[] offsets = new int[features.size()];
+        int recordsStart = HEADER_SIZE + features.size() * 4;
+
+        for (int i = 0; i < features.size(); i++) {
+            offsets[i] = recordsStart + recordOut.size();
+            Feature feature = features.get(i);
+            WlpInformation wlpInformation = feature.getWlpInformation();
+            JavaSEVersionRequirements javaRequirements = wlpInformation.getJavaSEVersionRequirements();
+
+            writeString(recordOut, wlpInformation.getShortName());
+            writeString(recordOut, feature.getName());
+            writeString(recordOut, feature.getShortDescription());
+            writeString(recordOut, feature.getVersion());
+            writeString(recordOut, feature.getType());
+            writeString(recordOut, wlpInformation.getVisibility());
+            writeString(recordOut, wlpInformation.getSingleton());
+            writeString(recordOut, javaRequirements != null ? javaRequirements.getMinVersion() : null);
+            writeString(recordOut, javaRequirements != null ? javaRequirements.getVersionDisplayString() : null);
+            writeStringList(recordOut, wlpInformation.getProvideFeature());
+            writeStringList(recordOut, wlpInformation.getRequireFeature());
+            List<RequireFeatureWithTolerates> requirements = wlpInformation.getRequireFeatureWithTolerates();
+            if (requirements == null) {
+                recordOut.writeInt(-1);
+            } else {
+                recordOut.writeInt(requirements.size());
+                for (RequireFeatureWithTolerates requirement : requirements) {
+                    writeString(recordOut, requirement.getFeature());
+                    writeStringList(recordOut, requirement.getTolerates());
+                }
+            }
+        }
+        int nodesOffset = recordsStart + recordOut.size();
+        for (Node node : nonPublicFeatures) {
+            writeString(recordOut, node.getSymbolicName());
+            writeString(recordOut, node.getShortName());
+            recordOut.writeByte(node.isSingleton() ? 1 : 0);
+            writeStringList(recordOut, node.getRequirements());
+        }
+        recordOut.flush();
+
+        DataOutputStream dataOut = new DataOutputStream(out);
+        dataOut.writeInt(MAGIC);
+        dataOut.writeInt(FORMAT_VERSION);
+        dataOut.writeInt(features.size());
+        dataOut.writeInt(nonPublicFeatures.size());
+        dataOut.writeInt(nodesOffset);
+        for (int offset : offsets) {
+            dataOut.writeInt(offset);
+        }
+        records.writeTo(dataOut);
+        dataOut.flush();
+    }
+
+    private static String readString(ByteBuffer record) {
+        int length = record.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        record.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void skipStrings(ByteBuffer record, int strings) {
+        for (int i = 0; i < strings; i++) {
+            int length = record.getInt();
+            if (length > 0) {
+                record.position(record.position() + length);
+            }
+        }
+    }
+
+    private static ArrayList<String> readStringList(ByteBuffer record) {
+        int size = record.getInt();
+        if (size < 0) {
+            return null;
+        }
+        ArrayList<String> values = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            values.add(readString(record));
+        }
+        return values;
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static void writeStringList(DataOutputStream out, List<String> values) throws IOException {
+        if (values == null) {
+            out.writeInt(-1);
+            return;
+        }
+        out.writeInt(values.size());
+        for (String value : values) {
+            writeString(out, value);
+        }
+    }
+
+    private class FeatureList extends AbstractList<Feature> implements RandomAccess {
+        @Override
+        public Feature get(int index) {
+            return getFeature(index);
+        }
+
+        @Override
+        public int size() {
+            return count;
+        }
+    }
+}
@@ -0,0 +1,258 @@
+package com.nteligen.lemminx.dfdl.util;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.google.gson.JsonParseException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import com.nteligen.lemminx.dfdl.models.feature.Feature;
+import com.nteligen.lemminx.dfdl.models.feature.JavaSEVersionRequirements;
+import com.nteligen.lemminx.dfdl.models.feature.RequireFeatureWithTolerates;
+import com.nteligen.lemminx.dfdl.models.feature.WlpInformation;
+import com.nteligen.lemminx.dfdl.services.FeatureDependencyGraph.Node;
+
+/**
+ * Streaming reader for the features-<version>.json catalog published to Maven.
+ *
+ * The catalog is read entry by entry into a reusable holder. Fields that
+ * nothing uses (HTML descriptions, links, license and applicability
+ * information) are skipped without being materialized. The visibility of an
+ * entry is one of the last fields of its wlpInformation, itself the last field
+ * of the entry, so the fields that are used are read for every entry before it
+ * is known whether it is public; a {@link Feature} is only created afterwards,
+ * for public entries.
+ */
+public final class FeatureJsonReader {
+
+    private FeatureJsonReader() {
+    }
+
+    /**
+     * Reads the features from a json feature list. Public features are
+     * returned as complete features; non public features are only needed by
+     * the feature dependency graph, and are added to the given list as compact
+     * nodes (symbolic name, singleton and required features).
+     *
+     * @param reader - reader for the json feature list, not closed by this method
+     * @param nonPublicFeatures - list the non public features are added to
+     * @return list of public features, in catalog order
+     * @throws JsonParseException if the json is malformed
+     */
+    public static ArrayList<Feature> readFeatures(Reader reader, List<Node> nonPublicFeatures)
+            throws JsonParseException {
+        ArrayList<Feature> features = new ArrayList<>();
+        try {
+            JsonReader json = new JsonReader(reader);
+            FeatureEntry entry = new FeatureEntry();
+            json.beginArray();
+            while (json.hasNext()) {
+                entry.reset();
+                readFeature(json, entry);
+                if (entry.isPublic()) {
+                    features.add(entry.toFeature());
+                } else {
+                    nonPublicFeatures.add(entry.toNode());
+                }
+            }
+            json.endArray();
+        } catch (IOException | IllegalStateException e) {
+            throw new JsonParseException("Unable to read feature list: " + e.getMessage(), e);
+        }
+        return features;
+    }
+
+    private static void readFeature(JsonReader json, FeatureEntry entry) throws IOException {
+        json.beginObject();
+        while (json.hasNext()) {
+            String field = json.nextName();
+            switch (field) {
+                case "name":
+                    entry.name = nextString(json);
+                    break;
+                case "shortDescription":
+                    entry.shortDescription = nextString(json);
+                    break;
+                case "type":
+                    entry.type = nextString(json);
+                    break;
+                case "version":
+                    entry.version = nextString(json);
+                    break;
+                case "wlpInformation":
+                    readWlpInformation(json, entry);
+                    break;
+                default:
+                    json.skipValue();
+            }
+        }
+        json.endObject();
+    }
+
+    private static void readWlpInformation(JsonReader json, FeatureEntry entry) throws IOException {
+        json.beginObject();
+        while (json.hasNext()) {
+            String field = json.nextName();
+            switch (field) {
+                case "visibility":
+                    entry.visibility = nextString(json);
+                    break;
+                case "shortName":
+                    entry.shortName = nextString(json);
+                    break;
+                case "singleton":
+                    entry.singleton = nextString(json);
+                    break;
+                case "provideFeature":
+                    entry.provideFeature = nextStringArray(json);
+                    break;
+                case "requireFeature":
+                    entry.requireFeature = nextStringArray(json);
+                    break;
+                case "requireFeatureWithTolerates":
+                    entry.requireFeatureWithTolerates = readRequireFeatureWithTolerates(json);
+                    break;
+                case "javaSEVersionRequirements":
+                    readJavaSEVersionRequirements(json, entry);
+                    break;
+                default:
+                    json.skipValue();
+            }
+        }
+        json.endObject();
+    }
+
+    private static void readJavaSEVersionRequirements(JsonReader json, FeatureEntry entry) throws IOException {
+        json.beginObject();
+        while (json.hasNext()) {
+            String field = json.nextName();
+            if ("minVersion".equals(field)) {
+                entry.javaMinVersion = nextString(json);
+            } else if ("versionDisplayString".equals(field)) {
+                entry.javaVersionDisplayString = nextString(json);
+            } else {
+                json.skipValue();
+            }
+        }
+        json.endObject();
+    }
+
+    private static ArrayList<RequireFeatureWithTolerates> readRequireFeatureWithTolerates(JsonReader json)
+            throws IOException {
+        if (json.peek() == JsonToken.NULL) {
+            json.nextNull();
+            return null;
+        }
+        ArrayList<RequireFeatureWithTolerates> requirements = new ArrayList<>();
+        json.beginArray();
+        while (json.hasNext()) {
+            RequireFeatureWithTolerates requirement = new RequireFeatureWithTolerates();
+            json.beginObject();
+            while (json.hasNext()) {
+                String field = json.nextName();
+                if ("feature".equals(field)) {
+                    requirement.setFeature(nextString(json));
+                } else if ("tolerates".equals(field)) {
+                    requirement.setTolerates(nextStringArray(json));
+                } else {
+                    json.skipValue();
+                }
+            }
+            json.endObject();
+            requirements.add(requirement);
+        }
+        json.endArray();
+        return requirements;
+    }
+
+    private static String nextString(JsonReader json) throws IOException {
+        if (json.peek() == JsonToken.NULL) {
+            json.nextNull();
+            return null;
+        }
+        return json.nextString();
+    }
+
+    private static ArrayList<String> nextStringArray(JsonReader json) throws IOException {
+        if (json.peek() == JsonToken.NULL) {
+            json.nextNull();
+            return null;
+        }
+        ArrayList<String> values = new ArrayList<>();
+        json.beginArray();
+        while (json.hasNext()) {
+            values.add(nextString(json));
+        }
+        json.endArray();
+        return values;
+    }
+
+    /**
+     * Reusable holder for the fields of the entry currently being read, so that
+     * no feature objects are created for entries that are not needed.
+     */
+    private static class FeatureEntry {
+        String name;
+        String shortDescription;
+        String type;
+        String version;
+        String visibility;
+        String shortName;
+        String singleton;
+        ArrayList<String> provideFeature;
+        ArrayList<String> requireFeature;
+        ArrayList<RequireFeatureWithTolerates> requireFeatureWithTolerates;
+        String javaMinVersion;
+        String javaVersionDisplayString;
+
+        void reset() {
+            name = null;
+            shortDescription = null;
+            type = null;
+            version = null;
+            visibility = null;
+            shortName = null;
+            singleton = null;
+            provideFeature = null;
+            requireFeature = null;
+            requireFeatureWithTolerates = null;
+            javaMinVersion = null;
+            javaVersionDisplayString = null;
+        }
+
+        boolean isPublic() {
+            // lists without visibility only have public features
+            return visibility == null || DfdlConstants.PUBLIC_VISIBILITY.equals(visibility);
+        }
+
+        Node toNode() {
+            return Node.of(name, shortName, singleton, provideFeature, requireFeature, requireFeatureWithTolerates);
+        }
+
+        Feature toFeature() {
+            WlpInformation wlpInformation = new WlpInformation(shortName);
+            wlpInformation.setVisibility(visibility);
+            wlpInformation.setSingleton(singleton);
+            wlpInformation.setProvideFeature(provideFeature);
+            wlpInformation.setRequireFeature(requireFeature);
+            wlpInformation.setRequireFeatureWithTolerates(requireFeatureWithTolerates);
+            if (javaMinVersion != null || javaVersionDisplayString != null) {
+                JavaSEVersionRequirements javaRequirements = new JavaSEVersionRequirements();
+                javaRequirements.setMinVersion(javaMinVersion);
+                javaRequirements.setVersionDisplayString(javaVersionDisplayString);
+                wlpInformation.setJavaSEVersionRequirements(javaRequirements);
+            }
+
+            Feature feature = new Feature();
+            feature.setName(name);
+            feature.setShortDescription(shortDescription);
+            feature.setType(type);
+            feature.setVersion(version);
+            feature.setWlpInformation(wlpInformation);
+            return feature;
+        }
+    }
+}
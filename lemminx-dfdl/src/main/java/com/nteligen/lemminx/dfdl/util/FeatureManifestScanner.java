@@ -0,0 +1,294 @@
+package com.nteligen.lemminx.dfdl.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.concurrent.CancellationException;
+import java.util.jar.Attributes;
+import java.util.jar.Manifest;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.eclipse.lsp4j.jsonrpc.CancelChecker;
+
+import com.nteligen.lemminx.dfdl.models.feature.Feature;
+import com.nteligen.lemminx.dfdl.models.feature.RequireFeatureWithTolerates;
+import com.nteligen.lemminx.dfdl.models.feature.WlpInformation;
+
+/**
+ * Reads the features of a Dfdl installation straight from its feature
+ * manifests (lib/features/*.mf, and usr/extension/lib/features/*.mf for user
+ * features), in parallel, instead of running ws-featurelist.jar in a separate
+ * JVM and unmarshalling the featurelist.xml it writes. Non public features
+ * only keep their dependency information.
+ *
+ * A feature manifest is an OSGi subsystem manifest, ie.
+ *
+ * <pre>
+ * Subsystem-SymbolicName: com.ibm.websphere.appserver.jaxrs-2.1; visibility:=public; singleton:=true
+ * IBM-ShortName: jaxrs-2.1
+ * Subsystem-Name: %name
+ * Subsystem-Description: %description
+ * Subsystem-Localization: OSGI-INF/l10n/com.ibm.websphere.appserver.jaxrs-2.1
+ * Subsystem-Version: 1.0.0
+ * Subsystem-Content: com.ibm.websphere.appserver.servlet-4.0; type="osgi.subsystem.feature", ...
+ * </pre>
+ *
+ * with the localized values in lib/features/l10n/&lt;localization name&gt;.properties.
+ */
+public final class FeatureManifestScanner {
+
+    private static final Logger LOGGER = Logger.getLogger(FeatureManifestScanner.class.getName());
+
+    private static final String FEATURES_DIRECTORY = "lib/features";
+    private static final String USER_FEATURES_DIRECTORY = "usr/extension/lib/features";
+    private static final String USER_FEATURE_PREFIX = "usr:";
+
+    private static final String SYMBOLIC_NAME = "Subsystem-SymbolicName";
+    private static final String SHORT_NAME = "IBM-ShortName";
+    private static final String DESCRIPTION = "Subsystem-Description";
+    private static final String LOCALIZATION = "Subsystem-Localization";
+    private static final String VERSION = "Subsystem-Version";
+    private static final String CONTENT = "Subsystem-Content";
+
+    private static final String FEATURE_CONTENT_TYPE = "osgi.subsystem.feature";
+    private static final String DEFAULT_VISIBILITY = "private";
+
+    private FeatureManifestScanner() {
+    }
+
+    /**
+     * Returns the root of the installation a properties file belongs to, ie.
+     * wlp for wlp/lib/versions/openDfdl.properties.
+     *
+     * @param propertiesFile openDfdl.properties of the installation
+     * @return installation root, or null if the file is not where expected
+     */
+    public static Path getInstallationRoot(Path propertiesFile) {
+        Path versionsDirectory = propertiesFile.getParent();
+        if (versionsDirectory == null || versionsDirectory.getParent() == null) {
+            return null;
+        }
+        return versionsDirectory.getParent().getParent();
+    }
+
+    /**
+     * Reads the features of an installation.
+     *
+     * @param installationRoot root of the installation
+     * @return features, public ones first sorted by short name; empty if the
+     *         installation has no feature manifests
+     * @throws IOException if the feature directories cannot be listed
+     */
+    public static List<Feature> scan(Path installationRoot) throws IOException {
+        return scan(installationRoot, null);
+    }
+
+    /**
+     * Reads the features of an installation, see {@link #scan(Path)}, stopping
+     * as soon as the request is cancelled.
+     *
+     * @param installationRoot root of the installation
+     * @param cancelChecker    checker of the request, may be null
+     * @return features, public ones first sorted by short name
+     * @throws IOException if the feature directories cannot be listed
+     * @throws CancellationException if the request was cancelled
+     */
+    public static List<Feature> scan(Path installationRoot, CancelChecker cancelChecker) throws IOException {
+        List<Path> manifests = new ArrayList<>();
+        listManifests(installationRoot.resolve(FEATURES_DIRECTORY), manifests);
+        int coreManifests = manifests.size();
+        listManifests(installationRoot.resolve(USER_FEATURES_DIRECTORY), manifests);
+
+        List<Feature> features = IntStream.range(0, manifests.size()).parallel()
+                .mapToObj(i -> {
+                    if (cancelChecker != null) {
+                        cancelChecker.checkCanceled();
+                    }
+                    return readFeature(manifests.get(i), i >= coreManifests);
+                })
+                .filter(Objects::nonNull)
+                .sorted(Comparator.comparing((Feature feature) -> feature.getWlpInformation().getShortName(),
+                        Comparator.nullsLast(Comparator.naturalOrder())).thenComparing(Feature::getName))
+                .collect(Collectors.toList());
+        LOGGER.fine("Read " + features.size() + " features from " + manifests.size()
+                + " feature manifests in " + installationRoot);
+        return features;
+    }
+
+    private static void listManifests(Path featuresDirectory, List<Path> manifests) throws IOException {
+        if (!Files.isDirectory(featuresDirectory)) {
+            return;
+        }
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(featuresDirectory, "*.mf")) {
+            for (Path manifest : stream) {
+                manifests.add(manifest);
+            }
+        }
+    }
+
+    /**
+     * @return the feature described by the manifest, or null if it is not a
+     *         feature manifest
+     */
+    private static Feature readFeature(Path manifestFile, boolean userFeature) {
+        Attributes attributes;
+        try (InputStream in = Files.newInputStream(manifestFile)) {
+            attributes = new Manifest(in).getMainAttributes();
+        } catch (IOException e) {
+            LOGGER.warning("Unable to read feature manifest " + manifestFile + ": " + e.getMessage());
+            return null;
+        }
+
+        List<String[]> symbolicNameClauses = parseHeader(attributes.getValue(SYMBOLIC_NAME));
+        if (symbolicNameClauses.isEmpty()) {
+            return null;
+        }
+        String[] symbolicName = symbolicNameClauses.get(0);
+        String visibility = getDirective(symbolicName, "visibility");
+        if (visibility == null) {
+            visibility = DEFAULT_VISIBILITY;
+        }
+        Feature feature = new Feature();
+        String shortName = null;
+        if ("public".equals(visibility)) {
+            shortName = attributes.getValue(SHORT_NAME);
+            if (shortName == null || shortName.trim().isEmpty()) {
+                // public features are always given a short name, use the symbolic name otherwise
+                shortName = symbolicName[0];
+            }
+            shortName = shortName.trim();
+            if (userFeature) {
+                shortName = USER_FEATURE_PREFIX + shortName;
+            }
+
+            Properties localization = readLocalization(manifestFile, attributes.getValue(LOCALIZATION));
+            feature.setName(shortName);
+            feature.setDescription(localize(attributes.getValue(DESCRIPTION), localization));
+            feature.setShortDescription(feature.getDescription());
+        } else {
+            feature.setName(symbolicName[0]);
+        }
+        feature.setVersion(attributes.getValue(VERSION));
+
+        WlpInformation wlpInformation = new WlpInformation(shortName);
+        wlpInformation.setVisibility(visibility.toUpperCase(Locale.ROOT));
+        String singleton = getDirective(symbolicName, "singleton");
+        if (singleton != null) {
+            wlpInformation.setSingleton(singleton);
+        }
+        ArrayList<String> provideFeature = new ArrayList<>();
+        provideFeature.add(symbolicName[0]);
+        wlpInformation.setProvideFeature(provideFeature);
+        ArrayList<String> requireFeature = new ArrayList<>();
+        ArrayList<RequireFeatureWithTolerates> requireFeatureWithTolerates = new ArrayList<>();
+        for (String[] content : parseHeader(attributes.getValue(CONTENT))) {
+            if (FEATURE_CONTENT_TYPE.equals(getAttribute(content, "type"))) {
+                requireFeature.add(content[0]);
+                RequireFeatureWithTolerates requirement = new RequireFeatureWithTolerates();
+                requirement.setFeature(content[0]);
+                String tolerates = getDirective(content, "ibm.tolerates");
+                if (tolerates != null) {
+                    requirement.setTolerates(new ArrayList<>(split(tolerates, ',')));
+                }
+                requireFeatureWithTolerates.add(requirement);
+            }
+        }
+        wlpInformation.setRequireFeature(requireFeature);
+        wlpInformation.setRequireFeatureWithTolerates(requireFeatureWithTolerates);
+        feature.setWlpInformation(wlpInformation);
+        return feature;
+    }
+
+    private static Properties readLocalization(Path manifestFile, String localization) {
+        Properties properties = new Properties();
+        if (localization == null) {
+            return properties;
+        }
+        // OSGI-INF/l10n/<name> in the subsystem, installed as l10n/<name>.properties
+        String name = localization.trim();
+        name = name.substring(name.lastIndexOf('/') + 1);
+        Path localizationFile = manifestFile.resolveSibling("l10n").resolve(name + ".properties");
+        if (Files.isRegularFile(localizationFile)) {
+            try (InputStream in = Files.newInputStream(localizationFile)) {
+                properties.load(in);
+            } catch (IOException e) {
+                LOGGER.fine("Unable to read feature localization " + localizationFile + ": " + e.getMessage());
+            }
+        }
+        return properties;
+    }
+
+    private static String localize(String value, Properties localization) {
+        if (value != null && value.startsWith("%")) {
+            return localization.getProperty(value.substring(1), value);
+        }
+        return value;
+    }
+
+    /**
+     * Splits a manifest header into clauses, each one a name followed by its
+     * attributes and directives, ignoring separators inside quotes.
+     */
+    static List<String[]> parseHeader(String header) {
+        List<String[]> clauses = new ArrayList<>();
+        if (header == null) {
+            return clauses;
+        }
+        for (String clause : split(header, ',')) {
+            List<String> parameters = split(clause, ';');
+            if (!parameters.isEmpty() && !parameters.get(0).isEmpty()) {
+                clauses.add(parameters.toArray(new String[parameters.size()]));
+            }
+        }
+        return clauses;
+    }
+
+    private static List<String> split(String value, char separator) {
+        List<String> parts = new ArrayList<>();
+        boolean quoted = false;
+        int start = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                quoted = !quoted;
+            } else if (c == separator && !quoted) {
+                parts.add(value.substring(start, i).trim());
+                start = i + 1;
+            }
+        }
+        parts.add(value.substring(start).trim());
+        return parts;
+    }
+
+    private static String getDirective(String[] clause, String name) {
+        return getParameter(clause, name + ":=");
+    }
+
+    private static String getAttribute(String[] clause, String name) {
+        return getParameter(clause, name + "=");
+    }
+
+    private static String getParameter(String[] clause, String prefix) {
+        for (int i = 1; i < clause.length; i++) {
+            String parameter = clause[i].replace(" ", "");
+            if (parameter.startsWith(prefix)) {
+                String value = parameter.substring(prefix.length());
+                if (value.length() >= 2 && value.startsWith("\"") && value.endsWith("\"")) {
+                    value = value.substring(1, value.length() - 1);
+                }
+                return value;
+            }
+        }
+        return null;
+    }
+}
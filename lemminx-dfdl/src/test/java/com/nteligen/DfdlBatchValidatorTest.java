@@ -0,0 +1,151 @@
+package com.nteligen;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.nteligen.lemminx.dfdl.DfdlBatchValidator;
+import com.nteligen.lemminx.dfdl.services.FeatureService;
+import com.nteligen.lemminx.dfdl.services.SettingsService;
+import com.nteligen.lemminx.dfdl.util.DfdlConstants;
+
+/**
+ * Tests validating a tree of server.xml files from the command line.
+ */
+public class DfdlBatchValidatorTest {
+
+    @TempDir
+    Path tree;
+
+    @BeforeEach
+    public void createTree() throws IOException {
+        write("app1/src/main/dfdl/config/server.xml", "jaxrs-2.1", "servlet-4.0");
+        // a feature that does not exist and a duplicate
+        write("app2/src/main/dfdl/config/server.xml", "jaxrs-2.1", "unknown-1.0", "jaxrs-2.1");
+        Files.write(tree.resolve("app2/README.md"), "not a server.xml".getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testJsonReport() throws Exception {
+        Path report = tree.resolve("report.json");
+        ByteArrayOutputStream err = new ByteArrayOutputStream();
+        int exitCode = DfdlBatchValidator.run(new String[] { "--output", report.toString(), tree.toString() },
+                System.out, new PrintStream(err, true, "UTF-8"));
+
+        assertEquals(1, exitCode);
+        JsonObject json = read(report).getAsJsonObject();
+        assertEquals(2, json.get("files").getAsInt());
+        assertEquals(2, json.get("diagnostics").getAsInt());
+        JsonArray results = json.getAsJsonArray("results");
+        assertEquals(1, results.size());
+        JsonArray diagnostics = results.get(0).getAsJsonObject().getAsJsonArray("diagnostics");
+        assertEquals("ERROR: The feature \"unknown-1.0\" does not exist.",
+                diagnostics.get(0).getAsJsonObject().get("message").getAsString());
+        assertEquals(4, diagnostics.get(0).getAsJsonObject().get("startLine").getAsInt());
+        assertEquals("ERROR: jaxrs-2.1 is already included.",
+                diagnostics.get(1).getAsJsonObject().get("message").getAsString());
+    }
+
+    @Test
+    public void testSarifReport() throws Exception {
+        Path report = tree.resolve("report.sarif");
+        int exitCode = DfdlBatchValidator.run(
+                new String[] { "--format", "sarif", "--threads", "2", "--output", report.toString(), tree.toString() },
+                System.out, System.err);
+
+        assertEquals(1, exitCode);
+        JsonObject sarif = read(report).getAsJsonObject();
+        assertEquals("2.1.0", sarif.get("version").getAsString());
+        JsonArray results = sarif.getAsJsonArray("runs").get(0).getAsJsonObject().getAsJsonArray("results");
+        assertEquals(2, results.size());
+        assertEquals("error", results.get(0).getAsJsonObject().get("level").getAsString());
+    }
+
+    @Test
+    public void testValidTree() throws Exception {
+        Files.delete(tree.resolve("app2/src/main/dfdl/config/server.xml"));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        int exitCode = DfdlBatchValidator.run(new String[] { tree.toString() }, new PrintStream(out, true, "UTF-8"),
+                System.err);
+
+        assertEquals(0, exitCode);
+        JsonObject json = new JsonParser().parse(out.toString("UTF-8")).getAsJsonObject();
+        assertEquals(1, json.get("files").getAsInt());
+        assertEquals(0, json.getAsJsonArray("results").size());
+    }
+
+    @Test
+    public void testUncachedVersionWarning() throws Exception {
+        ByteArrayOutputStream err = new ByteArrayOutputStream();
+        DfdlBatchValidator.run(new String[] { "--version", "99.0.0.1", tree.toString() },
+                new PrintStream(new ByteArrayOutputStream(), true, "UTF-8"), new PrintStream(err, true, "UTF-8"));
+        assertTrue(err.toString("UTF-8").startsWith("Warning: the feature list of Dfdl 99.0.0.1 is not in the"
+                + " LemMinx cache, validating against the bundled feature list of Dfdl "
+                + DfdlConstants.DEFAULT_SERVER_VERSION));
+    }
+
+    @Test
+    public void testSettingsAreRestored() throws Exception {
+        JsonObject DfdlSettings = new JsonObject();
+        DfdlSettings.addProperty("requestDelay", 10);
+        JsonObject xmlSettings = new JsonObject();
+        xmlSettings.add("Dfdl", DfdlSettings);
+        SettingsService settingsService = SettingsService.getInstance();
+        settingsService.updateDfdlSettings(xmlSettings);
+        try {
+            DfdlBatchValidator.run(new String[] { "--version", "99.0.0.1", tree.toString() },
+                    new PrintStream(new ByteArrayOutputStream(), true, "UTF-8"),
+                    new PrintStream(new ByteArrayOutputStream(), true, "UTF-8"));
+
+            // ie. for a language server running in the same process
+            assertNull(settingsService.getDfdlVersion());
+            assertEquals(10, settingsService.getRequestDelay());
+            assertTrue(FeatureService.getInstance().isRemoteFetchEnabled());
+        } finally {
+            settingsService.updateDfdlSettings(new JsonObject());
+        }
+    }
+
+    @Test
+    public void testUsage() throws Exception {
+        assertEquals(2, DfdlBatchValidator.run(new String[] { "--format", "xml", tree.toString() }, System.out,
+                new PrintStream(new ByteArrayOutputStream(), true, "UTF-8")));
+    }
+
+    private void write(String path, String... features) throws IOException {
+        StringBuilder serverXML = new StringBuilder();
+        serverXML.append("<server description=\"Sample Dfdl server\">\n");
+        serverXML.append("    <featureManager>\n");
+        for (String feature : features) {
+            serverXML.append("        <feature>").append(feature).append("</feature>\n");
+        }
+        serverXML.append("    </featureManager>\n");
+        serverXML.append("</server>\n");
+        Path file = tree.resolve(path);
+        Files.createDirectories(file.getParent());
+        Files.write(file, serverXML.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static JsonElement read(Path file) throws IOException {
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            return new JsonParser().parse(reader);
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.nteligen;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.file.Path;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.google.gson.JsonObject;
+import com.sun.net.httpserver.HttpServer;
+
+import org.eclipse.lsp4j.jsonrpc.CancelChecker;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.nteligen.lemminx.dfdl.services.FeatureIndex;
+import com.nteligen.lemminx.dfdl.services.FeatureService;
+import com.nteligen.lemminx.dfdl.services.SettingsService;
+import com.nteligen.lemminx.dfdl.services.WorkspaceFileIndex;
+
+/**
+ * Tests that cancelled requests give up instead of waiting for workspace
+ * indexing, and that requests do not wait for a stalled Maven repository at
+ * all.
+ */
+public class DfdlCancellationTest {
+
+    // version whose feature list is never published by the stalled repository
+    private static final String STALLED_VERSION = "90.0.1.1";
+
+    private HttpServer mavenServer;
+    private ExecutorService mavenExecutor;
+    private final AtomicInteger requests = new AtomicInteger();
+    private final CountDownLatch requested = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final CountDownLatch answered = new CountDownLatch(1);
+
+    @BeforeEach
+    public void startMavenServer() throws IOException {
+        mavenServer = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        mavenExecutor = Executors.newCachedThreadPool();
+        mavenServer.setExecutor(mavenExecutor);
+        // a repository that only answers once the test releases it
+        mavenServer.createContext("/maven2", exchange -> {
+            requests.incrementAndGet();
+            requested.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.sendResponseHeaders(404, -1);
+            exchange.close();
+            answered.countDown();
+        });
+        mavenServer.start();
+
+        JsonObject DfdlSettings = new JsonObject();
+        DfdlSettings.addProperty("featureRepository",
+                "http://localhost:" + mavenServer.getAddress().getPort() + "/maven2");
+        JsonObject xmlSettings = new JsonObject();
+        xmlSettings.add("Dfdl", DfdlSettings);
+        SettingsService.getInstance().updateDfdlSettings(xmlSettings);
+    }
+
+    @AfterEach
+    public void stopMavenServer() {
+        release.countDown();
+        mavenServer.stop(0);
+        mavenExecutor.shutdownNow();
+        SettingsService.getInstance().updateDfdlSettings(new JsonObject());
+    }
+
+    /**
+     * Checker of a request that is cancelled on a given check, counting the
+     * checks made.
+     */
+    private static class CountingCancelChecker implements CancelChecker {
+        private final int cancellingCheck;
+        private final AtomicInteger checks = new AtomicInteger();
+
+        CountingCancelChecker(int cancellingCheck) {
+            this.cancellingCheck = cancellingCheck;
+        }
+
+        @Override
+        public void checkCanceled() {
+            if (checks.incrementAndGet() >= cancellingCheck) {
+                throw new CancellationException();
+            }
+        }
+    }
+
+    @Test
+    public void testCancelledLookupDoesNotWaitForIndexing(@TempDir Path folder) {
+        // never started, so the initial scan never completes
+        WorkspaceFileIndex fileIndex = new WorkspaceFileIndex(folder);
+
+        // the lookup checks for cancellation while it waits for the scan, and
+        // gives up on the check that finds the request cancelled
+        CountingCancelChecker cancelChecker = new CountingCancelChecker(3);
+        assertThrows(CancellationException.class, () -> fileIndex.findFile("openDfdl.properties", cancelChecker));
+        assertEquals(3, cancelChecker.checks.get());
+        assertFalse(fileIndex.isReady());
+    }
+
+    @Test
+    public void testRequestDoesNotWaitForStalledRepository() throws InterruptedException {
+        FeatureService featureService = FeatureService.getInstance();
+        FeatureIndex defaultFeatures = featureService.getDefaultFeatureIndex();
+        CountingCancelChecker neverCancelled = new CountingCancelChecker(Integer.MAX_VALUE);
+        // the first request starts fetching the feature list of the version
+        assertSame(defaultFeatures,
+                featureService.getFeatureIndex(STALLED_VERSION, 0, "test/server.xml", neverCancelled));
+        assertTrue(requested.await(10, TimeUnit.SECONDS));
+
+        // while the repository holds the fetch, the next request answers with
+        // the default list instead of waiting for it, and shares the fetch
+        assertSame(defaultFeatures,
+                featureService.getFeatureIndex(STALLED_VERSION, 0, "test/server.xml", neverCancelled));
+        assertEquals(1, answered.getCount());
+        assertEquals(1, requests.get());
+    }
+}
@@ -75,6 +75,7 @@ public class DfdlCompletionTest {
                 CompletionItem websocket = c("websocket-1.1", "websocket-1.1");
                 CompletionItem microProfileCompletion = c("microProfile-2.2", "microProfile-2.2");
 
+                // every feature is listed, without documentation
                 // would be 158 if mpConfig-1.4 was not already specified
                 final int TOTAL_ITEMS = 157; // total number of available completion items
 
@@ -82,4 +83,45 @@ public class DfdlCompletionTest {
                                 microProfileCompletion);
         }
 
+        // Tests that feature completion is narrowed down to the features matching
+        // the partially typed name, including capability segments
+        @Test
+        public void testFeatureCompletionItemWithPrefix() throws BadLocationException {
+                String serverXML = String.join(newLine, //
+                                "<server description=\"Sample Dfdl server\">", //
+                                "       <featureManager>", //
+                                "               <feature>jaxrs|</feature>", //
+                                "               <feature>jaxrs-2.0</feature>", //
+                                "       </featureManager>", //
+                                "</server>" //
+                );
+
+                CompletionItem jaxrsCompletion = c("jaxrs-2.1", "jaxrs-2.1");
+                CompletionItem jaxrsClientCompletion = c("jaxrsClient-2.1", "jaxrsClient-2.1");
+
+                // jaxrs-2.1, jaxrsClient-2.0 and jaxrsClient-2.1 (jaxrs-2.0 is already
+                // specified), plus the 2 items that are not features
+                final int TOTAL_ITEMS = 5; // total number of available completion items
+
+                XMLAssert.testCompletionFor(serverXML, null, serverXMLURI, TOTAL_ITEMS, jaxrsCompletion,
+                                jaxrsClientCompletion);
+
+                serverXML = String.join(newLine, //
+                                "<server description=\"Sample Dfdl server\">", //
+                                "       <featureManager>", //
+                                "               <feature>config|</feature>", //
+                                "       </featureManager>", //
+                                "</server>" //
+                );
+
+                // once the list is narrowed down, the items are documented
+                CompletionItem mpConfigCompletion = c("mpConfig-1.4", te(2, 24, 2, 30, "mpConfig-1.4"), null,
+                                "The Eclipse MicroProfile Config specification provides a unified mechanism to access "
+                                                + "configuration, providing a single view of multiple sources.");
+
+                // mpConfig-1.1, mpConfig-1.2, mpConfig-1.3 and mpConfig-1.4, plus the 2
+                // items that are not features
+                XMLAssert.testCompletionFor(serverXML, null, serverXMLURI, 6, mpConfigCompletion);
+        }
+
 }
@@ -0,0 +1,71 @@
+package com.nteligen;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.nteligen.lemminx.dfdl.services.FeatureService;
+import com.nteligen.lemminx.dfdl.util.DfdlConstants;
+import com.nteligen.lemminx.dfdl.util.FeatureCatalogFile;
+
+/**
+ * Tests that the default feature catalog in the LemMinx cache is replaced when
+ * it differs from the bundled one, so that it can always be memory-mapped.
+ */
+public class DfdlDefaultFeatureCatalogTest {
+
+    @TempDir
+    Path cacheFolder;
+
+    @Test
+    public void testOutdatedCatalogIsReplaced() throws IOException {
+        byte[] bundledCatalog = readBundledCatalog();
+        Path catalogFile = cacheFolder.resolve("features.catalog");
+        // left behind by a build that wrote an older format
+        byte[] oldCatalog = bundledCatalog.clone();
+        ByteBuffer.wrap(oldCatalog).putInt(4, FeatureCatalogFile.FORMAT_VERSION - 1);
+        Files.write(catalogFile, oldCatalog);
+        assertThrows(IOException.class, () -> FeatureCatalogFile.map(catalogFile));
+
+        FeatureCatalogFile catalog = FeatureService.loadDefaultFeatureCatalog(catalogFile);
+        assertArrayEquals(bundledCatalog, Files.readAllBytes(catalogFile));
+        assertTrue(catalog.size() > 0);
+        assertEquals(FeatureCatalogFile.wrap(bundledCatalog).size(), catalog.size());
+    }
+
+    @Test
+    public void testUpToDateCatalogIsNotRewritten() throws IOException {
+        Path catalogFile = cacheFolder.resolve("features.catalog");
+        Files.write(catalogFile, readBundledCatalog());
+        FileTime lastModified = FileTime.fromMillis(0);
+        Files.setLastModifiedTime(catalogFile, lastModified);
+
+        assertTrue(FeatureService.loadDefaultFeatureCatalog(catalogFile).size() > 0);
+        assertEquals(lastModified, Files.getLastModifiedTime(catalogFile));
+    }
+
+    private static byte[] readBundledCatalog() throws IOException {
+        String location = "/features-" + DfdlConstants.DEFAULT_SERVER_VERSION + ".catalog";
+        try (InputStream in = DfdlDefaultFeatureCatalogTest.class.getResourceAsStream(location)) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+            return out.toByteArray();
+        }
+    }
+}
@@ -60,4 +60,24 @@ public class DfdlDiagnosticTest {
         XMLAssert.testDiagnosticsFor(serverXML, null, null, serverXMLURI, invalid1, invalid2);
     }
 
-}
\ No newline at end of file
+    @Test
+    public void testSingletonConflictDiagnostic() {
+        String serverXML = String.join(newLine, //
+                "<server description=\"Sample Dfdl server\">", //
+                "       <featureManager>", //
+                "               <feature>cdi-1.2</feature>", //
+                "               <feature>servlet-4.0</feature>", //
+                "       </featureManager>", //
+                "</server>" //
+        );
+        // cdi-1.2 is a Java EE 7 feature, servlet-4.0 a Java EE 8 one
+        Diagnostic conflict = new Diagnostic();
+        conflict.setRange(r(3, 24, 3, 35));
+        conflict.setMessage("ERROR: cdi-1.2 and servlet-4.0 cannot be used together: they enable"
+                + " com.ibm.websphere.appserver.eeCompatible-7.0 and com.ibm.websphere.appserver.eeCompatible-8.0,"
+                + " conflicting versions of a singleton feature.");
+
+        XMLAssert.testDiagnosticsFor(serverXML, null, null, serverXMLURI, conflict);
+    }
+
+}
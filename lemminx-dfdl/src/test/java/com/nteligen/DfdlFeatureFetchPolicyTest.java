@@ -0,0 +1,105 @@
+package com.nteligen;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+import com.nteligen.lemminx.dfdl.services.FeatureFetchPolicy;
+
+/**
+ * Tests the per-version backoff and the circuit breaker that decide when
+ * feature lists are fetched from Maven, against a fake clock.
+ */
+public class DfdlFeatureFetchPolicyTest {
+
+    static long SECOND = 1000L;
+    static long MINUTE = 60 * SECOND;
+    static long HOUR = 60 * MINUTE;
+
+    private final AtomicLong now = new AtomicLong(1000000L);
+    private final FeatureFetchPolicy policy = new FeatureFetchPolicy(now::get);
+
+    @Test
+    public void testFailedVersionBacksOffExponentially() {
+        assertTrue(policy.tryAcquire("21.0.0.1"));
+        policy.onFailure("21.0.0.1", 10, false);
+
+        assertFalse(policy.tryAcquire("21.0.0.1"));
+        // other versions are not held back
+        assertTrue(policy.tryAcquire("21.0.0.2"));
+
+        now.addAndGet(10 * SECOND);
+        assertTrue(policy.tryAcquire("21.0.0.1"));
+        policy.onFailure("21.0.0.1", 10, false);
+        now.addAndGet(10 * SECOND);
+        assertFalse(policy.tryAcquire("21.0.0.1"));
+        now.addAndGet(10 * SECOND);
+        assertTrue(policy.tryAcquire("21.0.0.1"));
+
+        // capped at an hour
+        for (int i = 0; i < 20; i++) {
+            policy.onFailure("21.0.0.1", 10, false);
+        }
+        now.addAndGet(HOUR);
+        assertTrue(policy.tryAcquire("21.0.0.1"));
+
+        policy.onSuccess("21.0.0.1");
+        assertTrue(policy.tryAcquire("21.0.0.1"));
+    }
+
+    @Test
+    public void testNotFoundVersionIsNotRetried() {
+        assertTrue(policy.tryAcquire("99.0.0.1"));
+        policy.onNotFound("99.0.0.1");
+
+        now.addAndGet(HOUR);
+        assertFalse(policy.tryAcquire("99.0.0.1"));
+        assertTrue(policy.tryAcquire("21.0.0.1"));
+
+        now.addAndGet(6 * HOUR);
+        assertTrue(policy.tryAcquire("99.0.0.1"));
+    }
+
+    @Test
+    public void testCircuitOpensWhileNetworkIsDown() {
+        policy.onFailure("21.0.0.1", 1, true);
+        policy.onFailure("21.0.0.2", 1, true);
+        assertFalse(policy.isCircuitOpen());
+        policy.onFailure("21.0.0.3", 1, true);
+        assertTrue(policy.isCircuitOpen());
+
+        // no version may be fetched, not even one that never failed
+        assertFalse(policy.tryAcquire("21.0.0.4"));
+        now.addAndGet(30 * SECOND);
+        assertFalse(policy.tryAcquire("21.0.0.4"));
+
+        // a single trial once the circuit has been open for a minute
+        now.addAndGet(30 * SECOND);
+        assertTrue(policy.tryAcquire("21.0.0.4"));
+        assertFalse(policy.tryAcquire("21.0.0.5"));
+
+        // failed trial, open for two more minutes
+        policy.onFailure("21.0.0.4", 1, true);
+        now.addAndGet(MINUTE);
+        assertFalse(policy.tryAcquire("21.0.0.5"));
+        now.addAndGet(MINUTE);
+        assertTrue(policy.tryAcquire("21.0.0.5"));
+
+        // successful trial closes the circuit
+        policy.onSuccess("21.0.0.5");
+        assertFalse(policy.isCircuitOpen());
+        assertTrue(policy.tryAcquire("21.0.0.6"));
+    }
+
+    @Test
+    public void testErrorResponsesDoNotOpenCircuit() {
+        for (int i = 0; i < 10; i++) {
+            policy.onFailure("21.0.0." + i, 1, false);
+        }
+        assertFalse(policy.isCircuitOpen());
+        assertTrue(policy.tryAcquire("21.0.0.10"));
+    }
+}
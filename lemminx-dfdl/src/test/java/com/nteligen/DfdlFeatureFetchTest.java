@@ -0,0 +1,349 @@
+package com.nteligen;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import com.google.gson.JsonObject;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.nteligen.lemminx.dfdl.models.feature.Feature;
+import com.nteligen.lemminx.dfdl.models.feature.WlpInformation;
+import com.nteligen.lemminx.dfdl.services.FeatureIndex;
+import com.nteligen.lemminx.dfdl.services.FeatureListCache;
+import com.nteligen.lemminx.dfdl.services.FeatureService;
+import com.nteligen.lemminx.dfdl.services.SettingsService;
+
+/**
+ * Tests that feature lists are fetched from Maven in the background and cached
+ * on disk, against a local stand-in for the Maven repository.
+ */
+public class DfdlFeatureFetchTest {
+
+    static String serverXMLURI = "test/server.xml";
+
+    // a feature list with a single public feature
+    static String FEATURE_LIST = "[{\"name\":\"Test Feature\",\"shortDescription\":\"A test feature.\","
+            + "\"version\":\"1.0.0\",\"wlpInformation\":{\"shortName\":\"test-1.0\",\"visibility\":\"PUBLIC\"}}]";
+
+    // keeps the cached feature lists out of the LemMinx cache
+    @TempDir
+    Path cacheDirectory;
+
+    private HttpServer mavenServer;
+    private ExecutorService mavenExecutor;
+    private Consumer<String> listener;
+
+    @BeforeEach
+    public void startMavenServer() throws IOException {
+        FeatureService.getInstance().setFeatureListCacheDirectory(cacheDirectory);
+        mavenServer = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        mavenExecutor = Executors.newCachedThreadPool();
+        mavenServer.setExecutor(mavenExecutor);
+        mavenServer.start();
+
+        JsonObject DfdlSettings = new JsonObject();
+        DfdlSettings.addProperty("featureRepository",
+                "http://localhost:" + mavenServer.getAddress().getPort() + "/maven2");
+        JsonObject xmlSettings = new JsonObject();
+        xmlSettings.add("Dfdl", DfdlSettings);
+        SettingsService.getInstance().updateDfdlSettings(xmlSettings);
+    }
+
+    @AfterEach
+    public void stopMavenServer() {
+        if (listener != null) {
+            FeatureService.getInstance().removeFeatureListListener(listener);
+        }
+        mavenServer.stop(0);
+        mavenExecutor.shutdownNow();
+        SettingsService.getInstance().updateDfdlSettings(new JsonObject());
+        FeatureService.getInstance().setFeatureListCacheDirectory(null);
+    }
+
+    @Test
+    public void testSlowFetchDoesNotBlock() throws InterruptedException {
+        String version = "90.0.0.1";
+        CountDownLatch fetched = awaitFeatureList(version);
+        CountDownLatch release = new CountDownLatch(1);
+        serve(version, exchange -> {
+            // answer once the request has been answered without it
+            await(release);
+            respond(exchange, 200, FEATURE_LIST);
+        });
+
+        FeatureIndex features = FeatureService.getInstance().getFeatureIndex(version, 0, serverXMLURI);
+        // answered with the default feature list while the fetch is in flight
+        assertTrue(features.featureExists("jaxrs-2.1"));
+        assertFalse(features.featureExists("test-1.0"));
+
+        release.countDown();
+        assertTrue(fetched.await(10, TimeUnit.SECONDS));
+        features = FeatureService.getInstance().getFeatureIndex(version, 0, serverXMLURI);
+        assertEquals(1, features.size());
+        assertTrue(features.featureExists("test-1.0"));
+    }
+
+    @Test
+    public void testHungFetchDoesNotBlock() throws InterruptedException {
+        String version = "90.0.0.2";
+        CountDownLatch fetched = awaitFeatureList(version);
+        CountDownLatch requested = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        serve(version, exchange -> {
+            requested.countDown();
+            // never answer until the test is over
+            await(release);
+        });
+
+        try {
+            FeatureIndex features = FeatureService.getInstance().getFeatureIndex(version, 0, serverXMLURI);
+            assertTrue(features.featureExists("jaxrs-2.1"));
+
+            assertTrue(requested.await(10, TimeUnit.SECONDS));
+            // still answering while the connection hangs
+            features = FeatureService.getInstance().getFeatureIndex(version, 0, serverXMLURI);
+            assertTrue(features.featureExists("jaxrs-2.1"));
+            assertEquals(1, fetched.getCount());
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    public void testFailedFetchFallsBack() throws InterruptedException {
+        String version = "90.0.0.3";
+        CountDownLatch fetched = awaitFeatureList(version);
+        CountDownLatch requested = new CountDownLatch(1);
+        serve(version, exchange -> {
+            respond(exchange, 500, "Internal Server Error");
+            requested.countDown();
+        });
+
+        FeatureIndex features = FeatureService.getInstance().getFeatureIndex(version, 0, serverXMLURI);
+        assertTrue(features.featureExists("jaxrs-2.1"));
+
+        assertTrue(requested.await(10, TimeUnit.SECONDS));
+        // a failed fetch never notifies the listeners
+        assertEquals(1, fetched.getCount());
+        features = FeatureService.getInstance().getFeatureIndex(version, 0, serverXMLURI);
+        assertTrue(features.featureExists("jaxrs-2.1"));
+        assertFalse(features.featureExists("test-1.0"));
+    }
+
+    @Test
+    public void testMissingVersionIsNotRequestedAgain() throws InterruptedException {
+        String version = "90.0.0.8";
+        AtomicInteger requests = new AtomicInteger();
+        CountDownLatch requested = new CountDownLatch(1);
+        serve(version, exchange -> {
+            requests.incrementAndGet();
+            respond(exchange, 404, "Not Found");
+            requested.countDown();
+        });
+
+        FeatureService.getInstance().getFeatureIndex(version, 0, serverXMLURI);
+        assertTrue(requested.await(10, TimeUnit.SECONDS));
+        sleep(200);
+        for (int i = 0; i < 10; i++) {
+            FeatureIndex features = FeatureService.getInstance().getFeatureIndex(version, 0, serverXMLURI);
+            assertTrue(features.featureExists("jaxrs-2.1"));
+        }
+        sleep(200);
+        assertEquals(1, requests.get());
+    }
+
+    @Test
+    public void testWarmStartServesDiskCache() throws IOException {
+        String version = "90.0.0.4";
+        AtomicInteger requests = new AtomicInteger();
+        serve(version, exchange -> {
+            requests.incrementAndGet();
+            respond(exchange, 200, FEATURE_LIST);
+        });
+        // as left behind by a previous session
+        new FeatureListCache(cacheDirectory).store(featureListURL(version), testFeatures(), "\"v1\"", null);
+
+        FeatureIndex features = FeatureService.getInstance().getFeatureIndex(version, 0, serverXMLURI);
+        assertTrue(features.featureExists("cached-1.0"));
+        assertEquals(0, requests.get());
+    }
+
+    @Test
+    public void testStaleDiskCacheIsRevalidated() throws IOException, InterruptedException {
+        String version = "90.0.0.5";
+        CountDownLatch revalidated = new CountDownLatch(1);
+        List<String> ifNoneMatch = new ArrayList<>();
+        serve(version, exchange -> {
+            ifNoneMatch.add(exchange.getRequestHeaders().getFirst("If-None-Match"));
+            exchange.sendResponseHeaders(304, -1);
+            exchange.close();
+            revalidated.countDown();
+        });
+        String url = featureListURL(version);
+        FeatureListCache cache = new FeatureListCache(cacheDirectory);
+        cache.store(url, testFeatures(), "\"v1\"", null);
+        // age the cached entry
+        Path metadataFile = Paths.get(cache.getCachePath(url) + ".properties");
+        Properties metadata = new Properties();
+        try (InputStream in = Files.newInputStream(metadataFile)) {
+            metadata.load(in);
+        }
+        metadata.setProperty("fetchTime", "0");
+        try (OutputStream out = Files.newOutputStream(metadataFile)) {
+            metadata.store(out, null);
+        }
+
+        FeatureIndex features = FeatureService.getInstance().getFeatureIndex(version, 0, serverXMLURI);
+        assertTrue(features.featureExists("cached-1.0"));
+        assertTrue(revalidated.await(10, TimeUnit.SECONDS));
+        assertEquals("\"v1\"", ifNoneMatch.get(0));
+        features = FeatureService.getInstance().getFeatureIndex(version, 0, serverXMLURI);
+        assertTrue(features.featureExists("cached-1.0"));
+    }
+
+    @Test
+    public void testCorruptDiskCacheIsDiscarded() throws IOException {
+        String url = featureListURL("90.0.0.6");
+        FeatureListCache cache = new FeatureListCache(cacheDirectory);
+        cache.store(url, testFeatures(), null, null);
+        assertNotNull(cache.load(url));
+
+        // truncate the cached catalog as if it had only partially been written
+        Path catalogFile = Paths.get(cache.getCachePath(url) + ".catalog");
+        byte[] catalog = Files.readAllBytes(catalogFile);
+        Files.write(catalogFile, Arrays.copyOf(catalog, catalog.length / 2));
+
+        assertNull(cache.load(url));
+        assertFalse(Files.exists(catalogFile));
+    }
+
+    @Test
+    public void testConcurrentRequestsShareOneFetch() throws Exception {
+        String version = "90.0.0.7";
+        CountDownLatch fetched = awaitFeatureList(version);
+        AtomicInteger requests = new AtomicInteger();
+        serve(version, exchange -> {
+            requests.incrementAndGet();
+            sleep(200);
+            respond(exchange, 200, FEATURE_LIST);
+        });
+
+        int defaultSize = FeatureService.getInstance().getFeatures(null, 0, serverXMLURI).size();
+        int threads = 16;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService callers = Executors.newFixedThreadPool(threads);
+        List<Future<?>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < threads; i++) {
+                results.add(callers.submit(() -> {
+                    start.await();
+                    // keep asking until well after the fetch has completed
+                    for (int call = 0; call < 200; call++) {
+                        List<Feature> features = FeatureService.getInstance().getFeatures(version, 0, serverXMLURI);
+                        // either the whole default list or the whole fetched list
+                        boolean fetchedList = features.size() == 1
+                                && "test-1.0".equals(features.get(0).getWlpInformation().getShortName());
+                        assertTrue(fetchedList || features.size() == defaultSize);
+                        sleep(2);
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> result : results) {
+                result.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            callers.shutdownNow();
+        }
+
+        assertTrue(fetched.await(10, TimeUnit.SECONDS));
+        assertEquals(1, requests.get());
+        assertTrue(FeatureService.getInstance().featureExists("test-1.0", version, 0, serverXMLURI));
+    }
+
+    private String featureListURL(String version) {
+        return String.format("http://localhost:%d/maven2/io/openDfdl/features/features/%s/features-%s.json",
+                mavenServer.getAddress().getPort(), version, version);
+    }
+
+    private static FeatureIndex testFeatures() {
+        Feature feature = new Feature();
+        feature.setName("Cached Feature");
+        feature.setShortDescription("A cached feature.");
+        WlpInformation wlpInformation = new WlpInformation("cached-1.0");
+        wlpInformation.setVisibility("PUBLIC");
+        feature.setWlpInformation(wlpInformation);
+        return new FeatureIndex(Arrays.asList(feature));
+    }
+
+    private CountDownLatch awaitFeatureList(String version) {
+        CountDownLatch fetched = new CountDownLatch(1);
+        listener = fetchedVersion -> {
+            if (version.equals(fetchedVersion)) {
+                fetched.countDown();
+            }
+        };
+        FeatureService.getInstance().addFeatureListListener(listener);
+        return fetched;
+    }
+
+    private void serve(String version, HttpHandler handler) {
+        mavenServer.createContext(String.format("/maven2/io/openDfdl/features/features/%s/features-%s.json",
+                version, version), handler);
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
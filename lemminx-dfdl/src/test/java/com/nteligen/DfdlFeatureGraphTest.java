@@ -0,0 +1,135 @@
+package com.nteligen;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.nteligen.lemminx.dfdl.models.feature.Feature;
+import com.nteligen.lemminx.dfdl.models.feature.RequireFeatureWithTolerates;
+import com.nteligen.lemminx.dfdl.models.feature.WlpInformation;
+import com.nteligen.lemminx.dfdl.services.FeatureDependencyGraph;
+import com.nteligen.lemminx.dfdl.services.FeatureDependencyGraph.Conflict;
+import com.nteligen.lemminx.dfdl.services.FeatureDependencyGraph.Node;
+import com.nteligen.lemminx.dfdl.services.FeatureIndex;
+import com.nteligen.lemminx.dfdl.util.DfdlConstants;
+import com.nteligen.lemminx.dfdl.util.FeatureCatalogFile;
+import com.nteligen.lemminx.dfdl.util.FeatureJsonReader;
+
+/**
+ * Tests the transitive closure and singleton conflicts of the feature
+ * dependency graph.
+ */
+public class DfdlFeatureGraphTest {
+
+    private static final String PREFIX = "com.example.";
+
+    @Test
+    public void testTransitiveConflict() {
+        List<Feature> features = Arrays.asList(
+                feature("web-1.0", "PUBLIC", false, "com.example.servlet-3.1"),
+                feature("rest-2.0", "PUBLIC", false, "com.example.internal-1.0"),
+                privateFeature("internal-1.0", "com.example.servlet-4.0"),
+                feature("servlet-3.1", "PUBLIC", true),
+                feature("servlet-4.0", "PUBLIC", true));
+        FeatureIndex featureIndex = new FeatureIndex(features);
+        assertEquals(4, featureIndex.size());
+
+        FeatureDependencyGraph graph = featureIndex.getDependencyGraph();
+        int web = graph.getOrdinal("web-1.0");
+        int rest = graph.getOrdinal("REST-2.0");
+        assertEquals(5, graph.getClosure(web, rest).cardinality());
+
+        List<Conflict> conflicts = graph.findConflicts(web, rest);
+        assertEquals(1, conflicts.size());
+        assertEquals(0, conflicts.get(0).getFirstRoot());
+        assertEquals(1, conflicts.get(0).getSecondRoot());
+        assertEquals("servlet-3.1", conflicts.get(0).getFirstFeature());
+        assertEquals("servlet-4.0", conflicts.get(0).getSecondFeature());
+
+        assertTrue(graph.findConflicts(web).isEmpty());
+        assertTrue(graph.findConflicts(web, graph.getOrdinal("servlet-3.1")).isEmpty());
+        assertEquals(1, graph.findConflicts(graph.getOrdinal("servlet-4.0"), web).size());
+    }
+
+    @Test
+    public void testToleratedRequirements() {
+        Feature rest = feature("rest-2.0", "PUBLIC", false);
+        RequireFeatureWithTolerates servlet = new RequireFeatureWithTolerates();
+        servlet.setFeature(PREFIX + "servlet-3.1");
+        servlet.setTolerates(new ArrayList<>(Arrays.asList("4.0")));
+        rest.getWlpInformation().setRequireFeatureWithTolerates(new ArrayList<>(Arrays.asList(servlet)));
+        FeatureDependencyGraph graph = new FeatureIndex(Arrays.asList(rest, feature("servlet-3.1", "PUBLIC", true),
+                feature("servlet-4.0", "PUBLIC", true))).getDependencyGraph();
+
+        // servlet-4.0 is tolerated, so it does not conflict
+        assertEquals(1, graph.getClosure(graph.getOrdinal("rest-2.0")).cardinality());
+        assertTrue(graph.findConflicts(graph.getOrdinal("rest-2.0"), graph.getOrdinal("servlet-4.0")).isEmpty());
+    }
+
+    @Test
+    public void testDefaultCatalog() throws IOException {
+        List<Feature> features;
+        List<Node> nonPublicFeatures = new ArrayList<>();
+        try (Reader reader = Files.newBufferedReader(Paths.get("src/main/features/features-" + DfdlConstants.DEFAULT_SERVER_VERSION + ".json"),
+                StandardCharsets.UTF_8)) {
+            features = FeatureJsonReader.readFeatures(reader, nonPublicFeatures);
+        }
+        assertEquals(156, features.size());
+        assertEquals(298, nonPublicFeatures.size());
+
+        // non public features are stored as graph nodes in the catalog
+        ByteArrayOutputStream catalog = new ByteArrayOutputStream();
+        FeatureCatalogFile.write(features, nonPublicFeatures, catalog);
+        FeatureCatalogFile catalogFile = FeatureCatalogFile.wrap(catalog.toByteArray());
+        assertEquals(nonPublicFeatures.size(), catalogFile.getNonPublicFeatures().size());
+        FeatureIndex featureIndex = FeatureIndex.of(catalogFile);
+        FeatureDependencyGraph graph = featureIndex.getDependencyGraph();
+        // features are decoded once, when they are looked up
+        assertTrue(featureIndex.featureExists("cdi-1.2"));
+        assertSame(featureIndex.getFeature("cdi-1.2").get(), featureIndex.getFeature("CDI-1.2").get());
+        assertEquals("cdi-1.2", featureIndex.getFeature("cdi-1.2").get().getWlpInformation().getShortName());
+        int cdi12 = graph.getOrdinal("cdi-1.2");
+        int cdi20 = graph.getOrdinal("cdi-2.0");
+        int servlet40 = graph.getOrdinal("servlet-4.0");
+
+        // Java EE 7 and 8 versions of eeCompatible, javax.annotation and javax.servlet
+        List<Conflict> conflicts = graph.findConflicts(cdi12, servlet40);
+        assertEquals(3, conflicts.size());
+        assertTrue(conflicts.stream().anyMatch(conflict -> conflict.getFirstRoot() == 0
+                && conflict.getFirstFeature().equals("com.ibm.websphere.appserver.javax.servlet-3.1")
+                && conflict.getSecondFeature().equals("com.ibm.websphere.appserver.javax.servlet-4.0")));
+        assertTrue(graph.findConflicts(cdi20, servlet40).isEmpty());
+    }
+
+    private static Feature privateFeature(String name, String... requires) {
+        Feature feature = feature(null, "PRIVATE", false, requires);
+        feature.setName(PREFIX + name);
+        feature.getWlpInformation().setProvideFeature(new ArrayList<>(Arrays.asList(PREFIX + name)));
+        return feature;
+    }
+
+    private static Feature feature(String shortName, String visibility, boolean singleton, String... requires) {
+        Feature feature = new Feature();
+        String symbolicName = PREFIX + shortName;
+        feature.setName(symbolicName);
+        WlpInformation wlpInformation = new WlpInformation(shortName);
+        wlpInformation.setVisibility(visibility);
+        wlpInformation.setSingleton(String.valueOf(singleton));
+        wlpInformation.setProvideFeature(new ArrayList<>(Arrays.asList(symbolicName)));
+        wlpInformation.setRequireFeature(new ArrayList<>(Arrays.asList(requires)));
+        feature.setWlpInformation(wlpInformation);
+        return feature;
+    }
+}
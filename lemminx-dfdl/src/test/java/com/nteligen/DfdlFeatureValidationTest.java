@@ -0,0 +1,121 @@
+package com.nteligen;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.nteligen.lemminx.dfdl.models.feature.Feature;
+import com.nteligen.lemminx.dfdl.models.feature.WlpInformation;
+import com.nteligen.lemminx.dfdl.services.FeatureIndex;
+import com.nteligen.lemminx.dfdl.services.FeatureValidation;
+import com.nteligen.lemminx.dfdl.services.FeatureValidation.Problem;
+
+/**
+ * Tests that the validation of a <featureManager> block only checks the
+ * entries that changed since the last validation, and that its problems stay
+ * correct as entries are edited and moved.
+ */
+public class DfdlFeatureValidationTest {
+
+    private static final String PREFIX = "com.example.";
+
+    private final FeatureIndex featureIndex = new FeatureIndex(Arrays.asList(
+            feature("jaxrs-2.1", false),
+            feature("jsonp-1.1", false),
+            feature("web-1.0", false, PREFIX + "servlet-3.1"),
+            feature("servlet-3.1", true),
+            feature("servlet-4.0", true)));
+
+    @Test
+    public void testUnchangedEntriesAreNotCheckedAgain() {
+        FeatureValidation validation = new FeatureValidation(featureIndex);
+        assertTrue(validation.validate(names("jaxrs-2.1", "jsonp-1.1", "servlet-4.0")).isEmpty());
+        assertEquals(3, validation.getChecks());
+
+        // ie. typing elsewhere in the document
+        for (int i = 0; i < 10; i++) {
+            assertTrue(validation.validate(names("jaxrs-2.1", "jsonp-1.1", "servlet-4.0")).isEmpty());
+        }
+        assertEquals(3, validation.getChecks());
+        assertEquals(1, validation.getConflictSearches());
+
+        // typing in the second entry
+        List<Problem> problems = validation.validate(names("jaxrs-2.1", "jsonp-1.", "servlet-4.0"));
+        assertEquals(4, validation.getChecks());
+        assertEquals(1, problems.size());
+        assertProblem(problems.get(0), 1, "ERROR: The feature \"jsonp-1.\" does not exist.");
+
+        // a new first entry shifts the others, which keep their problems
+        problems = validation.validate(names("web-1.0", "jaxrs-2.1", "jsonp-1.", "servlet-4.0"));
+        assertEquals(5, validation.getChecks());
+        assertEquals(2, problems.size());
+        assertProblem(problems.get(0), 2, "ERROR: The feature \"jsonp-1.\" does not exist.");
+        assertProblem(problems.get(1), 3, "ERROR: web-1.0 and servlet-4.0 cannot be used together: they enable "
+                + "servlet-3.1 and servlet-4.0, conflicting versions of a singleton feature.");
+
+        // removing the conflicting entry changes the included features
+        int conflictSearches = validation.getConflictSearches();
+        problems = validation.validate(names("web-1.0", "jaxrs-2.1", "jsonp-1.1"));
+        assertEquals(6, validation.getChecks());
+        assertTrue(problems.isEmpty());
+        assertEquals(conflictSearches + 1, validation.getConflictSearches());
+    }
+
+    @Test
+    public void testDuplicatesAfterEditsAndMoves() {
+        FeatureValidation validation = new FeatureValidation(featureIndex);
+        List<Problem> problems = validation.validate(names("jaxrs-2.1", "jsonp-1.1", "jaxrs-2.1"));
+        assertEquals(1, problems.size());
+        assertProblem(problems.get(0), 2, "ERROR: jaxrs-2.1 is already included.");
+        int checks = validation.getChecks();
+
+        // moved entries are not checked again, the later entry is the duplicate
+        problems = validation.validate(names("jsonp-1.1", "jaxrs-2.1", "jaxrs-2.1"));
+        assertEquals(checks, validation.getChecks());
+        assertEquals(1, problems.size());
+        assertProblem(problems.get(0), 2, "ERROR: jaxrs-2.1 is already included.");
+
+        // removing one entry leaves a single one
+        assertTrue(validation.validate(names("jsonp-1.1", "jaxrs-2.1")).isEmpty());
+        assertEquals(checks, validation.getChecks());
+
+        // adding it back at the top only checks the new entry
+        problems = validation.validate(names("jaxrs-2.1", "jsonp-1.1", "jaxrs-2.1"));
+        assertEquals(checks + 1, validation.getChecks());
+        assertEquals(1, problems.size());
+        assertProblem(problems.get(0), 2, "ERROR: jaxrs-2.1 is already included.");
+
+        // a feature that does not exist is never a duplicate
+        problems = validation.validate(names("jaxrs-2.1", "unknown-1.0", "unknown-1.0"));
+        assertEquals(2, problems.size());
+        assertProblem(problems.get(0), 1, "ERROR: The feature \"unknown-1.0\" does not exist.");
+        assertProblem(problems.get(1), 2, "ERROR: The feature \"unknown-1.0\" does not exist.");
+    }
+
+    private static void assertProblem(Problem problem, int entry, String message) {
+        assertEquals(entry, problem.getEntry());
+        assertEquals(message, problem.getMessage());
+    }
+
+    private static List<String> names(String... featureNames) {
+        return new ArrayList<>(Arrays.asList(featureNames));
+    }
+
+    private static Feature feature(String shortName, boolean singleton, String... requires) {
+        Feature feature = new Feature();
+        String symbolicName = PREFIX + shortName;
+        feature.setName(symbolicName);
+        WlpInformation wlpInformation = new WlpInformation(shortName);
+        wlpInformation.setVisibility("PUBLIC");
+        wlpInformation.setSingleton(String.valueOf(singleton));
+        wlpInformation.setProvideFeature(new ArrayList<>(Arrays.asList(symbolicName)));
+        wlpInformation.setRequireFeature(new ArrayList<>(Arrays.asList(requires)));
+        feature.setWlpInformation(wlpInformation);
+        return feature;
+    }
+}
@@ -0,0 +1,89 @@
+package com.nteligen;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.nteligen.lemminx.dfdl.services.FileWatcherService;
+import com.nteligen.lemminx.dfdl.services.FileWatcherService.Registration;
+
+/**
+ * Tests that all watched directories share one watcher thread, that
+ * registrations are deduplicated and that the watcher shuts down cleanly.
+ */
+public class DfdlFileWatcherServiceTest {
+
+    @TempDir
+    Path directory;
+    private final List<Registration> registrations = new ArrayList<>();
+
+    @AfterEach
+    public void closeRegistrations() {
+        for (Registration registration : registrations) {
+            registration.close();
+        }
+    }
+
+    @Test
+    public void testRegistrationsShareDirectoryWatch() throws IOException, InterruptedException {
+        FileWatcherService watcher = FileWatcherService.getInstance();
+        int watchedDirectories = watcher.getWatchedDirectoryCount();
+        CountDownLatch changed = new CountDownLatch(2);
+        registrations.add(watcher.register(directory, (path, kind) -> changed.countDown()));
+        registrations.add(watcher.register(directory, (path, kind) -> changed.countDown()));
+        assertEquals(watchedDirectories + 1, watcher.getWatchedDirectoryCount());
+
+        Files.createFile(directory.resolve("openDfdl.properties"));
+        assertTrue(changed.await(10, TimeUnit.SECONDS));
+
+        registrations.get(0).close();
+        assertEquals(watchedDirectories + 1, watcher.getWatchedDirectoryCount());
+        registrations.get(1).close();
+        assertEquals(watchedDirectories, watcher.getWatchedDirectoryCount());
+    }
+
+    @Test
+    public void testOneThreadForAllDirectories() throws IOException {
+        FileWatcherService watcher = FileWatcherService.getInstance();
+        for (int i = 0; i < 20; i++) {
+            Path subdirectory = Files.createDirectory(directory.resolve("dfdl" + i));
+            registrations.add(watcher.register(subdirectory, (path, kind) -> {
+            }));
+        }
+        assertEquals(1, countWatcherThreads());
+    }
+
+    @Test
+    public void testShutdown() throws IOException, InterruptedException {
+        FileWatcherService watcher = FileWatcherService.getInstance();
+        registrations.add(watcher.register(directory, (path, kind) -> {
+        }));
+        watcher.shutdown();
+        assertEquals(0, watcher.getWatchedDirectoryCount());
+        for (int i = 0; i < 50 && countWatcherThreads() > 0; i++) {
+            Thread.sleep(100);
+        }
+        assertEquals(0, countWatcherThreads());
+
+        // watching again after a shutdown starts a new thread
+        registrations.add(watcher.register(directory, (path, kind) -> {
+        }));
+        assertEquals(1, countWatcherThreads());
+    }
+
+    private static long countWatcherThreads() {
+        return Thread.getAllStackTraces().keySet().stream()
+                .filter(thread -> thread.isAlive() && "dfdl-file-watcher".equals(thread.getName())).count();
+    }
+}
@@ -2,7 +2,7 @@ package com.nteligen;
 
 import org.junit.jupiter.api.Test;
 
-import static io.openDfdl.lemminx.Dfdl.DfdlXSDURIResolver.SERVER_XSD_RESOURCE;
+import static com.nteligen.lemminx.dfdl.DfdlXSDURIResolver.SERVER_XSD_RESOURCE;
 
 import org.eclipse.lemminx.XMLAssert;
 import org.eclipse.lemminx.commons.BadLocationException;
@@ -0,0 +1,109 @@
+package com.nteligen;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.nteligen.lemminx.dfdl.services.FeatureIndex;
+import com.nteligen.lemminx.dfdl.services.FeatureListCache;
+import com.nteligen.lemminx.dfdl.services.InstalledFeatureCache;
+
+/**
+ * Tests that installed feature lists are only regenerated when the
+ * installation changes, and are reused across restarts.
+ */
+public class DfdlInstalledFeatureCacheTest {
+
+    // keeps the cached feature lists out of the LemMinx cache
+    @TempDir
+    Path cacheDirectory;
+
+    @TempDir
+    Path installationDirectory;
+
+    private Path installationRoot;
+    private Path propertiesFile;
+
+    @BeforeEach
+    public void createInstallation() throws IOException {
+        installationRoot = installationDirectory.resolve("wlp");
+        propertiesFile = installationRoot.resolve("lib/versions/openDfdl.properties");
+        write(propertiesFile, "com.ibm.websphere.productVersion=21.0.0.1\n");
+        writeFeature("servlet-4.0");
+        writeFeature("jaxrs-2.1");
+    }
+
+    @Test
+    public void testUnchangedInstallationIsScannedOnce() throws IOException {
+        InstalledFeatureCache cache = new InstalledFeatureCache(new FeatureListCache(cacheDirectory));
+        FeatureIndex features = cache.getInstalledFeatures(propertiesFile, installationRoot);
+        assertEquals(2, features.size());
+        for (int i = 0; i < 10; i++) {
+            // ie. several workspaces using the installation, or watcher events
+            assertSame(features, cache.getInstalledFeatures(propertiesFile, installationRoot));
+        }
+        assertEquals(1, cache.getScans());
+    }
+
+    @Test
+    public void testRestartUsesDiskCache() throws IOException {
+        new InstalledFeatureCache(new FeatureListCache(cacheDirectory)).getInstalledFeatures(propertiesFile, installationRoot);
+
+        InstalledFeatureCache restarted = new InstalledFeatureCache(new FeatureListCache(cacheDirectory));
+        FeatureIndex features = restarted.getInstalledFeatures(propertiesFile, installationRoot);
+        assertEquals(0, restarted.getScans());
+        assertEquals(2, features.size());
+        assertEquals("jaxrs-2.1", features.getFeature("jaxrs-2.1").get().getWlpInformation().getShortName());
+    }
+
+    @Test
+    public void testChangedInstallationIsScannedAgain() throws IOException {
+        InstalledFeatureCache cache = new InstalledFeatureCache(new FeatureListCache(cacheDirectory));
+        assertEquals(2, cache.getInstalledFeatures(propertiesFile, installationRoot).size());
+
+        writeFeature("cdi-2.0");
+        assertEquals(3, cache.getInstalledFeatures(propertiesFile, installationRoot).size());
+        assertEquals(2, cache.getScans());
+
+        write(propertiesFile, "com.ibm.websphere.productVersion=21.0.0.2\n");
+        assertEquals(3, cache.getInstalledFeatures(propertiesFile, installationRoot).size());
+        assertEquals(3, cache.getScans());
+    }
+
+    @Test
+    public void testUpdatedManifestIsScannedAgain() throws IOException {
+        InstalledFeatureCache cache = new InstalledFeatureCache(new FeatureListCache(cacheDirectory));
+        FeatureIndex features = cache.getInstalledFeatures(propertiesFile, installationRoot);
+        assertNull(features.getFeature("jaxrs-2.1").get().getWlpInformation().getSingleton());
+
+        // same manifests, one of them replaced by a fix pack
+        write(installationRoot.resolve("lib/features/com.example.jaxrs-2.1.mf"),
+                "Manifest-Version: 1.0\n"
+                + "Subsystem-SymbolicName: com.example.jaxrs-2.1; visibility:=public; singleton:=true\n"
+                + "IBM-ShortName: jaxrs-2.1\n");
+        features = cache.getInstalledFeatures(propertiesFile, installationRoot);
+        assertEquals(2, cache.getScans());
+        assertEquals("true", features.getFeature("jaxrs-2.1").get().getWlpInformation().getSingleton());
+    }
+
+    private void writeFeature(String shortName) throws IOException {
+        write(installationRoot.resolve("lib/features/com.example." + shortName + ".mf"),
+                "Manifest-Version: 1.0\n"
+                + "Subsystem-SymbolicName: com.example." + shortName + "; visibility:=public\n"
+                + "IBM-ShortName: " + shortName + "\n");
+    }
+
+    private static void write(Path file, String content) throws IOException {
+        Files.createDirectories(file.getParent());
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+    }
+}
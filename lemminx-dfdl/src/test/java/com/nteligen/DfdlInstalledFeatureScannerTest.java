@@ -0,0 +1,135 @@
+package com.nteligen;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.nteligen.lemminx.dfdl.models.feature.Feature;
+import com.nteligen.lemminx.dfdl.services.FeatureIndex;
+import com.nteligen.lemminx.dfdl.util.DfdlConstants;
+import com.nteligen.lemminx.dfdl.util.FeatureManifestScanner;
+
+/**
+ * Tests reading the installed features from the feature manifests of a
+ * synthetic installation.
+ */
+public class DfdlInstalledFeatureScannerTest {
+
+    @TempDir
+    Path installationDirectory;
+
+    private Path installationRoot;
+
+    @BeforeEach
+    public void createInstallation() throws IOException {
+        installationRoot = installationDirectory.resolve("wlp");
+        Files.createDirectories(installationRoot.resolve("lib/versions"));
+        Files.createDirectories(installationRoot.resolve("lib/features/l10n"));
+    }
+
+    @Test
+    public void testInstallationRoot() {
+        Path propertiesFile = installationRoot.resolve("lib/versions/" + DfdlConstants.PROPERTIES_FILE);
+        assertEquals(installationRoot, FeatureManifestScanner.getInstallationRoot(propertiesFile));
+    }
+
+    @Test
+    public void testPublicFeatures() throws IOException {
+        writeManifest("lib/features/com.ibm.websphere.appserver.jaxrs-2.1.mf",
+                "Subsystem-SymbolicName: com.ibm.websphere.appserver.jaxrs-2.1; visibility:=public; singleton:=true",
+                "IBM-ShortName: jaxrs-2.1",
+                "Subsystem-Description: %description",
+                "Subsystem-Localization: OSGI-INF/l10n/com.ibm.websphere.appserver.jaxrs-2.1",
+                "Subsystem-Version: 1.0.0",
+                "Subsystem-Content: com.ibm.websphere.appserver.servlet-4.0; type=\"osgi.subsystem.feature\",",
+                "  com.ibm.ws.jaxrs.2.1.common; version=\"[1,1.0.100)\",",
+                "  com.ibm.websphere.appserver.jsonp-1.1; type=\"osgi.subsystem.feature\"; ibm.tolerates:=\"1.0\"");
+        write("lib/features/l10n/com.ibm.websphere.appserver.jaxrs-2.1.properties",
+                "description=This feature enables support for JAX-RS 2.1.");
+        writeManifest("lib/features/com.ibm.websphere.appserver.servlet-4.0.mf",
+                "Subsystem-SymbolicName: com.ibm.websphere.appserver.servlet-4.0;visibility:=public",
+                "IBM-ShortName: servlet-4.0",
+                "Subsystem-Description: Java Servlets 4.0");
+        writeManifest("lib/features/com.ibm.ws.jaxrs.2.1.internal.mf",
+                "Subsystem-SymbolicName: com.ibm.ws.jaxrs.2.1.internal; visibility:=private");
+
+        List<Feature> allFeatures = FeatureManifestScanner.scan(installationRoot);
+        assertEquals(Arrays.asList("jaxrs-2.1", "servlet-4.0", "com.ibm.ws.jaxrs.2.1.internal"), names(allFeatures));
+        assertEquals("PRIVATE", allFeatures.get(2).getWlpInformation().getVisibility());
+
+        List<Feature> features = new FeatureIndex(allFeatures).getFeatures();
+        assertEquals(Arrays.asList("jaxrs-2.1", "servlet-4.0"), names(features));
+
+        Feature jaxrs = features.get(0);
+        assertEquals("This feature enables support for JAX-RS 2.1.", jaxrs.getDescription());
+        assertEquals(jaxrs.getDescription(), jaxrs.getShortDescription());
+        assertEquals("1.0.0", jaxrs.getVersion());
+        assertEquals("jaxrs-2.1", jaxrs.getWlpInformation().getShortName());
+        assertEquals(DfdlConstants.PUBLIC_VISIBILITY, jaxrs.getWlpInformation().getVisibility());
+        assertEquals("true", jaxrs.getWlpInformation().getSingleton());
+        assertEquals(Arrays.asList("com.ibm.websphere.appserver.jaxrs-2.1"),
+                jaxrs.getWlpInformation().getProvideFeature());
+        assertEquals(Arrays.asList("com.ibm.websphere.appserver.servlet-4.0", "com.ibm.websphere.appserver.jsonp-1.1"),
+                jaxrs.getWlpInformation().getRequireFeature());
+        assertEquals(Arrays.asList("1.0"),
+                jaxrs.getWlpInformation().getRequireFeatureWithTolerates().get(1).getTolerates());
+
+        assertEquals("Java Servlets 4.0", features.get(1).getDescription());
+    }
+
+    @Test
+    public void testUserFeatures() throws IOException {
+        writeManifest("usr/extension/lib/features/myFeature.mf",
+                "Subsystem-SymbolicName: com.example.myFeature-1.0; visibility:=public",
+                "IBM-ShortName: myFeature-1.0");
+
+        List<Feature> features = FeatureManifestScanner.scan(installationRoot);
+        assertEquals(Arrays.asList("usr:myFeature-1.0"), names(features));
+    }
+
+    @Test
+    public void testManyManifests() throws IOException {
+        for (int i = 0; i < 500; i++) {
+            writeManifest("lib/features/feature" + i + ".mf",
+                    "Subsystem-SymbolicName: com.example.feature" + i + "; visibility:=" + (i % 2 == 0 ? "public" : "protected"),
+                    "IBM-ShortName: feature" + i);
+        }
+        List<Feature> features = new FeatureIndex(FeatureManifestScanner.scan(installationRoot)).getFeatures();
+        assertEquals(250, features.size());
+        assertTrue(names(features).stream().allMatch(name -> Integer.parseInt(name.substring(7)) % 2 == 0));
+    }
+
+    @Test
+    public void testNoFeatures() throws IOException {
+        assertTrue(FeatureManifestScanner.scan(installationRoot.resolve("missing")).isEmpty());
+    }
+
+    private static List<String> names(List<Feature> features) {
+        return features.stream().map(Feature::getName).collect(Collectors.toList());
+    }
+
+    private void writeManifest(String path, String... headers) throws IOException {
+        StringBuilder manifest = new StringBuilder("Manifest-Version: 1.0\n");
+        for (String header : headers) {
+            manifest.append(header).append('\n');
+        }
+        write(path, manifest.toString());
+    }
+
+    private void write(String path, String content) throws IOException {
+        Path file = installationRoot.resolve(path);
+        Files.createDirectories(file.getParent());
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+    }
+}
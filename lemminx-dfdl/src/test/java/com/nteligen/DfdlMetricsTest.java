@@ -0,0 +1,90 @@
+package com.nteligen;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.TabularData;
+
+import com.google.gson.JsonObject;
+
+import org.junit.jupiter.api.Test;
+
+import com.nteligen.lemminx.dfdl.services.DfdlMetrics;
+import com.nteligen.lemminx.dfdl.services.LatencyHistogram;
+
+/**
+ * Tests the latency histograms and the metrics report.
+ */
+public class DfdlMetricsTest {
+
+    @Test
+    public void testPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int micros = 1; micros <= 10000; micros++) {
+            histogram.record(micros);
+        }
+        assertEquals(10000, histogram.getCount());
+        assertEquals(5000.5, histogram.getMean(), 0.001);
+        assertEquals(10000, histogram.getMax());
+        // buckets are within about 6% of the recorded values
+        assertEquals(5000, histogram.getPercentile(0.5), 5000 * 0.07);
+        assertEquals(9900, histogram.getPercentile(0.99), 9900 * 0.07);
+        assertEquals(10000, histogram.getPercentile(1));
+
+        histogram.reset();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getPercentile(0.99));
+    }
+
+    @Test
+    public void testConcurrentRecording() throws InterruptedException {
+        LatencyHistogram histogram = new LatencyHistogram();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < 100000; i++) {
+                    histogram.record(i % 1000);
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(800000, histogram.getCount());
+        assertEquals(999, histogram.getMax());
+    }
+
+    @Test
+    public void testReportAndJmx() throws Exception {
+        DfdlMetrics metrics = DfdlMetrics.getInstance();
+        metrics.increment("test.counter");
+        metrics.increment("test.counter");
+        metrics.record("test.timer", System.nanoTime() - 2000000);
+
+        JsonObject report = metrics.toJson();
+        assertEquals(2, report.getAsJsonObject("counters").get("test.counter").getAsLong());
+        JsonObject timer = report.getAsJsonObject("timers").getAsJsonObject("test.timer");
+        assertEquals(1, timer.get("count").getAsLong());
+        assertTrue(timer.get("p99Millis").getAsDouble() >= 1.8);
+
+        metrics.registerMBean();
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(DfdlMetrics.OBJECT_NAME);
+            assertTrue(server.isRegistered(name));
+            // maps are exposed as open data, readable by any JMX client
+            assertTrue(server.getAttribute(name, "P99Millis") instanceof TabularData);
+            assertTrue(((String) server.getAttribute(name, "Report")).contains("test.timer"));
+        } finally {
+            metrics.unregisterMBean();
+        }
+    }
+}
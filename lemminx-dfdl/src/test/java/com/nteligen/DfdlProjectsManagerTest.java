@@ -0,0 +1,87 @@
+package com.nteligen;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.eclipse.lsp4j.WorkspaceFolder;
+import org.eclipse.lsp4j.WorkspaceFoldersChangeEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.nteligen.lemminx.dfdl.services.DfdlProjectsManager;
+import com.nteligen.lemminx.dfdl.services.DfdlWorkspace;
+import com.nteligen.lemminx.dfdl.services.FileWatcherService;
+
+/**
+ * Tests that workspace folder state is created on first use and disposed of
+ * when the folder is removed.
+ */
+public class DfdlProjectsManagerTest {
+
+    @TempDir
+    Path folder;
+    private WorkspaceFolder workspaceFolder;
+
+    @BeforeEach
+    public void createFolder() {
+        workspaceFolder = new WorkspaceFolder(folder.toUri().toString());
+    }
+
+    @AfterEach
+    public void removeFolder() {
+        DfdlProjectsManager.getInstance().didChangeWorkspaceFolders(
+                new WorkspaceFoldersChangeEvent(Collections.emptyList(), Arrays.asList(workspaceFolder)));
+    }
+
+    @Test
+    public void testWorkspaceStateIsCreatedOnFirstUse() {
+        DfdlProjectsManager projectsManager = DfdlProjectsManager.getInstance();
+        projectsManager.setWorkspaceFolders(Arrays.asList(workspaceFolder));
+        assertTrue(projectsManager.getWorkspaceFolderURIs().contains(workspaceFolder.getUri()));
+        assertFalse(isTracked(workspaceFolder.getUri()));
+
+        DfdlWorkspace DfdlWorkspace = projectsManager.getWorkspaceFolder(workspaceFolder.getUri() + "server.xml");
+        assertNotNull(DfdlWorkspace);
+        assertTrue(isTracked(workspaceFolder.getUri()));
+        assertSame(DfdlWorkspace, projectsManager.getWorkspaceFolder(workspaceFolder.getUri() + "src/server.xml"));
+    }
+
+    @Test
+    public void testRemovedWorkspaceIsEvicted() throws IOException {
+        DfdlProjectsManager projectsManager = DfdlProjectsManager.getInstance();
+        FileWatcherService watcher = FileWatcherService.getInstance();
+        int watchedDirectories = watcher.getWatchedDirectoryCount();
+        projectsManager.didChangeWorkspaceFolders(
+                new WorkspaceFoldersChangeEvent(Arrays.asList(workspaceFolder), Collections.emptyList()));
+        Files.createDirectories(folder.resolve("dfdl/lib/versions"));
+
+        String serverXMLURI = workspaceFolder.getUri() + "server.xml";
+        DfdlWorkspace DfdlWorkspace = projectsManager.getWorkspaceFolder(serverXMLURI);
+        assertNull(DfdlWorkspace.getFileIndex().findFile("openDfdl.properties"));
+        assertEquals(watchedDirectories + 4, watcher.getWatchedDirectoryCount());
+
+        // removed with a differently encoded URI
+        projectsManager.didChangeWorkspaceFolders(new WorkspaceFoldersChangeEvent(Collections.emptyList(),
+                Arrays.asList(new WorkspaceFolder(workspaceFolder.getUri().replace("file:///", "file:/")))));
+        assertFalse(isTracked(workspaceFolder.getUri()));
+        assertNull(projectsManager.getWorkspaceFolder(serverXMLURI));
+        assertEquals(watchedDirectories, watcher.getWatchedDirectoryCount());
+    }
+
+    private static boolean isTracked(String folderURI) {
+        return DfdlProjectsManager.getInstance().getDfdlWorkspaceFolders().stream()
+                .anyMatch(DfdlWorkspace -> folderURI.equals(DfdlWorkspace.getURI()));
+    }
+}
@@ -0,0 +1,126 @@
+package com.nteligen;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.nteligen.lemminx.dfdl.services.DfdlTracer;
+import com.nteligen.lemminx.dfdl.services.DfdlTracer.Span;
+
+/**
+ * Tests the spans written by the tracer in the Chrome trace-event format.
+ */
+public class DfdlTracerTest {
+
+    @TempDir
+    Path tempDir;
+
+    @AfterEach
+    public void disableTracing() {
+        DfdlTracer.getInstance().disable();
+    }
+
+    @Test
+    public void testNestedSpans() throws IOException {
+        Path traceFile = tempDir.resolve("trace.json");
+        DfdlTracer tracer = DfdlTracer.getInstance();
+        tracer.enable(traceFile);
+        try (Span completion = tracer.span("completion")) {
+            completion.arg("uri", "file:///server.xml");
+            try (Span version = tracer.span("getVersion")) {
+                sleep();
+            }
+            try (Span items = tracer.span("buildItems")) {
+                sleep();
+            }
+        }
+        tracer.flush();
+
+        Map<String, JsonObject> spans = new HashMap<>();
+        for (JsonElement element : readTrace(traceFile)) {
+            JsonObject event = element.getAsJsonObject();
+            if ("X".equals(event.get("ph").getAsString())) {
+                spans.put(event.get("name").getAsString(), event);
+            }
+        }
+        assertEquals(3, spans.size());
+        JsonObject completion = spans.get("completion");
+        assertEquals("file:///server.xml", completion.getAsJsonObject("args").get("uri").getAsString());
+        for (String stage : new String[] { "getVersion", "buildItems" }) {
+            JsonObject span = spans.get(stage);
+            // nested spans are on the same thread, within their parent
+            assertEquals(completion.get("tid"), span.get("tid"));
+            assertTrue(span.get("ts").getAsLong() >= completion.get("ts").getAsLong());
+            assertTrue(span.get("ts").getAsLong() + span.get("dur").getAsLong() <= completion.get("ts").getAsLong()
+                    + completion.get("dur").getAsLong());
+        }
+    }
+
+    @Test
+    public void testRotation() throws IOException {
+        Path traceFile = tempDir.resolve("trace.json");
+        DfdlTracer tracer = DfdlTracer.getInstance();
+        tracer.enable(traceFile, 1024);
+        for (int i = 0; i < 100; i++) {
+            try (Span span = tracer.span("span" + i)) {
+            }
+        }
+        tracer.flush();
+
+        assertTrue(Files.size(traceFile) < 2048);
+        // every file, rotated or not, can be read on its own
+        assertFalse(readTrace(traceFile).size() == 0);
+        assertFalse(readTrace(traceFile.resolveSibling("trace.json.1")).size() == 0);
+        assertTrue(Files.exists(traceFile.resolveSibling("trace.json.3")));
+        assertFalse(Files.exists(traceFile.resolveSibling("trace.json.4")));
+    }
+
+    @Test
+    public void testDisabled() {
+        Path traceFile = tempDir.resolve("trace.json");
+        DfdlTracer tracer = DfdlTracer.getInstance();
+        tracer.enable(traceFile);
+        tracer.disable();
+        assertFalse(tracer.isEnabled());
+        try (Span span = tracer.span("completion")) {
+            span.arg("uri", "file:///server.xml");
+        }
+        tracer.flush();
+        assertFalse(Files.exists(traceFile));
+    }
+
+    /**
+     * Reads a trace file, whose closing bracket is left out while it is written.
+     */
+    private static JsonArray readTrace(Path traceFile) throws IOException {
+        String text = new String(Files.readAllBytes(traceFile), StandardCharsets.UTF_8).trim();
+        if (text.endsWith(",")) {
+            text = text.substring(0, text.length() - 1);
+        }
+        return new JsonParser().parse(text + "]").getAsJsonArray();
+    }
+
+    private static void sleep() {
+        try {
+            Thread.sleep(2);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.nteligen;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import com.google.gson.JsonObject;
+
+import org.eclipse.lsp4j.WorkspaceFolder;
+import org.eclipse.lsp4j.WorkspaceFoldersChangeEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.nteligen.lemminx.dfdl.services.DfdlProjectsManager;
+import com.nteligen.lemminx.dfdl.services.DfdlWorkspace;
+import com.nteligen.lemminx.dfdl.services.SettingsService;
+import com.nteligen.lemminx.dfdl.util.DfdlUtils;
+
+/**
+ * Tests that the Dfdl version of a workspace is read from disk once and then
+ * memoized until the installation or the settings change.
+ */
+public class DfdlVersionTest {
+
+    @TempDir
+    Path folder;
+    private WorkspaceFolder workspaceFolder;
+    private String serverXMLURI;
+    private Path propertiesFile;
+
+    @BeforeEach
+    public void createInstallation() throws IOException {
+        propertiesFile = folder.resolve("target/dfdl/lib/versions/openDfdl.properties");
+        Files.createDirectories(propertiesFile.getParent());
+        writeVersion("21.0.0.1");
+
+        workspaceFolder = new WorkspaceFolder(folder.toUri().toString());
+        DfdlProjectsManager.getInstance().setWorkspaceFolders(Arrays.asList(workspaceFolder));
+        serverXMLURI = folder.resolve("src/main/dfdl/config/server.xml").toUri().toString();
+    }
+
+    @AfterEach
+    public void removeInstallation() {
+        DfdlProjectsManager.getInstance().didChangeWorkspaceFolders(
+                new WorkspaceFoldersChangeEvent(Collections.emptyList(), Arrays.asList(workspaceFolder)));
+        SettingsService.getInstance().updateDfdlSettings(new JsonObject());
+    }
+
+    @Test
+    public void testRepeatedRequestsDoNotTouchDisk() {
+        assertEquals("21.0.0.1", DfdlUtils.getVersion(serverXMLURI));
+        DfdlWorkspace DfdlWorkspace = DfdlProjectsManager.getInstance().getWorkspaceFolder(serverXMLURI);
+        for (int i = 0; i < 1000; i++) {
+            assertEquals("21.0.0.1", DfdlUtils.getVersion(serverXMLURI));
+        }
+        assertEquals(1, DfdlWorkspace.getVersionResolutions());
+    }
+
+    @Test
+    public void testModifiedPropertiesFileInvalidatesVersion() throws IOException, InterruptedException {
+        assertEquals("21.0.0.1", DfdlUtils.getVersion(serverXMLURI));
+        DfdlWorkspace DfdlWorkspace = DfdlProjectsManager.getInstance().getWorkspaceFolder(serverXMLURI);
+
+        writeVersion("21.0.0.2");
+        String version = DfdlUtils.getVersion(serverXMLURI);
+        for (int i = 0; i < 100 && !"21.0.0.2".equals(version); i++) {
+            Thread.sleep(100);
+            version = DfdlUtils.getVersion(serverXMLURI);
+        }
+        assertEquals("21.0.0.2", version);
+        int resolutions = DfdlWorkspace.getVersionResolutions();
+
+        DfdlUtils.getVersion(serverXMLURI);
+        assertEquals(resolutions, DfdlWorkspace.getVersionResolutions());
+    }
+
+    @Test
+    public void testSettingsUpdateInvalidatesVersion() {
+        assertEquals("21.0.0.1", DfdlUtils.getVersion(serverXMLURI));
+        DfdlWorkspace DfdlWorkspace = DfdlProjectsManager.getInstance().getWorkspaceFolder(serverXMLURI);
+
+        JsonObject DfdlSettings = new JsonObject();
+        DfdlSettings.addProperty("requestDelay", 10);
+        JsonObject xmlSettings = new JsonObject();
+        xmlSettings.add("Dfdl", DfdlSettings);
+        SettingsService.getInstance().updateDfdlSettings(xmlSettings);
+
+        assertEquals("21.0.0.1", DfdlUtils.getVersion(serverXMLURI));
+        // resolved again, from the installation that is still current, without
+        // looking up its properties file
+        assertEquals(1, DfdlWorkspace.getVersionResolutions());
+        assertEquals("21.0.0.1", DfdlUtils.getVersion(serverXMLURI));
+        assertEquals(1, DfdlWorkspace.getVersionResolutions());
+
+        // a version set in the settings takes precedence
+        DfdlSettings.addProperty("version", "21.0.0.3");
+        SettingsService.getInstance().updateDfdlSettings(xmlSettings);
+        assertEquals("21.0.0.3", DfdlUtils.getVersion(serverXMLURI));
+    }
+
+    @Test
+    public void testInvalidationDoesNotWaitForWorkspaceLock() throws InterruptedException {
+        assertEquals("21.0.0.1", DfdlUtils.getVersion(serverXMLURI));
+        DfdlWorkspace DfdlWorkspace = DfdlProjectsManager.getInstance().getWorkspaceFolder(serverXMLURI);
+
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        // ie. a request resolving the version or scanning the installed features
+        Thread request = new Thread(() -> {
+            synchronized (DfdlWorkspace) {
+                locked.countDown();
+                try {
+                    release.await(30, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+        request.start();
+        try {
+            assertTrue(locked.await(10, TimeUnit.SECONDS));
+            // as done by the file watcher thread, while the lock is still held
+            Thread watcher = new Thread(DfdlWorkspace::invalidateVersion);
+            watcher.start();
+            watcher.join(10000);
+            assertFalse(watcher.isAlive());
+            assertNull(DfdlWorkspace.getResolvedVersion());
+        } finally {
+            release.countDown();
+            request.join();
+        }
+        assertEquals("21.0.0.1", DfdlUtils.getVersion(serverXMLURI));
+    }
+
+    @Test
+    public void testResolutionRacingInvalidationIsNotReturned() {
+        DfdlWorkspace DfdlWorkspace = DfdlProjectsManager.getInstance().getWorkspaceFolder(serverXMLURI);
+        int versionStamp = DfdlWorkspace.getVersionStamp();
+        DfdlWorkspace.invalidateVersion();
+        DfdlWorkspace.setResolvedVersion("21.0.0.1", SettingsService.getInstance().getGeneration(), versionStamp);
+        assertNull(DfdlWorkspace.getResolvedVersion());
+    }
+
+    private void writeVersion(String version) throws IOException {
+        Files.write(propertiesFile, ("com.ibm.websphere.productVersion=" + version + "\n")
+                .getBytes(StandardCharsets.ISO_8859_1));
+    }
+}
@@ -0,0 +1,89 @@
+package com.nteligen;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.nteligen.lemminx.dfdl.DfdlWarmUp;
+import com.nteligen.lemminx.dfdl.DfdlWarmUp.Stage;
+import com.nteligen.lemminx.dfdl.DfdlXSDURIResolver;
+import com.nteligen.lemminx.dfdl.services.FeatureIndex;
+import com.nteligen.lemminx.dfdl.services.FeatureService;
+
+/**
+ * Tests the background warm-up run when the extension starts.
+ */
+public class DfdlWarmUpTest {
+
+    @TempDir
+    Path cacheFolder;
+
+    @BeforeEach
+    public void useTemporaryCache() {
+        // keep server.xsd and the default catalog out of the user's lemminx cache
+        DfdlXSDURIResolver.setCacheDirectory(cacheFolder);
+        FeatureService.getInstance().setFeatureListCacheDirectory(cacheFolder);
+    }
+
+    @AfterEach
+    public void restoreCache() {
+        DfdlXSDURIResolver.setCacheDirectory(null);
+        FeatureService.getInstance().setFeatureListCacheDirectory(null);
+    }
+
+    @Test
+    public void testWarmUp() throws InterruptedException, IOException {
+        DfdlWarmUp warmUp = new DfdlWarmUp();
+        warmUp.start();
+        long deadline = System.currentTimeMillis() + 30000;
+        for (Stage stage : Stage.values()) {
+            while (!warmUp.isDone(stage) && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            assertTrue(warmUp.isDone(stage), stage.name());
+        }
+
+        // a stage is also done when it failed, so check what it left behind:
+        // the bundled server.xsd is in the cache, where server.xml resolves to
+        Path serverXSD;
+        try (Stream<Path> files = Files.walk(cacheFolder)) {
+            serverXSD = files.filter(file -> file.getFileName().toString().equals("server.xsd")).findFirst()
+                    .orElse(null);
+        }
+        assertNotNull(serverXSD);
+        assertFalse(DfdlXSDURIResolver.updateServerXSD(serverXSD));
+        String serverXSDURI = new DfdlXSDURIResolver().resolve("file:///workspace/server.xml", null, null);
+        assertEquals(serverXSD, Paths.get(URI.create(serverXSDURI)));
+
+        // and the default index is loaded before any request asks for it
+        FeatureService featureService = FeatureService.getInstance();
+        assertTrue(featureService.isDefaultFeatureIndexLoaded());
+        FeatureIndex defaultFeatures = featureService.getDefaultFeatureIndex();
+        assertTrue(defaultFeatures.size() > 0);
+        assertSame(defaultFeatures, featureService.getDefaultFeatureIndex());
+    }
+
+    @Test
+    public void testCancel() {
+        DfdlWarmUp warmUp = new DfdlWarmUp();
+        warmUp.start();
+        warmUp.cancel();
+        for (Stage stage : Stage.values()) {
+            assertTrue(warmUp.isDone(stage), stage.name());
+        }
+    }
+}
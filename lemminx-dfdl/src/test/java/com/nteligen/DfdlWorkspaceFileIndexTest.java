@@ -0,0 +1,86 @@
+package com.nteligen;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.nteligen.lemminx.dfdl.services.WorkspaceFileIndex;
+
+/**
+ * Tests that the workspace file index finds files by name, skips excluded
+ * directories and follows changes to the workspace.
+ */
+public class DfdlWorkspaceFileIndexTest {
+
+    @TempDir
+    Path workspace;
+    private WorkspaceFileIndex fileIndex;
+
+    @AfterEach
+    public void stopIndex() {
+        if (fileIndex != null) {
+            fileIndex.stop();
+        }
+    }
+
+    @Test
+    public void testFindFile() throws IOException {
+        Path propertiesFile = createFile("target/dfdl/lib/versions/openDfdl.properties");
+        createFile("node_modules/dfdl/lib/versions/openDfdl.properties");
+        createFile(".git/openDfdl.properties");
+
+        fileIndex = new WorkspaceFileIndex(workspace);
+        fileIndex.start();
+        assertEquals(propertiesFile, fileIndex.findFile("openDfdl.properties"));
+        assertNull(fileIndex.findFile("ws-featurelist.jar"));
+    }
+
+    @Test
+    public void testFindMostRecentlyModifiedFile() throws IOException {
+        Path older = createFile("a/openDfdl.properties");
+        Path newer = createFile("b/openDfdl.properties");
+        older.toFile().setLastModified(System.currentTimeMillis() - 60000);
+
+        fileIndex = new WorkspaceFileIndex(workspace);
+        fileIndex.start();
+        assertEquals(newer, fileIndex.findFile("openDfdl.properties"));
+    }
+
+    @Test
+    public void testFollowsWorkspaceChanges() throws IOException, InterruptedException {
+        fileIndex = new WorkspaceFileIndex(workspace);
+        fileIndex.start();
+        assertNull(fileIndex.findFile("ws-featurelist.jar"));
+
+        // created in a new directory after the initial scan
+        Path featureListJAR = createFile("target/dfdl/bin/tools/ws-featurelist.jar");
+        assertEquals(featureListJAR, await(() -> fileIndex.findFile("ws-featurelist.jar"), featureListJAR));
+
+        Files.delete(featureListJAR);
+        assertNull(await(() -> fileIndex.findFile("ws-featurelist.jar"), null));
+    }
+
+    private Path createFile(String relativePath) throws IOException {
+        Path file = workspace.resolve(relativePath);
+        Files.createDirectories(file.getParent());
+        return Files.createFile(file);
+    }
+
+    // file system events are delivered asynchronously
+    private static Path await(Supplier<Path> lookup, Path expected) throws InterruptedException {
+        Path result = lookup.get();
+        for (int i = 0; i < 100 && (expected == null ? result != null : !expected.equals(result)); i++) {
+            Thread.sleep(100);
+            result = lookup.get();
+        }
+        return result;
+    }
+}
@@ -0,0 +1,65 @@
+package com.nteligen;
+
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.nteligen.lemminx.dfdl.services.WorkspaceFolderTrie;
+
+/**
+ * Tests that documents resolve to the innermost workspace folder containing
+ * them.
+ */
+public class DfdlWorkspaceFolderTrieTest {
+
+    @Test
+    public void testNestedFolders() {
+        String outer = "file:///home/user/ws";
+        String inner = "file:///home/user/ws/services/app/";
+        WorkspaceFolderTrie trie = new WorkspaceFolderTrie(Arrays.asList(outer, inner));
+
+        assertSame(inner, trie.getWorkspaceFolderURI("file:///home/user/ws/services/app/src/main/dfdl/server.xml"));
+        assertSame(outer, trie.getWorkspaceFolderURI("file:///home/user/ws/services/server.xml"));
+        assertSame(outer, trie.getWorkspaceFolderURI("file:///home/user/ws/server.xml"));
+        assertNull(trie.getWorkspaceFolderURI("file:///home/user/other/server.xml"));
+    }
+
+    @Test
+    public void testFoldersSharingPrefix() {
+        String app = "file:///ws/app";
+        String app2 = "file:///ws/app2";
+        WorkspaceFolderTrie trie = new WorkspaceFolderTrie(Arrays.asList(app, app2));
+
+        assertSame(app2, trie.getWorkspaceFolderURI("file:///ws/app2/server.xml"));
+        assertSame(app, trie.getWorkspaceFolderURI("file:///ws/app/server.xml"));
+        assertNull(trie.getWorkspaceFolderURI("file:///ws/ap/server.xml"));
+    }
+
+    @Test
+    public void testNormalizedURIs() {
+        String workspace = "file:///c%3A/Users/dev/my%20project";
+        WorkspaceFolderTrie trie = new WorkspaceFolderTrie(Arrays.asList(workspace));
+
+        assertSame(workspace, trie.getWorkspaceFolderURI("file:///C:/Users/dev/my%20project/server.xml"));
+        assertSame(workspace, trie.getWorkspaceFolderURI("file:///C:/Users/dev/my project/server.xml"));
+        assertSame(workspace, trie.getWorkspaceFolderURI("FILE:///c:/Users/dev//my%20project/./server.xml"));
+        assertNull(trie.getWorkspaceFolderURI("file:///C:/users/dev/my%20project/server.xml"));
+    }
+
+    @Test
+    public void testManyFolders() {
+        List<String> workspaces = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            workspaces.add("file:///monorepo/module" + i);
+        }
+        WorkspaceFolderTrie trie = new WorkspaceFolderTrie(workspaces);
+        for (int i = 0; i < 500; i++) {
+            assertSame(workspaces.get(i), trie.getWorkspaceFolderURI("file:///monorepo/module" + i + "/server.xml"));
+        }
+    }
+}
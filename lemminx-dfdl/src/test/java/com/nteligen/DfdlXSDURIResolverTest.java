@@ -0,0 +1,101 @@
+package com.nteligen;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.nteligen.lemminx.dfdl.DfdlXSDURIResolver;
+
+/**
+ * Tests that the server.xsd in the LemMinx cache is replaced when it differs
+ * from the bundled one, left alone otherwise, and deployed again when the
+ * cache is cleared while the server runs.
+ */
+public class DfdlXSDURIResolverTest {
+
+    @TempDir
+    Path cacheFolder;
+
+    @Test
+    public void testOutdatedServerXSDIsReplaced() throws IOException {
+        Path serverXSD = cacheFolder.resolve("server.xsd");
+        // left behind by an older version of the extension
+        Files.write(serverXSD, "<xsd:schema/>".getBytes(StandardCharsets.UTF_8));
+
+        assertTrue(DfdlXSDURIResolver.updateServerXSD(serverXSD));
+        assertArrayEquals(readBundledServerXSD(), Files.readAllBytes(serverXSD));
+        assertNoTempFiles();
+    }
+
+    @Test
+    public void testUpToDateServerXSDIsNotRewritten() throws IOException {
+        Path serverXSD = cacheFolder.resolve("server.xsd");
+        Files.write(serverXSD, readBundledServerXSD());
+        FileTime lastModified = FileTime.fromMillis(0);
+        Files.setLastModifiedTime(serverXSD, lastModified);
+
+        assertFalse(DfdlXSDURIResolver.updateServerXSD(serverXSD));
+        assertEquals(lastModified, Files.getLastModifiedTime(serverXSD));
+        assertNoTempFiles();
+    }
+
+    @Test
+    public void testMissingServerXSDIsWritten() throws IOException {
+        Path serverXSD = cacheFolder.resolve("schema").resolve("server.xsd");
+
+        assertTrue(DfdlXSDURIResolver.updateServerXSD(serverXSD));
+        assertArrayEquals(readBundledServerXSD(), Files.readAllBytes(serverXSD));
+    }
+
+    @Test
+    public void testClearedCacheIsDeployedAgain() throws IOException {
+        DfdlXSDURIResolver.setCacheDirectory(cacheFolder);
+        try {
+            DfdlXSDURIResolver resolver = new DfdlXSDURIResolver();
+            String serverXSDURI = resolver.resolve("file:///workspace/server.xml", null, null);
+            Path serverXSD = Paths.get(URI.create(serverXSDURI));
+            assertTrue(serverXSD.startsWith(cacheFolder));
+            assertTrue(Files.exists(serverXSD));
+
+            // ie. the lemminx cache is cleared while the server runs
+            Files.delete(serverXSD);
+            assertEquals(serverXSDURI, resolver.resolve("file:///workspace/server.xml", null, null));
+            assertArrayEquals(readBundledServerXSD(), Files.readAllBytes(serverXSD));
+        } finally {
+            DfdlXSDURIResolver.setCacheDirectory(null);
+        }
+    }
+
+    private void assertNoTempFiles() throws IOException {
+        try (Stream<Path> files = Files.list(cacheFolder)) {
+            assertEquals(1, files.count());
+        }
+    }
+
+    private static byte[] readBundledServerXSD() throws IOException {
+        try (InputStream in = DfdlXSDURIResolverTest.class.getResourceAsStream("/schema/xsd/liberty/server.xsd")) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+            return out.toByteArray();
+        }
+    }
+}